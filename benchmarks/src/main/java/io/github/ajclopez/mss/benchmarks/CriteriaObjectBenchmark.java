@@ -0,0 +1,50 @@
+package io.github.ajclopez.mss.benchmarks;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Conversion of compiled criteria into the {@link Document} sent to the server, which runs every time a query is
+ * executed.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaObjectBenchmark {
+
+	@Param({ "simple", "sorted", "deepFilter" })
+	public String query;
+	
+	private CriteriaDefinition criteria;
+	
+	@Setup
+	public void setup() {
+		criteria = MongoSpringSearch.compile(SearchQueries.get(query), Optional.empty()).criteria();
+	}
+	
+	@Benchmark
+	public Document getCriteriaObject() {
+		return criteria.getCriteriaObject();
+	}
+	
+}
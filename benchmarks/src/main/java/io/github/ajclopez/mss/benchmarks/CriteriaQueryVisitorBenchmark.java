@@ -0,0 +1,53 @@
+package io.github.ajclopez.mss.benchmarks;
+
+import io.github.ajclopez.mss.QueryLexer;
+import io.github.ajclopez.mss.criteria.CriteriaQueryVisitor;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.parser.FieldCodecs;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Conversion of an ANTLR parse tree of a deep {@code filter=} input into a tree of logical operations, the parse tree
+ * is built once.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaQueryVisitorBenchmark {
+
+	private ParseTree tree;
+	private CriteriaQueryVisitor visitor;
+	
+	@Setup
+	public void setup() {
+		
+		QueryLexer lexer = new QueryLexer(CharStreams.fromString(SearchQueries.DEEP_FILTER_EXPRESSION));
+		tree = new io.github.ajclopez.mss.QueryParser(new CommonTokenStream(lexer)).input();
+		visitor = new CriteriaQueryVisitor(FieldCodecs.of(null));
+	}
+	
+	@Benchmark
+	public FilterNode visit() {
+		return visitor.visit(tree);
+	}
+	
+}
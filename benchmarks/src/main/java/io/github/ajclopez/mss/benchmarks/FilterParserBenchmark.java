@@ -0,0 +1,50 @@
+package io.github.ajclopez.mss.benchmarks;
+
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import io.github.ajclopez.mss.MongoSpringSearch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Deep {@code filter=} input translated with each strategy of {@link FilterParserMode}.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterParserBenchmark {
+
+	@Param({ "LL", "SLL", "RECURSIVE_DESCENT" })
+	public FilterParserMode mode;
+	
+	private Optional<Configuration> configuration;
+	
+	@Setup
+	public void setup() {
+		configuration = Optional.of(new Configuration(null, null, null).withFilterParserMode(mode));
+	}
+	
+	@Benchmark
+	public Query deepFilter() {
+		return MongoSpringSearch.mss(SearchQueries.DEEP_FILTER, configuration);
+	}
+	
+}
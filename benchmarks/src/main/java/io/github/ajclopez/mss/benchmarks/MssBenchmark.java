@@ -0,0 +1,60 @@
+package io.github.ajclopez.mss.benchmarks;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.BsonQuery;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Whole translation path, from the query string to a MongoDB query.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MssBenchmark {
+
+	@Param({ "simple", "paginated", "sorted", "deepFilter" })
+	public String query;
+	
+	private String input;
+	
+	@Setup
+	public void setup() {
+		input = SearchQueries.get(query);
+	}
+	
+	@Benchmark
+	public Query mss() {
+		return MongoSpringSearch.mss(input, Optional.empty());
+	}
+	
+	@Benchmark
+	public Document mssDocument() {
+		return MongoSpringSearch.mss(input, Optional.empty()).getQueryObject();
+	}
+	
+	@Benchmark
+	public BsonQuery mssBson() {
+		return MongoSpringSearch.mssBson(input, Optional.empty());
+	}
+	
+}
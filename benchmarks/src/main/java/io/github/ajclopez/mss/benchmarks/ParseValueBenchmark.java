@@ -0,0 +1,57 @@
+package io.github.ajclopez.mss.benchmarks;
+
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.parser.QueryParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Casting of values per {@link CastType}, {@code AUTO} infers the type of the value.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseValueBenchmark {
+
+	@Param({ "AUTO", "NUMBER", "DATE", "BOOLEAN", "PATTERN", "OBJECT_ID", "STRING" })
+	public String caster;
+	
+	private CastType castType;
+	private String value;
+	
+	@Setup
+	public void setup() {
+		castType = caster.equals("AUTO") ? null : CastType.valueOf(caster);
+		value = switch (caster) {
+			case "NUMBER" -> "1234.5";
+			case "DATE" -> "2024-05-01T10:15:30.000Z";
+			case "BOOLEAN" -> "true";
+			case "PATTERN" -> "/^ann/i";
+			case "OBJECT_ID" -> "507f1f77bcf86cd799439011";
+			case "STRING" -> "Mexico";
+			default -> "2024-05-01";
+		};
+	}
+	
+	@Benchmark
+	public Object parseValue() {
+		return QueryParser.parseValue(value, castType);
+	}
+	
+}
@@ -0,0 +1,51 @@
+package io.github.ajclopez.mss.benchmarks;
+
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.parser.QueryParser;
+import io.github.ajclopez.mss.parser.QueryTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Tokenization of a query string into its conditions and reserved keys.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryParserBenchmark {
+
+	private final ByteBuffer sortedBytes = ByteBuffer.wrap(SearchQueries.SORTED.getBytes(StandardCharsets.UTF_8));
+
+	@Benchmark
+	public List<SearchCriteria> parse() {
+		return QueryParser.parse(SearchQueries.SORTED, null);
+	}
+
+	@Benchmark
+	public List<SearchCriteria> tokenize() {
+		return QueryTokenizer.tokenize(SearchQueries.SORTED, null);
+	}
+
+	@Benchmark
+	public List<SearchCriteria> tokenizeBytes() {
+		return QueryTokenizer.tokenize(sortedBytes, null);
+	}
+	
+}
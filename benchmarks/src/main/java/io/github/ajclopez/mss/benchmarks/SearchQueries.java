@@ -0,0 +1,34 @@
+package io.github.ajclopez.mss.benchmarks;
+
+/**
+ * 
+ * Query strings shared by the benchmarks.
+ *
+ */
+final class SearchQueries {
+
+	static final String SIMPLE = "status=active";
+	
+	static final String PAGINATED = "status=active&skip=200&limit=50";
+	
+	static final String SORTED = "status=active&age>18&country=Mexico,Spain&sort=-age,name&fields=name,email&limit=20";
+	
+	static final String DEEP_FILTER = "filter=((status=active AND (age>18 OR vip=true)) OR (country=Spain AND (name=/^ann/i OR (score>=4.5 AND email!=null))))&sort=-age&limit=10";
+	
+	static final String DEEP_FILTER_EXPRESSION = "((status=active AND (age>18 OR vip=true)) OR (country=Spain AND (name=/^ann/i OR (score>=4.5 AND email!=null))))";
+	
+	private SearchQueries() {
+		
+	}
+	
+	static String get(String name) {
+		return switch (name) {
+			case "simple" -> SIMPLE;
+			case "paginated" -> PAGINATED;
+			case "sorted" -> SORTED;
+			case "deepFilter" -> DEEP_FILTER;
+			default -> throw new IllegalArgumentException(name);
+		};
+	}
+	
+}
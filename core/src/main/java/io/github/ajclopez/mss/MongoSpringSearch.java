@@ -0,0 +1,677 @@
+package io.github.ajclopez.mss;
+
+import io.github.ajclopez.mss.aggregation.SearchAggregations;
+import io.github.ajclopez.mss.cache.QueryCache;
+import io.github.ajclopez.mss.count.SearchCounts;
+import io.github.ajclopez.mss.batch.SearchBatches;
+import io.github.ajclopez.mss.criteria.BsonCriteria;
+import io.github.ajclopez.mss.criteria.CriteriaImpl;
+import io.github.ajclopez.mss.criteria.FilterAnalyzer;
+import io.github.ajclopez.mss.criteria.FilterNormalizer;
+import io.github.ajclopez.mss.criteria.FilterOptimizer;
+import io.github.ajclopez.mss.criteria.KeysetPagination;
+import io.github.ajclopez.mss.criteria.QueryShapes;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.index.IndexValidator;
+import io.github.ajclopez.mss.metrics.SearchMetrics;
+import io.github.ajclopez.mss.metrics.SearchPhase;
+import io.github.ajclopez.mss.model.BatchResult;
+import io.github.ajclopez.mss.model.BsonQuery;
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.CountResult;
+import io.github.ajclopez.mss.model.FacetPage;
+import io.github.ajclopez.mss.model.FilterLimits;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import io.github.ajclopez.mss.model.OptimizerRule;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.KeySearchOperation;
+import io.github.ajclopez.mss.model.PaginationMode;
+import io.github.ajclopez.mss.model.ParsedQuery;
+import io.github.ajclopez.mss.model.QueryShape;
+import io.github.ajclopez.mss.model.SortSearchOperation;
+import io.github.ajclopez.mss.parser.AdvancedFilterParser;
+import io.github.ajclopez.mss.parser.CostGuard;
+import io.github.ajclopez.mss.parser.FieldCodecs;
+import io.github.ajclopez.mss.parser.QueryParser;
+import io.github.ajclopez.mss.parser.QueryTokenizer;
+import io.github.ajclopez.mss.parser.RecursiveDescentFilterParser;
+import io.github.ajclopez.mss.pattern.SearchPatterns;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 
+ * <p><b>MongoSpringSearch</b>: Convert query parameters from API urls to MongoDB queries.
+ *
+ * <p>Every method is thread-safe, a {@link Configuration} and its caches can be shared by any number of threads.</p>
+ *
+ */
+public class MongoSpringSearch {
+
+	private MongoSpringSearch() {
+		
+	}
+		
+	/**
+	 * 
+	 * Converts query into a MongoDB query object.
+	 * 
+	 * @param query string part of the requested API URL
+	 * @return MongoDB Query
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Query mss(String query) throws ArgumentNotValidException {
+		return mss(query, Optional.empty());
+	}
+	
+	/**
+	 * 
+	 * Converts query into a MongoDB query object.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return MongoDB Query
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Query mss(String query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		
+		if ( (query == null || query.trim().isEmpty()) && getPaginationMode(configuration) != PaginationMode.KEYSET ) {
+			return new Query();
+		}
+		
+		return compile(query, configuration).toQuery();
+	}
+	
+	/**
+	 * 
+	 * Converts a raw query, encoded as UTF-8, into a MongoDB query object without building a {@code String} first.
+	 * 
+	 * @param query bytes of the query part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return MongoDB Query
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Query mss(byte[] query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		return mss(query != null ? ByteBuffer.wrap(query) : null, configuration);
+	}
+	
+	/**
+	 * 
+	 * Converts a raw query, encoded as UTF-8, into a MongoDB query object without building a {@code String} first.
+	 * The bytes from the position to the limit of the buffer are read, the position is not changed.
+	 * 
+	 * @param query bytes of the query part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return MongoDB Query
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Query mss(ByteBuffer query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		
+		if ( QueryTokenizer.isBlank(query) && getPaginationMode(configuration) != PaginationMode.KEYSET ) {
+			return new Query();
+		}
+		
+		if ( configuration.map(Configuration::queryCache).isPresent() ) {
+			// the cache is keyed by the text of the query
+			return mss(toString(query), configuration);
+		}
+		
+		return compile(query, configuration).toQuery();
+	}
+	
+	/**
+	 * 
+	 * Converts query directly into BSON documents for the MongoDB driver, without creating {@link Criteria} objects.
+	 * The documents are equal to the ones of the {@link Query} returned by {@link #mss(String, Optional)} encoded with
+	 * the default codec registry of the driver.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return the filter, sort and projection documents of the query.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static BsonQuery mssBson(String query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		return mssBson(query, configuration, MongoClientSettings.getDefaultCodecRegistry());
+	}
+	
+	/**
+	 * 
+	 * Converts query directly into BSON documents for the MongoDB driver, encoding the values with the given codecs.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @param registry the codecs used to encode the values, usually the registry of the {@code MongoClient}.
+	 * @return the filter, sort and projection documents of the query.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static BsonQuery mssBson(String query, Optional<Configuration> configuration, CodecRegistry registry) throws ArgumentNotValidException {
+		
+		if ( (query == null || query.trim().isEmpty()) && getPaginationMode(configuration) != PaginationMode.KEYSET ) {
+			return new BsonQuery(null, null, null, null, null, null);
+		}
+		
+		return build(parse(query, configuration), () -> query, configuration, (parsed, config) -> buildBson(parsed, config, registry));
+	}
+	
+	/**
+	 * 
+	 * Counts the documents of the collection of entityClass that match query, ignoring its pagination and projection.
+	 * Queries without filter are estimated from the collection metadata, and counting stops at cap when it is given.
+	 * 
+	 * @param operations the template used to count.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents counted.
+	 * @param configuration object for advanced options.
+	 * @param cap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the count and the strategy used.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static CountResult count(MongoOperations operations, String query, Class<?> entityClass, Optional<Configuration> configuration, Long cap) throws ArgumentNotValidException {
+		return SearchCounts.count(operations, query, entityClass, configuration, cap);
+	}
+	
+	/**
+	 * 
+	 * Converts query into an aggregation with {@code $match}, {@code $sort}, {@code $skip}, {@code $limit} and
+	 * {@code $project} stages.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return MongoDB Aggregation
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Aggregation aggregation(String query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		return SearchAggregations.of(compile(query, configuration));
+	}
+	
+	/**
+	 * 
+	 * Converts query into an aggregation that returns the page and the total count in a single {@code $facet}.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @param totalCap maximum number of matches counted, {@code null} for an exact count.
+	 * @return MongoDB Aggregation
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Aggregation facet(String query, Optional<Configuration> configuration, Long totalCap) throws ArgumentNotValidException {
+		return SearchAggregations.facet(compile(query, configuration), totalCap);
+	}
+	
+	/**
+	 * 
+	 * Executes query as a single {@code $facet} aggregation on the collection of entityClass and reads the page and the
+	 * total count. Queries marked as always empty by the {@code emptyQueryCheck} of the configuration are not sent to
+	 * the server.
+	 * 
+	 * @param <T> the type of the documents of the page.
+	 * @param operations the template used to execute the aggregation.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents of the page.
+	 * @param configuration object for advanced options.
+	 * @param totalCap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the page and its total count.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static <T> FacetPage<T> facetPage(MongoOperations operations, String query, Class<T> entityClass, Optional<Configuration> configuration, Long totalCap) throws ArgumentNotValidException {
+		return SearchAggregations.page(operations, compile(query, configuration), operations.getCollectionName(entityClass), entityClass, totalCap);
+	}
+	
+	/**
+	 * 
+	 * Compiles query into an immutable object used to create MongoDB query objects. The compiled query is shared
+	 * through the query cache of the configuration when there is one.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return a {@link CompiledQuery} instance.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static CompiledQuery compile(String query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		
+		QueryCache queryCache = configuration.map(Configuration::queryCache).orElse(null);
+		
+		if ( queryCache != null ) {
+			return queryCache.get(new QueryCache.Key(query, configuration.get()), key -> build(parse(query, configuration), () -> query, configuration, MongoSpringSearch::build));
+		}
+		
+		return build(parse(query, configuration), () -> query, configuration, MongoSpringSearch::build);
+	}
+	
+	/**
+	 * 
+	 * Compiles many queries in parallel on the common {@code ForkJoinPool}, sharing the caches of the configuration.
+	 * 
+	 * @param queries the query strings.
+	 * @param configuration object for advanced options.
+	 * @return a result per query, in the same order, with the compiled query or the exception it threw.
+	 */
+	public static List<BatchResult<CompiledQuery>> compileAll(Collection<String> queries, Optional<Configuration> configuration) {
+		return compileAll(queries, configuration, SearchBatches.defaultExecutor());
+	}
+	
+	/**
+	 * 
+	 * Compiles many queries in parallel on executor, sharing the caches of the configuration.
+	 * 
+	 * @param queries the query strings.
+	 * @param configuration object for advanced options.
+	 * @param executor runs the tasks of the batch.
+	 * @return a result per query, in the same order, with the compiled query or the exception it threw.
+	 */
+	public static List<BatchResult<CompiledQuery>> compileAll(Collection<String> queries, Optional<Configuration> configuration, Executor executor) {
+		return SearchBatches.compile(new ArrayList<>(queries), query -> compile(query, configuration), executor);
+	}
+	
+	/**
+	 * 
+	 * Compiles a stream of queries in parallel on executor, sharing the caches of the configuration. The stream is
+	 * read before compiling.
+	 * 
+	 * @param queries the query strings.
+	 * @param configuration object for advanced options.
+	 * @param executor runs the tasks of the batch.
+	 * @return a result per query, in the order of the stream, with the compiled query or the exception it threw.
+	 */
+	public static List<BatchResult<CompiledQuery>> compileAll(Stream<String> queries, Optional<Configuration> configuration, Executor executor) {
+		return compileAll(queries.toList(), configuration, executor);
+	}
+	
+	/**
+	 * 
+	 * Compiles a raw query, encoded as UTF-8, into an immutable object used to create MongoDB query objects.
+	 * 
+	 * @param query bytes of the query part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return a {@link CompiledQuery} instance.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static CompiledQuery compile(ByteBuffer query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		return build(parse(query, configuration), () -> toString(query), configuration, MongoSpringSearch::build);
+	}
+	
+	private static <T> T build(ParsedQuery parsed, Supplier<String> query, Optional<Configuration> configuration, BiFunction<ParsedQuery, Optional<Configuration>, T> builder) {
+		
+		SearchMetrics metrics = configuration.map(Configuration::metrics).orElse(null);
+		
+		if ( metrics == null ) {
+			return builder.apply(parsed, configuration);
+		}
+		
+		long start = System.nanoTime();
+		
+		try {
+			T built = builder.apply(parsed, configuration);
+			metrics.record(SearchPhase.BUILD, System.nanoTime() - start);
+			return built;
+		} catch (ArgumentNotValidException e) {
+			metrics.rejected(query.get(), e);
+			throw e;
+		}
+	}
+	
+	private static CompiledQuery build(ParsedQuery parsed, Optional<Configuration> configuration) {
+		
+		Criteria filterCriteria = parsed.filter() != null ? CriteriaImpl.buildCriteria(parsed.filter(), configuration.orElse(null)) : null;
+		
+		IndexValidator indexValidator = configuration.map(Configuration::indexValidator).orElse(null);
+		String hint = indexValidator != null ? indexValidator.apply(parsed) : null;
+		
+		Criteria criteria = parseDefaultFilter(parsed.filters(), filterCriteria, configuration.orElse(null));
+		
+		if ( parsed.after() != null ) {
+			Criteria after = KeysetPagination.criteria(parsed.sort(), parsed.after());
+			criteria = criteria != null ? new Criteria().andOperator(criteria, after) : after;
+		}
+		
+		boolean alwaysEmpty = FilterAnalyzer.isAlwaysEmpty(parsed, configuration.map(Configuration::emptyQueryCheck).orElse(null));
+		
+		return new CompiledQuery(criteria, parsed.sort(), parsed.fields(), parsed.skip(), parsed.limit(), hint, alwaysEmpty);
+	}
+	
+	private static BsonQuery buildBson(ParsedQuery parsed, Optional<Configuration> configuration, CodecRegistry registry) {
+		
+		BsonDocument filter = BsonCriteria.filter(parsed, configuration.orElse(null), registry);
+		
+		IndexValidator indexValidator = configuration.map(Configuration::indexValidator).orElse(null);
+		String hint = indexValidator != null ? indexValidator.apply(parsed) : null;
+		
+		return new BsonQuery(filter, BsonCriteria.sort(parsed.sort()), BsonCriteria.projection(parsed.fields()), parsed.skip(), parsed.limit(), hint);
+	}
+	
+	/**
+	 * 
+	 * Builds the {@code after} token of the page that follows a document, for queries created with
+	 * {@link PaginationMode#KEYSET}.
+	 * 
+	 * @param query the query of the current page.
+	 * @param last the last document of the current page, as stored in the collection.
+	 * @return an opaque token for the {@code after} key.
+	 * @throws ArgumentNotValidException Exception to be thrown when a sort key holds a value that cannot be encoded.
+	 */
+	public static String nextToken(Query query, Document last) throws ArgumentNotValidException {
+		
+		Sort sort = Sort.unsorted();
+		
+		for ( Map.Entry<String, Object> entry : query.getSortObject().entrySet() ) {
+			Sort.Direction direction = ((Number) entry.getValue()).intValue() < 0 ? Sort.Direction.DESC : Sort.Direction.ASC;
+			sort = sort.and(Sort.by(direction, entry.getKey()));
+		}
+		
+		return KeysetPagination.nextToken(sort, last);
+	}
+	
+	/**
+	 * 
+	 * Returns the canonical form of query and the fingerprint of its shape, equal for queries that only differ in the
+	 * order of their conditions or in their values.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return a {@link QueryShape} instance.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static QueryShape shape(String query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		return QueryShapes.of(parse(query, configuration));
+	}
+	
+	/**
+	 * 
+	 * Splits query into its keys without creating MongoDB objects.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return a {@link ParsedQuery} instance.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static ParsedQuery parse(String query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		
+		Supplier<List<SearchCriteria>> tokenizer = query == null || query.trim().isEmpty() ? null : () -> QueryTokenizer.tokenize(query, null);
+		
+		return parse(tokenizer, () -> query, configuration);
+	}
+	
+	/**
+	 * 
+	 * Splits a raw query, encoded as UTF-8, into its keys without creating MongoDB objects.
+	 * 
+	 * @param query bytes of the query part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @return a {@link ParsedQuery} instance.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static ParsedQuery parse(ByteBuffer query, Optional<Configuration> configuration) throws ArgumentNotValidException {
+		
+		Supplier<List<SearchCriteria>> tokenizer = QueryTokenizer.isBlank(query) ? null : () -> QueryTokenizer.tokenize(query, null);
+		
+		return parse(tokenizer, () -> toString(query), configuration);
+	}
+	
+	private static ParsedQuery parse(Supplier<List<SearchCriteria>> tokenizer, Supplier<String> query, Optional<Configuration> configuration) {
+		
+		SearchMetrics metrics = configuration.map(Configuration::metrics).orElse(null);
+		
+		if ( metrics == null ) {
+			return parse(tokenizer, configuration, null);
+		}
+		
+		try {
+			ParsedQuery parsed = parse(tokenizer, configuration, metrics);
+			if ( parsed.filter() != null ) {
+				count(parsed.filter(), metrics);
+			}
+			for ( SearchCriteria criteria : parsed.filters() ) {
+				metrics.condition(criteria.getOperation(), criteria.getCaster());
+			}
+			return parsed;
+		} catch (ArgumentNotValidException e) {
+			metrics.rejected(query.get(), e);
+			throw e;
+		}
+	}
+	
+	private static ParsedQuery parse(Supplier<List<SearchCriteria>> tokenizer, Optional<Configuration> configuration, SearchMetrics metrics) {
+		
+		PaginationMode paginationMode = getPaginationMode(configuration);
+		
+		if ( tokenizer == null ) {
+			Sort sort = paginationMode == PaginationMode.KEYSET ? KeysetPagination.tieBreak(Sort.unsorted()) : null;
+			return new ParsedQuery(null, null, sort, null, null, null, null, new CostGuard(null).cost());
+		}
+		
+		List<SearchCriteria> filters = new ArrayList<>();
+		List<String> fields = new ArrayList<>();
+		Sort sort = Sort.unsorted();
+		Long skip = null;
+		Integer limit = null;
+		String after = null;
+		
+		FieldCodecs codecs = configuration.map(Configuration::codecs).orElseGet(() -> FieldCodecs.of(null));
+		FilterParserMode filterParserMode = configuration.map(Configuration::filterParserMode).orElse(null);
+		FilterLimits filterLimits = configuration.map(Configuration::filterLimits).orElse(null);
+		FilterNode filter = null;
+		CostGuard guard = new CostGuard(configuration.map(Configuration::costPolicy).orElse(null));
+		
+		long start = metrics != null ? System.nanoTime() : 0;
+		List<SearchCriteria> criterias = tokenizer.get();
+		
+		if ( metrics != null ) {
+			metrics.record(SearchPhase.TOKENIZE, System.nanoTime() - start);
+		}
+		
+		for ( SearchCriteria criteria : criterias ) {
+			switch (KeySearchOperation.getKeyOperation(criteria.getKey())) {
+			case FILTER:
+				start = metrics != null ? System.nanoTime() : 0;
+				filter = parseFilterAdvanced(criteria.getValue(), codecs, filterParserMode, guard, filterLimits);
+				if ( metrics != null ) {
+					metrics.record(SearchPhase.FILTER_PARSE, System.nanoTime() - start);
+				}
+				break;
+			case SKIP:
+				if ( paginationMode == PaginationMode.KEYSET ) {
+					throw new ArgumentNotValidException("skip is not supported with keyset pagination, use after.");
+				}
+				skip = guard.skip(parseSkip(criteria.getValue()));
+				break;
+			case LIMIT:
+				limit = parseLimit(criteria.getValue(), configuration);
+				break;
+			case FIELDS:
+				fields.addAll(parseProjection(criteria.getValue()));
+				break;
+			case SORT:
+				sort = sort.and(parseSort(criteria.getValue()));
+				break;
+			case AFTER:
+				if ( paginationMode == PaginationMode.KEYSET ) {
+					after = criteria.getValue();
+					break;
+				}
+				// without keyset pagination after is a regular filter
+			case DEFAULT:
+			default:
+				criteria.setCaster(codecs.caster(criteria.getKey()));
+				criteria.setCodec(codecs.get(criteria.getKey()));
+				guard.condition(criteria.getOperation(), criteria.getValue(), criteria.getCodec());
+				filters.add(criteria);
+				break;
+			}
+		}
+		
+		sort = guard.sort(sort);
+
+		Set<OptimizerRule> optimizerRules = configuration.map(Configuration::optimizerRules).orElse(Set.of());
+
+		if ( !optimizerRules.isEmpty() ) {
+			filter = filter != null ? FilterOptimizer.optimize(filter, optimizerRules, null) : null;
+			filters = FilterOptimizer.optimize(filters, optimizerRules, null);
+		}
+
+		if ( paginationMode == PaginationMode.KEYSET ) {
+			sort = KeysetPagination.tieBreak(sort);
+		}
+		
+		List<Object> afterValues = after != null ? KeysetPagination.decode(after, sort) : null;
+		
+		return new ParsedQuery(filters, filter, sort, fields, skip, limit, afterValues, guard.cost());
+	}
+		
+	private static Criteria parseDefaultFilter(List<SearchCriteria> filters, Criteria filterCriteria, Configuration configuration) {
+				
+		Map<String, List<SearchCriteria>> groups = filters.stream().collect(Collectors.groupingBy(SearchCriteria::getKey));
+		
+		List<Criteria> criterias = new ArrayList<>();
+		
+		if ( filterCriteria != null ) {
+			criterias.add(filterCriteria);			
+		}
+
+		for ( Map.Entry<String, List<SearchCriteria>> entry : groups.entrySet() ) {
+			for ( SearchCriteria criteria : entry.getValue() ) {
+				criterias.add(CriteriaImpl.buildCriteria(criteria, configuration));
+			}
+		}
+				
+        if ( criterias.isEmpty() ) {
+        	return null;
+        }
+        
+        Criteria unique = filterCriteria != null ? filterCriteria : new Criteria().andOperator(criterias.toArray(new Criteria[criterias.size()]));
+        return criterias.size() == 1 ? unique : new Criteria().andOperator(criterias.toArray(new Criteria[criterias.size()]));
+	}
+	
+	private static FilterNode parseFilterAdvanced(String value, FieldCodecs codecs, FilterParserMode mode, CostGuard guard, FilterLimits limits) {
+		
+		FilterNode node = mode == FilterParserMode.RECURSIVE_DESCENT
+				? RecursiveDescentFilterParser.parse(value, codecs, guard, limits)
+				: AdvancedFilterParser.parse(value, codecs, mode, guard, limits);
+		
+		return FilterNormalizer.normalize(node);
+	}
+	
+	private static void count(FilterNode node, SearchMetrics metrics) {
+		
+		if ( node instanceof FilterNode.Condition condition ) {
+			metrics.condition(condition.criteria().getOperation(), condition.criteria().getCaster());
+		} else if ( node instanceof FilterNode.Logical logical ) {
+			metrics.logical(logical.operation());
+			for ( FilterNode child : logical.children() ) {
+				count(child, metrics);
+			}
+		}
+	}
+	
+	private static PaginationMode getPaginationMode(Optional<Configuration> configuration) {
+		return configuration.map(Configuration::paginationMode).orElse(PaginationMode.OFFSET);
+	}
+	
+	private static long parseSkip(String value) {
+		try {			
+			return ((Number)QueryParser.parseValue(value, null)).longValue();
+		} catch (Exception e) {
+			throw new ArgumentNotValidException(String.format("skip '%s' cannot be cast to number.", value));
+		}
+	}
+	
+	private static int parseLimit(String value, Optional<Configuration> configuration) {
+		try {
+
+			Optional<Integer> maxLimit = configuration
+					.filter(config -> config.maxLimit() != null)
+					.map(Configuration::maxLimit);
+
+			int limit = ((Number) QueryParser.parseValue(value, null)).intValue();
+			
+			if ( maxLimit.isPresent() ) {
+				return limit <= maxLimit.get() ? limit : maxLimit.get();
+			}
+			
+			return limit;
+
+		} catch(Exception e) {
+			if ( configuration.isPresent() && configuration.get().defaultLimit() != null ) {
+				return configuration.get().defaultLimit();
+			}
+
+			throw new ArgumentNotValidException(String.format("limit '%s' cannot be cast to number.", value));
+		}
+	}
+	
+	private static List<String> parseProjection(String value) {
+		
+		return Arrays.asList(value.split(","));
+	}
+	
+	private static Sort parseSort(String value) {
+		
+		Sort sort = Sort.unsorted();
+		
+		for ( String order : value.split(",") ) {
+			
+			if ( hasLineTerminator(order) ) {
+				continue;
+			}
+			
+			char sign = order.isEmpty() ? 0 : order.charAt(0);
+			String property = sign == '+' || sign == '-' ? order.substring(1) : order;
+			
+			switch (SortSearchOperation.getSortOperation(String.valueOf(sign))) {
+			case DESC:
+				sort = sort.and(Sort.by(Sort.Direction.DESC, property));
+				break;
+			case ASC:
+			default:
+				sort = sort.and(Sort.by(Sort.Direction.ASC, property));
+				break;
+			}
+		}
+		
+		return sort;
+	}
+	
+	/**
+	 * 
+	 * A sort order with a line terminator does not match {@code SORT_PATTERN} and is ignored.
+	 * 
+	 */
+	private static boolean hasLineTerminator(String order) {
+		
+		for ( int i = 0; i < order.length(); i++ ) {
+			if ( SearchPatterns.isLineTerminator(order.charAt(i)) ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static String toString(ByteBuffer query) {
+		return query != null ? StandardCharsets.UTF_8.decode(query.duplicate()).toString() : null;
+	}
+	
+}
@@ -0,0 +1,245 @@
+package io.github.ajclopez.mss.aggregation;
+
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.FacetPage;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 
+ * Translates compiled queries into aggregation pipelines.
+ * 
+ * <p>A query becomes the stages {@code $match}, {@code $sort}, {@code $skip}, {@code $limit} and {@code $project}, each
+ * one only when the query needs it. The facet form keeps {@code $match} and {@code $sort} before a {@code $facet}, so
+ * they can use an index, and returns the page and the total count in a single round trip:</p>
+ * 
+ * <pre>
+ * { $facet: { page: [ $skip, $limit, $project ], total: [ { $limit: totalCap + 1 }, { $count: "count" } ] } }
+ * </pre>
+ * 
+ * <p>The total counts one match more than the cap, so a total of exactly {@code totalCap} is not reported as capped.</p>
+ *
+ */
+public class SearchAggregations {
+
+	/**
+	 * Name of the facet holding the documents of the page.
+	 */
+	public static final String PAGE = "page";
+	
+	/**
+	 * Name of the facet holding the total count.
+	 */
+	public static final String TOTAL = "total";
+	
+	/**
+	 * Name of the field of the total count.
+	 */
+	public static final String COUNT = "count";
+	
+	private SearchAggregations() {
+		
+	}
+	
+	/**
+	 * 
+	 * Creates the aggregation equivalent to the MongoDB query of a compiled query.
+	 * 
+	 * @param compiled the compiled query.
+	 * @return the aggregation, with the index of the query as {@code hint}.
+	 */
+	public static Aggregation of(CompiledQuery compiled) {
+		return Aggregation.newAggregation(stages(compiled)).withOptions(options(compiled));
+	}
+	
+	/**
+	 * 
+	 * Creates an aggregation that returns the page and the total count of a compiled query in a single document.
+	 * 
+	 * @param compiled the compiled query.
+	 * @param totalCap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the aggregation, with the index of the query as {@code hint}.
+	 */
+	public static Aggregation facet(CompiledQuery compiled, Long totalCap) {
+		return Aggregation.newAggregation(facetStages(compiled, totalCap)).withOptions(options(compiled));
+	}
+	
+	/**
+	 * 
+	 * Returns the stages equivalent to the MongoDB query of a compiled query, to be used in typed aggregations. A query
+	 * without keys becomes an empty {@code $match}, pipelines cannot be empty.
+	 * 
+	 * @param compiled the compiled query.
+	 * @return the stages of the aggregation.
+	 */
+	public static List<AggregationOperation> stages(CompiledQuery compiled) {
+		
+		List<AggregationOperation> stages = filterStages(compiled);
+		stages.addAll(pageStages(compiled));
+		
+		if ( stages.isEmpty() ) {
+			stages.add(Aggregation.match(new Criteria()));
+		}
+		
+		return stages;
+	}
+	
+	/**
+	 * 
+	 * Returns the stages that return the page and the total count of a compiled query, to be used in typed aggregations.
+	 * 
+	 * @param compiled the compiled query.
+	 * @param totalCap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the stages of the aggregation.
+	 */
+	public static List<AggregationOperation> facetStages(CompiledQuery compiled, Long totalCap) {
+		
+		if ( totalCap != null && totalCap <= 0 ) {
+			throw new IllegalArgumentException("totalCap must be positive.");
+		}
+		
+		List<AggregationOperation> page = pageStages(compiled);
+		if ( page.isEmpty() ) {
+			page.add(Aggregation.skip(0L));
+		}
+		
+		List<AggregationOperation> total = new ArrayList<>();
+		if ( totalCap != null ) {
+			total.add(Aggregation.limit(totalCap == Long.MAX_VALUE ? totalCap : totalCap + 1));
+		}
+		total.add(Aggregation.count().as(COUNT));
+		
+		List<AggregationOperation> stages = filterStages(compiled);
+		stages.add(Aggregation.facet(page.toArray(new AggregationOperation[0])).as(PAGE)
+				.and(total.toArray(new AggregationOperation[0])).as(TOTAL));
+		
+		return stages;
+	}
+	
+	/**
+	 * 
+	 * Executes the facet aggregation of a compiled query and reads its page and total count. Queries marked as always
+	 * empty by the {@code emptyQueryCheck} of the configuration are not sent to the server.
+	 * 
+	 * @param <T> the type of the documents of the page.
+	 * @param operations the template used to execute the aggregation.
+	 * @param compiled the compiled query.
+	 * @param collectionName the name of the collection.
+	 * @param entityClass the type of the documents of the page.
+	 * @param totalCap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the page and its total count.
+	 */
+	public static <T> FacetPage<T> page(MongoOperations operations, CompiledQuery compiled, String collectionName, Class<T> entityClass, Long totalCap) {
+		
+		if ( compiled.alwaysEmpty() ) {
+			return new FacetPage<>(List.of(), 0, false);
+		}
+		
+		return page(operations, facet(compiled, totalCap), collectionName, entityClass, totalCap);
+	}
+	
+	/**
+	 * 
+	 * Executes a facet aggregation and reads its page and total count.
+	 * 
+	 * @param <T> the type of the documents of the page.
+	 * @param operations the template used to execute the aggregation.
+	 * @param aggregation the aggregation created with {@link #facet(CompiledQuery, Long)}.
+	 * @param collectionName the name of the collection.
+	 * @param entityClass the type of the documents of the page.
+	 * @param totalCap the cap of the aggregation, {@code null} for an exact count.
+	 * @return the page and its total count.
+	 */
+	public static <T> FacetPage<T> page(MongoOperations operations, Aggregation aggregation, String collectionName, Class<T> entityClass, Long totalCap) {
+		
+		FacetPage<Document> page = read(operations.aggregate(aggregation, collectionName, Document.class).getUniqueMappedResult(), totalCap);
+		
+		List<T> content = new ArrayList<>();
+		for ( Document document : page.content() ) {
+			content.add(operations.getConverter().read(entityClass, document));
+		}
+		
+		return new FacetPage<>(content, page.total(), page.capped());
+	}
+	
+	/**
+	 * 
+	 * Reads the page and the total count of the result of a facet aggregation.
+	 * 
+	 * @param result the only document returned by the aggregation.
+	 * @param totalCap the cap of the aggregation, {@code null} for an exact count.
+	 * @return the page and its total count.
+	 */
+	public static FacetPage<Document> read(Document result, Long totalCap) {
+		
+		List<Document> content = result != null ? result.getList(PAGE, Document.class, List.of()) : List.of();
+		long total = getTotal(result);
+		boolean capped = totalCap != null && total > totalCap;
+		
+		return new FacetPage<>(content, capped ? totalCap : total, capped);
+	}
+	
+	private static long getTotal(Document result) {
+		
+		List<Document> total = result != null ? result.getList(TOTAL, Document.class, List.of()) : List.of();
+		
+		return total.isEmpty() ? 0 : ((Number) total.get(0).get(COUNT)).longValue();
+	}
+	
+	private static List<AggregationOperation> filterStages(CompiledQuery compiled) {
+		
+		List<AggregationOperation> stages = new ArrayList<>();
+		
+		if ( compiled.criteria() != null ) {
+			stages.add(Aggregation.match(compiled.criteria()));
+		}
+		
+		if ( compiled.sort().isSorted() ) {
+			stages.add(Aggregation.sort(compiled.sort()));
+		}
+		
+		return stages;
+	}
+	
+	private static List<AggregationOperation> pageStages(CompiledQuery compiled) {
+		
+		List<AggregationOperation> stages = new ArrayList<>();
+		
+		if ( compiled.skip() != null && compiled.skip() > 0 ) {
+			stages.add(Aggregation.skip(compiled.skip()));
+		}
+		
+		if ( compiled.limit() != null && compiled.limit() > 0 ) {
+			stages.add(Aggregation.limit(compiled.limit()));
+		}
+		
+		if ( !compiled.fields().isEmpty() ) {
+			Document projection = new Document();
+			for ( String field : compiled.fields() ) {
+				projection.append(field, 1);
+			}
+			stages.add(context -> new Document("$project", projection));
+		}
+		
+		return stages;
+	}
+	
+	private static AggregationOptions options(CompiledQuery compiled) {
+		
+		AggregationOptions.Builder builder = AggregationOptions.builder();
+		
+		if ( compiled.hint() != null ) {
+			builder.hint(compiled.hint());
+		}
+		
+		return builder.build();
+	}
+	
+}
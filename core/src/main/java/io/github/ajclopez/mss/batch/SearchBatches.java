@@ -0,0 +1,133 @@
+package io.github.ajclopez.mss.batch;
+
+import io.github.ajclopez.mss.model.BatchResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * 
+ * Compiles many queries in parallel.
+ * 
+ * <p>The queries are split into contiguous chunks, a few per thread of the executor, and every chunk is compiled by a
+ * single task. Results keep the order of the queries. An exception thrown by one query, such as
+ * {@code ArgumentNotValidException}, is kept in its result and does not stop the batch. An executor that rejects a
+ * chunk fails the queries of that chunk with the {@code RejectedExecutionException}.</p>
+ * 
+ * <p>Compiling is thread-safe:</p>
+ * 
+ * <ul>
+ * <li>The patterns of {@code SearchPatterns}, {@code QueryParser.DATE_FORMATTER} and the value codecs are immutable.
+ * Numbers that need the {@code NumberFormat} fallback get a new instance per value.
+ * <li>The DFA caches of the ANTLR parser are static and synchronized by the runtime. Lexers, parsers and tokenizers are
+ * created per query, or per thread for the {@code SLL} pipeline.
+ * <li>The query cache and the pattern cache are synchronized and shared by every task. Two concurrent misses may
+ * compile the same value twice.
+ * <li>{@code PatternCache.setDefault} replaces a process-wide volatile reference that every task reads once per pattern.
+ * Replacing it during a batch is safe: some queries use the old cache and others the new one, and both return equal
+ * patterns.
+ * <li>Custom {@code ValueCodec}s and {@code SearchMetrics} of the configuration are called from every task, they must
+ * be thread-safe.
+ * </ul>
+ *
+ */
+public class SearchBatches {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+	
+	private SearchBatches() {
+		
+	}
+	
+	/**
+	 * 
+	 * Returns the executor used when none is given. CPU-bound work such as compiling gains nothing from virtual threads,
+	 * so the common {@link ForkJoinPool} is used.
+	 * 
+	 * @return the default executor.
+	 */
+	public static Executor defaultExecutor() {
+		return ForkJoinPool.commonPool();
+	}
+	
+	/**
+	 * 
+	 * Compiles every query with compiler on executor.
+	 * 
+	 * @param <T> the type of the compiled queries.
+	 * @param queries the query strings.
+	 * @param compiler compiles a single query.
+	 * @param executor runs the tasks of the batch.
+	 * @return a result per query, in the same order.
+	 */
+	public static <T> List<BatchResult<T>> compile(List<String> queries, Function<String, T> compiler, Executor executor) {
+		
+		if ( queries.isEmpty() ) {
+			return List.of();
+		}
+		
+		AtomicReferenceArray<BatchResult<T>> results = new AtomicReferenceArray<>(queries.size());
+		
+		int chunks = Math.min(queries.size(), getParallelism(executor) * CHUNKS_PER_THREAD);
+		int chunkSize = (queries.size() + chunks - 1) / chunks;
+		
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+		
+		for ( int start = 0; start < queries.size(); start += chunkSize ) {
+			
+			int from = start;
+			int to = Math.min(start + chunkSize, queries.size());
+			
+			try {
+				tasks.add(CompletableFuture.runAsync(() -> {
+					for ( int i = from; i < to; i++ ) {
+						results.set(i, compile(i, queries.get(i), compiler));
+					}
+				}, executor));
+			} catch (RejectedExecutionException e) {
+				// a bounded executor that is full fails the queries of the chunk, not the batch
+				for ( int i = from; i < to; i++ ) {
+					results.set(i, new BatchResult<>(i, queries.get(i), null, e));
+				}
+			}
+		}
+		
+		try {
+			CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			if ( e.getCause() instanceof Error error ) {
+				throw error;
+			}
+			throw e;
+		}
+		
+		List<BatchResult<T>> list = new ArrayList<>(results.length());
+		for ( int i = 0; i < results.length(); i++ ) {
+			list.add(results.get(i));
+		}
+		
+		return Collections.unmodifiableList(list);
+	}
+	
+	private static <T> BatchResult<T> compile(int index, String query, Function<String, T> compiler) {
+		
+		try {
+			return new BatchResult<>(index, query, compiler.apply(query), null);
+		} catch (RuntimeException e) {
+			return new BatchResult<>(index, query, null, e);
+		}
+	}
+	
+	private static int getParallelism(Executor executor) {
+		return executor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+	}
+	
+}
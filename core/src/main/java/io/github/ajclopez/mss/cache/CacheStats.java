@@ -0,0 +1,24 @@
+package io.github.ajclopez.mss.cache;
+
+/**
+ * <p>Snapshot of the counters of a {@link LruCache}.</p>
+ *
+ * <ul>
+ * <li><b>hits:</b> number of lookups answered from the cache.
+ * <li><b>misses:</b> number of lookups that had to compute the value.
+ * <li><b>evictions:</b> number of entries removed to respect the maximum size.
+ * <li><b>size:</b> number of entries currently cached.
+ * </ul>
+ */
+public record CacheStats(long hits, long misses, long evictions, long size) {
+
+	public long requests() {
+		return hits + misses;
+	}
+	
+	public double hitRate() {
+		long requests = requests();
+		return requests == 0 ? 1.0 : (double) hits / requests;
+	}
+	
+}
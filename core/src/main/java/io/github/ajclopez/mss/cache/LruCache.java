@@ -0,0 +1,113 @@
+package io.github.ajclopez.mss.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 
+ * Size-bounded, thread-safe cache that evicts the least recently used entry when full.
+ *
+ * @param <K> the type of keys.
+ * @param <V> the type of cached values.
+ */
+public class LruCache<K, V> {
+
+	private final int maximumSize;
+	private final Map<K, V> entries;
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	/**
+	 * 
+	 * Creates a new cache.
+	 * 
+	 * @param maximumSize maximum number of entries kept in the cache.
+	 */
+	public LruCache(int maximumSize) {
+		
+		if ( maximumSize <= 0 ) {
+			throw new IllegalArgumentException(String.format("cache size '%s' must be greater than zero.", maximumSize));
+		}
+		
+		this.maximumSize = maximumSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				
+				if ( size() > LruCache.this.maximumSize ) {
+					evictions.increment();
+					return true;
+				}
+				
+				return false;
+			}
+		};
+	}
+	
+	/**
+	 * 
+	 * Returns the value associated with the key, computing it with {@code loader} when absent.
+	 * The loader runs outside the cache lock and its exceptions are propagated without caching anything.
+	 * 
+	 * @param key the key.
+	 * @param loader function used to compute a missing value.
+	 * @return the cached or computed value.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		
+		V value;
+		synchronized (entries) {
+			value = entries.get(key);
+		}
+		
+		if ( value != null ) {
+			hits.increment();
+			return value;
+		}
+		
+		misses.increment();
+		value = loader.apply(key);
+		
+		if ( value != null ) {
+			synchronized (entries) {
+				entries.put(key, value);
+			}
+		}
+		
+		return value;
+	}
+	
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+	
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+	
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+	
+	/**
+	 * 
+	 * Returns a snapshot of the hit, miss and eviction counters.
+	 * 
+	 * @return a {@link CacheStats} instance.
+	 */
+	public CacheStats stats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+	}
+	
+}
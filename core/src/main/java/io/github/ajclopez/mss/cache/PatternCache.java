@@ -0,0 +1,53 @@
+package io.github.ajclopez.mss.cache;
+
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * Cache of compiled {@link Pattern} instances keyed by the {@code /pattern/flags} value they were compiled from, so the
+ * key holds both the source and the flags of the regular expression.
+ * 
+ * <p>Compiled patterns are immutable and shared by every query. A default cache is used by all queries, it can be
+ * replaced or disabled with {@link #setDefault(PatternCache)}.</p>
+ *
+ */
+public class PatternCache extends LruCache<String, Pattern> {
+
+	/**
+	 * Maximum number of patterns kept in the default cache.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+	
+	private static volatile PatternCache defaultCache = new PatternCache(DEFAULT_MAXIMUM_SIZE);
+	
+	/**
+	 * 
+	 * Creates a new pattern cache.
+	 * 
+	 * @param maximumSize maximum number of patterns kept in the cache.
+	 */
+	public PatternCache(int maximumSize) {
+		super(maximumSize);
+	}
+	
+	/**
+	 * 
+	 * Returns the cache used by all queries.
+	 * 
+	 * @return the default cache, {@code null} when caching is disabled.
+	 */
+	public static PatternCache getDefault() {
+		return defaultCache;
+	}
+	
+	/**
+	 * 
+	 * Replaces the cache used by all queries.
+	 * 
+	 * @param cache the new default cache, {@code null} to compile every pattern.
+	 */
+	public static void setDefault(PatternCache cache) {
+		defaultCache = cache;
+	}
+	
+}
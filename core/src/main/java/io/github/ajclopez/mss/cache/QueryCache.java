@@ -0,0 +1,49 @@
+package io.github.ajclopez.mss.cache;
+
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.Configuration;
+
+/**
+ * 
+ * Cache of {@link CompiledQuery} instances keyed by the raw query string and the {@link Configuration} used to compile it.
+ * 
+ * <p>Enable it by passing an instance through {@link Configuration#withQueryCache(QueryCache)}.</p>
+ *
+ */
+public class QueryCache extends LruCache<QueryCache.Key, CompiledQuery> {
+
+	/**
+	 * 
+	 * Creates a new query cache.
+	 * 
+	 * @param maximumSize maximum number of compiled queries kept in the cache.
+	 */
+	public QueryCache(int maximumSize) {
+		super(maximumSize);
+	}
+	
+	/**
+	 * 
+	 * Cache key: the raw query string and the configuration it was compiled with.
+	 * 
+	 * <p>Configurations are compared by identity, so a lookup does not hash their casters, codecs and the cache itself.
+	 * Reuse the same {@link Configuration} instance to share its entries.</p>
+	 *
+	 * @param query the raw query string.
+	 * @param configuration the configuration used to compile the query.
+	 */
+	public record Key(String query, Configuration configuration) {
+		
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Key key && configuration == key.configuration && query.equals(key.query);
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * query.hashCode() + System.identityHashCode(configuration);
+		}
+		
+	}
+	
+}
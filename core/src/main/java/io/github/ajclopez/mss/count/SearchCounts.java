@@ -0,0 +1,108 @@
+package io.github.ajclopez.mss.count;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.CountResult;
+import io.github.ajclopez.mss.model.CountStrategy;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+
+/**
+ * 
+ * Counts the documents that match a query with the cheapest strategy that answers the caller.
+ * 
+ * <p>Queries without filter are counted from the collection metadata with {@code estimatedDocumentCount}, which does
+ * not read any document but may be inaccurate after an unclean shutdown and is not available in transactions. With a
+ * cap, {@code countDocuments} stops after one match more than the cap. Otherwise every match is counted. Sort, {@code skip},
+ * {@code limit} and projection are removed from the query before counting.</p>
+ *
+ */
+public class SearchCounts {
+
+	private SearchCounts() {
+		
+	}
+	
+	/**
+	 * 
+	 * Counts the documents of the collection of entityClass that match query. Queries marked as always empty by the
+	 * {@code emptyQueryCheck} of the configuration are not sent to the server.
+	 * 
+	 * @param operations the template used to count.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents counted.
+	 * @param configuration object for advanced options.
+	 * @param cap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the count and the strategy used.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static CountResult count(MongoOperations operations, String query, Class<?> entityClass, Optional<Configuration> configuration, Long cap) throws ArgumentNotValidException {
+		
+		CompiledQuery compiled = MongoSpringSearch.compile(query, configuration);
+		
+		if ( compiled.alwaysEmpty() ) {
+			return new CountResult(0, CountStrategy.SKIPPED, false);
+		}
+		
+		return count(operations, compiled.toQuery(), operations.getCollectionName(entityClass), cap);
+	}
+	
+	/**
+	 * 
+	 * Counts the documents of the given collection that match an existing query.
+	 * 
+	 * @param operations the template used to count.
+	 * @param query the MongoDB query, its pagination and projection are ignored.
+	 * @param collectionName the name of the collection.
+	 * @param cap maximum number of matches counted, {@code null} for an exact count.
+	 * @return the count and the strategy used.
+	 */
+	public static CountResult count(MongoOperations operations, Query query, String collectionName, Long cap) {
+		
+		if ( cap != null && cap <= 0 ) {
+			throw new IllegalArgumentException("cap must be positive.");
+		}
+		
+		Query countQuery = countQuery(query);
+		
+		if ( countQuery.getQueryObject().isEmpty() ) {
+			return new CountResult(operations.estimatedCount(collectionName), CountStrategy.ESTIMATED, false);
+		}
+		
+		if ( cap != null ) {
+			// one match more than the cap tells an exact count of cap from a larger one, the limit of a query is an int
+			int limit = cap >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) (cap + 1);
+			long count = operations.exactCount(countQuery.limit(limit), collectionName);
+			return new CountResult(Math.min(count, cap), CountStrategy.CAPPED, count >= limit);
+		}
+		
+		return new CountResult(operations.exactCount(countQuery, collectionName), CountStrategy.EXACT, false);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of query without sort, {@code skip}, {@code limit} and projection. The filter, {@code hint} and
+	 * collation are kept.
+	 * 
+	 * @param query the MongoDB query.
+	 * @return a new query used to count.
+	 */
+	public static Query countQuery(Query query) {
+		
+		Query countQuery = new BasicQuery(query.getQueryObject());
+		
+		if ( query.getHint() != null ) {
+			countQuery.withHint(query.getHint());
+		}
+		
+		query.getCollation().ifPresent(countQuery::collation);
+		
+		return countQuery;
+	}
+	
+}
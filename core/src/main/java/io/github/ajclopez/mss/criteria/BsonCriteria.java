@@ -0,0 +1,418 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.metrics.SearchMetrics;
+import io.github.ajclopez.mss.metrics.SearchPhase;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.ParsedQuery;
+import io.github.ajclopez.mss.model.RegexRewrite;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt32;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ *
+ * Writes queries directly as BSON, without creating {@code Criteria} objects.
+ *
+ * <p>The documents are equal, byte for byte, to the ones {@code Query#getQueryObject()}, {@code Query#getSortObject()}
+ * and {@code Query#getFieldsObject()} return for the same query once encoded with the same codec registry. The keyset
+ * condition of the {@code after} key is the only part still created as {@code Criteria}.</p>
+ *
+ */
+public class BsonCriteria {
+
+	private static final EncoderContext CONTEXT = EncoderContext.builder().build();
+
+	private BsonCriteria() {
+
+	}
+
+	/**
+	 *
+	 * Builds the filter document of a parsed query.
+	 *
+	 * @param parsed the parsed query.
+	 * @param configuration the configuration of the query, {@code null} for default options.
+	 * @param registry the codecs used to encode the values.
+	 * @return the filter document, empty when the query has no filters.
+	 */
+	public static BsonDocument filter(ParsedQuery parsed, Configuration configuration, CodecRegistry registry) {
+
+		BsonDocument document = new BsonDocument();
+		writeFilter(new BsonDocumentWriter(document), parsed, configuration, registry);
+
+		return document;
+	}
+
+	/**
+	 *
+	 * Writes the filter document of a parsed query, for example into a {@code BsonBinaryWriter} to create a
+	 * {@code RawBsonDocument}.
+	 *
+	 * @param writer the writer that receives the document.
+	 * @param parsed the parsed query.
+	 * @param configuration the configuration of the query, {@code null} for default options.
+	 * @param registry the codecs used to encode the values.
+	 */
+	public static void writeFilter(BsonWriter writer, ParsedQuery parsed, Configuration configuration, CodecRegistry registry) {
+
+		List<FilterNode> parts = new ArrayList<>();
+
+		if ( parsed.filter() != null ) {
+			parts.add(parsed.filter());
+		}
+
+		if ( parsed.filters() != null ) {
+			Map<String, List<SearchCriteria>> groups = parsed.filters().stream().collect(Collectors.groupingBy(SearchCriteria::getKey));
+
+			for ( List<SearchCriteria> group : groups.values() ) {
+				for ( SearchCriteria criteria : group ) {
+					parts.add(new FilterNode.Condition(criteria));
+				}
+			}
+		}
+
+		Writer output = new Writer(writer, configuration, registry);
+
+		writer.writeStartDocument();
+
+		if ( parsed.after() == null ) {
+			output.base(parts, parsed.filter() != null);
+		} else if ( parts.isEmpty() ) {
+			output.after(parsed);
+		} else {
+			writer.writeStartArray("$and");
+			writer.writeStartDocument();
+			output.base(parts, parsed.filter() != null);
+			writer.writeEndDocument();
+			writer.writeStartDocument();
+			output.after(parsed);
+			writer.writeEndDocument();
+			writer.writeEndArray();
+		}
+
+		writer.writeEndDocument();
+	}
+
+	/**
+	 *
+	 * Builds the sort document, with {@code 1} for ascending keys and {@code -1} for descending keys.
+	 *
+	 * @param sort the sort of the query.
+	 * @return the sort document, empty when the query is unsorted.
+	 */
+	public static BsonDocument sort(Sort sort) {
+
+		BsonDocument document = new BsonDocument();
+
+		if ( sort != null ) {
+			for ( Sort.Order order : sort ) {
+				document.put(order.getProperty(), new BsonInt32(order.isAscending() ? 1 : -1));
+			}
+		}
+
+		return document;
+	}
+
+	/**
+	 *
+	 * Builds the projection document that includes the given fields.
+	 *
+	 * @param fields the fields included in the projection.
+	 * @return the projection document, empty when no field is given.
+	 */
+	public static BsonDocument projection(List<String> fields) {
+
+		// same iteration order as the fields of Query
+		Map<String, Integer> included = new HashMap<>();
+
+		if ( fields != null ) {
+			for ( String field : fields ) {
+				included.put(field, 1);
+			}
+		}
+
+		BsonDocument document = new BsonDocument();
+
+		for ( String field : included.keySet() ) {
+			document.put(field, new BsonInt32(1));
+		}
+
+		return document;
+	}
+
+	/**
+	 *
+	 * Writes the fields of the documents of a query, following the rules of {@link CriteriaImpl}.
+	 *
+	 */
+	private static class Writer {
+
+		private final BsonWriter writer;
+		private final CodecRegistry registry;
+		private final SearchMetrics metrics;
+		private final RegexRewrite rewrite;
+		private final boolean strict;
+
+		Writer(BsonWriter writer, Configuration configuration, CodecRegistry registry) {
+			this.writer = writer;
+			this.registry = registry;
+			this.metrics = configuration != null ? configuration.metrics() : null;
+			this.rewrite = configuration != null ? configuration.regexRewrite() : null;
+			this.strict = configuration != null && configuration.strictPerformance();
+		}
+
+		/**
+		 *
+		 * A single part is written as is only when it is the {@code filter} key, default filters are always in {@code $and}.
+		 *
+		 */
+		void base(List<FilterNode> parts, boolean filter) {
+
+			if ( parts.isEmpty() ) {
+				return;
+			}
+
+			if ( parts.size() == 1 && filter ) {
+				node(parts.get(0));
+				return;
+			}
+
+			array("$and", parts);
+		}
+
+		void after(ParsedQuery parsed) {
+
+			for ( Map.Entry<String, Object> entry : KeysetPagination.criteria(parsed.sort(), parsed.after()).getCriteriaObject().entrySet() ) {
+				writer.writeName(entry.getKey());
+				value(entry.getValue());
+			}
+		}
+
+		void node(FilterNode node) {
+
+			if ( node instanceof FilterNode.Condition condition ) {
+				condition(condition.criteria());
+				return;
+			}
+
+			FilterNode.Logical logical = (FilterNode.Logical) node;
+
+			if ( logical.operation() == LogicalOperation.OR ) {
+				array("$or", logical.children());
+				return;
+			}
+
+			// conditions on different fields are merged into one document at the position of the first one
+			List<FilterNode> entries = new ArrayList<>();
+			List<SearchCriteria> merged = new ArrayList<>();
+			Set<String> keys = new HashSet<>();
+			int mergedAt = -1;
+
+			for ( FilterNode child : logical.children() ) {
+
+				if ( child instanceof FilterNode.Condition condition && keys.add(condition.criteria().getKey()) ) {
+					if ( mergedAt < 0 ) {
+						mergedAt = entries.size();
+						entries.add(child);
+					}
+					merged.add(condition.criteria());
+					continue;
+				}
+
+				entries.add(child);
+			}
+
+			if ( entries.size() == 1 ) {
+				entry(entries.get(0), mergedAt == 0 ? merged : null);
+				return;
+			}
+
+			writer.writeStartArray("$and");
+			for ( int i = 0; i < entries.size(); i++ ) {
+				writer.writeStartDocument();
+				entry(entries.get(i), i == mergedAt ? merged : null);
+				writer.writeEndDocument();
+			}
+			writer.writeEndArray();
+		}
+
+		private void entry(FilterNode node, List<SearchCriteria> merged) {
+
+			if ( merged == null ) {
+				node(node);
+				return;
+			}
+
+			for ( SearchCriteria criteria : merged ) {
+				condition(criteria);
+			}
+		}
+
+		private void array(String operator, List<FilterNode> nodes) {
+
+			writer.writeStartArray(operator);
+			for ( FilterNode node : nodes ) {
+				writer.writeStartDocument();
+				node(node);
+				writer.writeEndDocument();
+			}
+			writer.writeEndArray();
+		}
+
+		private void condition(SearchCriteria searchCriteria) {
+
+			String key = searchCriteria.getKey();
+			writer.writeName(key);
+
+			if ( searchCriteria.getOperation() == SearchOperation.EXISTS ) {
+				writer.writeStartDocument();
+				writer.writeBoolean("$exists", !searchCriteria.getPrefix());
+				writer.writeEndDocument();
+				return;
+			}
+
+			long start = metrics != null ? System.nanoTime() : 0;
+
+			Object value = CriteriaImpl.getValue(searchCriteria);
+
+			if ( metrics != null ) {
+				metrics.record(SearchPhase.CAST, System.nanoTime() - start);
+			}
+
+			if ( strict && value instanceof List<?> list ) {
+				for ( Object item : list ) {
+					if ( item instanceof Pattern pattern && RegexRewriter.getLiteralPrefix(pattern) == null ) {
+						throw RegexRewriter.notIndexable(key, pattern);
+					}
+				}
+			}
+
+			switch (searchCriteria.getOperation()) {
+			case NOT_EQUAL:
+				if ( value instanceof Pattern pattern ) {
+					if ( strict ) {
+						throw RegexRewriter.notIndexable(key, pattern);
+					}
+
+					operator("$not", Pattern.compile(Pattern.quote(pattern.pattern())));
+				} else if ( value instanceof List ) {
+					operator("$nin", value);
+				} else {
+					operator("$ne", value);
+				}
+				break;
+			case GREATER_THAN:
+				operator("$gt", value);
+				break;
+			case GREATER_THAN_EQUAL:
+				operator("$gte", value);
+				break;
+			case LESS_THAN:
+				operator("$lt", value);
+				break;
+			case LESS_THAN_EQUAL:
+				operator("$lte", value);
+				break;
+			case EQUAL:
+			default:
+				if ( value instanceof Pattern pattern ) {
+					regex(key, pattern);
+				} else if ( value instanceof List ) {
+					operator("$in", value);
+				} else {
+					value(value);
+				}
+				break;
+			}
+		}
+
+		/**
+		 *
+		 * Same rewrite as {@link RegexRewriter#regex}.
+		 *
+		 */
+		private void regex(String key, Pattern pattern) {
+
+			String prefix = RegexRewriter.getLiteralPrefix(pattern);
+			String successor = prefix != null ? RegexRewriter.getSuccessor(prefix) : null;
+
+			if ( successor == null && strict ) {
+				throw RegexRewriter.notIndexable(key, pattern);
+			}
+
+			if ( successor == null || rewrite == null || rewrite == RegexRewrite.NONE ) {
+				value(pattern);
+				return;
+			}
+
+			writer.writeStartDocument();
+			writer.writeString("$gte", prefix);
+			writer.writeString("$lt", successor);
+
+			if ( rewrite != RegexRewrite.RANGE || !RegexRewriter.isPrefixOnly(pattern) ) {
+				writer.writeStartArray("$in");
+				value(pattern);
+				writer.writeEndArray();
+			}
+
+			writer.writeEndDocument();
+		}
+
+		private void operator(String operator, Object value) {
+
+			writer.writeStartDocument();
+			writer.writeName(operator);
+			value(value);
+			writer.writeEndDocument();
+		}
+
+		/**
+		 *
+		 * Writes a value the same as {@code DocumentCodec}.
+		 *
+		 */
+		@SuppressWarnings("unchecked")
+		private void value(Object value) {
+
+			if ( value == null ) {
+				writer.writeNull();
+			} else if ( value instanceof Iterable<?> iterable ) {
+				writer.writeStartArray();
+				for ( Object item : iterable ) {
+					value(item);
+				}
+				writer.writeEndArray();
+			} else if ( value instanceof Map<?, ?> map ) {
+				writer.writeStartDocument();
+				for ( Map.Entry<?, ?> entry : map.entrySet() ) {
+					writer.writeName(entry.getKey().toString());
+					value(entry.getValue());
+				}
+				writer.writeEndDocument();
+			} else {
+				Codec<Object> codec = (Codec<Object>) registry.get(value.getClass());
+				CONTEXT.encodeWithChildContext(codec, writer, value);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,191 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.metrics.SearchMetrics;
+import io.github.ajclopez.mss.metrics.SearchPhase;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import io.github.ajclopez.mss.parser.QueryParser;
+import io.github.ajclopez.mss.parser.ValueCodec;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * Class used to creating queries.
+ * 
+ */
+public class CriteriaImpl {
+
+	private CriteriaImpl() {
+		
+	}
+	
+	/**
+	 * 
+	 * Build MongoDB queries.
+	 * 
+	 * @param searchCriteria A {@link SearchCriteria} instance.
+	 * @return a {@link Criteria} instance.
+	 */
+	public static Criteria buildCriteria(SearchCriteria searchCriteria) {
+		return buildCriteria(searchCriteria, null);
+	}
+	
+	/**
+	 * 
+	 * Build MongoDB queries applying the rewrites of the configuration.
+	 * 
+	 * @param searchCriteria A {@link SearchCriteria} instance.
+	 * @param configuration the configuration of the query, {@code null} for default options.
+	 * @return a {@link Criteria} instance.
+	 */
+	public static Criteria buildCriteria(SearchCriteria searchCriteria, Configuration configuration) {
+		return buildCriteria(Criteria.where(searchCriteria.getKey()), searchCriteria, configuration);
+	}
+	
+	/**
+	 * 
+	 * Build MongoDB queries from a tree of logical operations.
+	 * 
+	 * <p>Conditions on different fields joined by {@code AND} are merged into a single document,
+	 * for example <code>{ "status": "active", "age": { "$gt": 18 } }</code> instead of an {@code $and} list.</p>
+	 * 
+	 * @param node the tree of logical operations.
+	 * @return a {@link Criteria} instance.
+	 */
+	public static Criteria buildCriteria(FilterNode node) {
+		return buildCriteria(node, null);
+	}
+	
+	/**
+	 * 
+	 * Build MongoDB queries from a tree of logical operations applying the rewrites of the configuration.
+	 * 
+	 * @param node the tree of logical operations.
+	 * @param configuration the configuration of the query, {@code null} for default options.
+	 * @return a {@link Criteria} instance.
+	 */
+	public static Criteria buildCriteria(FilterNode node, Configuration configuration) {
+		
+		if ( node instanceof FilterNode.Condition condition ) {
+			return buildCriteria(condition.criteria(), configuration);
+		}
+		
+		FilterNode.Logical logical = (FilterNode.Logical) node;
+		
+		if ( logical.operation() == LogicalOperation.OR ) {
+			return new Criteria().orOperator(logical.children().stream().map(child -> buildCriteria(child, configuration)).toList());
+		}
+		
+		List<Criteria> criterias = new ArrayList<>();
+		Set<String> keys = new HashSet<>();
+		Criteria merged = null;
+		
+		for ( FilterNode child : logical.children() ) {
+			
+			if ( child instanceof FilterNode.Condition condition && keys.add(condition.criteria().getKey()) ) {
+				
+				if ( merged == null ) {
+					merged = buildCriteria(condition.criteria(), configuration);
+					criterias.add(merged);
+				} else {
+					buildCriteria(merged.and(condition.criteria().getKey()), condition.criteria(), configuration);
+				}
+				continue;
+			}
+			
+			criterias.add(buildCriteria(child, configuration));
+		}
+		
+		return criterias.size() == 1 ? criterias.get(0) : new Criteria().andOperator(criterias);
+	}
+	
+	private static Criteria buildCriteria(Criteria criteria, SearchCriteria searchCriteria, Configuration configuration) {
+		
+		if ( searchCriteria.getOperation() == SearchOperation.EXISTS ) {
+			return criteria.exists(!searchCriteria.getPrefix());
+		}
+		
+		SearchMetrics metrics = configuration != null ? configuration.metrics() : null;
+		long start = metrics != null ? System.nanoTime() : 0;
+		
+		Object value = getValue(searchCriteria);
+		
+		if ( metrics != null ) {
+			metrics.record(SearchPhase.CAST, System.nanoTime() - start);
+		}
+		
+		boolean strict = configuration != null && configuration.strictPerformance();
+		
+		if ( strict && value instanceof List<?> list ) {
+			for ( Object item : list ) {
+				if ( item instanceof Pattern pattern && RegexRewriter.getLiteralPrefix(pattern) == null ) {
+					throw RegexRewriter.notIndexable(searchCriteria.getKey(), pattern);
+				}
+			}
+		}
+		
+		switch (searchCriteria.getOperation()) {
+		case NOT_EQUAL:
+			if ( value instanceof Pattern pattern) {
+				if ( strict ) {
+					throw RegexRewriter.notIndexable(searchCriteria.getKey(), pattern);
+				}
+
+				criteria.not().regex(Pattern.quote(pattern.pattern()));
+			} else if ( value instanceof List ) {				
+				criteria.nin(((List<?>) value).toArray());
+			} else {
+				criteria.ne(value);
+			}
+			break;
+		case GREATER_THAN:
+			criteria.gt(value);
+			break;
+		case GREATER_THAN_EQUAL:
+			criteria.gte(value);
+			break;
+		case LESS_THAN:
+			criteria.lt(value);
+			break;
+		case LESS_THAN_EQUAL:
+			criteria.lte(value);
+			break;
+		case EQUAL:
+		default:
+			if ( value instanceof Pattern pattern ) {
+				RegexRewriter.regex(criteria, pattern, configuration != null ? configuration.regexRewrite() : null, strict);
+			} else if ( value instanceof List ) {
+				criteria.in(((List<?>) value).toArray());
+			} else {
+				criteria.is(value);
+			}
+			break;
+		}
+		
+		return criteria;
+	}
+	
+	/**
+	 * 
+	 * Converts the value of a condition with the codec or the caster of its field.
+	 * 
+	 * @param searchCriteria A {@link SearchCriteria} instance.
+	 * @return the value used in the MongoDB query.
+	 */
+	public static Object getValue(SearchCriteria searchCriteria) {
+		
+		ValueCodec codec = searchCriteria.getCodec();
+		
+		return codec != null ? codec.decode(searchCriteria.getValue()) : QueryParser.parseValue(searchCriteria.getValue(), searchCriteria.getCaster());
+	}
+	
+}
@@ -0,0 +1,120 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.QueryBaseVisitor;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.SearchOperation;
+import io.github.ajclopez.mss.parser.FieldCodecs;
+import io.github.ajclopez.mss.parser.QueryParser;
+import org.antlr.v4.runtime.Token;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * This class provides an implementation of {@link QueryBaseVisitor}, which allows visiting the parse tree and return the tree of logical operations.
+ *
+ */
+public class CriteriaQueryVisitor extends QueryBaseVisitor<FilterNode> {
+
+	private final FieldCodecs codecs;
+	
+	public CriteriaQueryVisitor(Map<String, CastType> casters) {
+		this(FieldCodecs.of(casters));
+	}
+	
+	public CriteriaQueryVisitor(FieldCodecs codecs) {
+		this.codecs = codecs != null ? codecs : FieldCodecs.of(null);
+	}
+	
+	@Override
+	public FilterNode visitInput(io.github.ajclopez.mss.QueryParser.InputContext ctx) {
+		return super.visit(ctx != null ? ctx.query() : null);
+	}
+	
+	@Override
+	public FilterNode visitPriorityQuery(io.github.ajclopez.mss.QueryParser.PriorityQueryContext ctx) {
+		return super.visit(ctx != null ? ctx.query() : null);
+	}
+	
+	@Override
+	public FilterNode visitAtomQuery(io.github.ajclopez.mss.QueryParser.AtomQueryContext ctx) {
+		return super.visit(ctx != null ? ctx.criteria() : null);
+	}
+	
+	@Override
+	public FilterNode visitOpQuery(io.github.ajclopez.mss.QueryParser.OpQueryContext ctx) {
+	
+		FilterNode left = visit(ctx != null ? ctx.left : null);
+		FilterNode right = visit(ctx != null ? ctx.right : null);
+
+		String logicalOperation = null;
+		
+		if (ctx != null && ctx.logicalOp != null ) {
+			logicalOperation = ctx.logicalOp.getText();
+		}
+		
+		if ( logicalOperation == null ) {
+			return new FilterNode.Logical(LogicalOperation.AND, List.of(left, right));
+		}
+
+        return switch (LogicalOperation.getLogicalOperation(logicalOperation)) {
+            case OR -> new FilterNode.Logical(LogicalOperation.OR, List.of(left, right));
+            default -> new FilterNode.Logical(LogicalOperation.AND, List.of(left, right));
+        };
+	}
+	
+	@Override
+	public FilterNode visitCriteria(io.github.ajclopez.mss.QueryParser.CriteriaContext ctx) {
+
+		if ( ctx == null ) {
+			throw new NullPointerException("Nullpointer CriteriaContext");
+		}
+		
+		io.github.ajclopez.mss.QueryParser.KeyContext keyContext = ctx.key();
+		if ( keyContext == null ) {
+			throw new NullPointerException("Nullpointer keyContext");
+		}
+		
+		Token keyToken = keyContext.getStart();
+		Boolean prefix = keyToken.getType() == io.github.ajclopez.mss.QueryParser.NEG_IDENTIFIER;
+		String key = prefix ? keyToken.getText().substring(1) : keyToken.getText();
+		
+		io.github.ajclopez.mss.QueryParser.OpContext opContext = ctx.op();
+		if ( opContext == null ) {
+			return new FilterNode.Condition(codecs.criteria(prefix, key, SearchOperation.EXISTS, ""));
+		}
+		
+		io.github.ajclopez.mss.QueryParser.ValueContext valueContext = ctx.value();
+		if ( valueContext == null ) {
+			throw new NullPointerException("Nullpointer valueContext");
+		}
+		
+		SearchOperation operation = getOperation(opContext.getStart());
+		String value = getValue(valueContext.getStart());
+		
+		return new FilterNode.Condition(codecs.criteria(prefix, key, operation, value));
+	}
+	
+	private static SearchOperation getOperation(Token token) {
+        return switch (token.getType()) {
+            case io.github.ajclopez.mss.QueryParser.NE -> SearchOperation.NOT_EQUAL;
+            case io.github.ajclopez.mss.QueryParser.GT -> SearchOperation.GREATER_THAN;
+            case io.github.ajclopez.mss.QueryParser.GTE -> SearchOperation.GREATER_THAN_EQUAL;
+            case io.github.ajclopez.mss.QueryParser.LT -> SearchOperation.LESS_THAN;
+            case io.github.ajclopez.mss.QueryParser.LTE -> SearchOperation.LESS_THAN_EQUAL;
+            default -> SearchOperation.EQUAL;
+        };
+	}
+	
+	private static String getValue(Token token) {
+        return switch (token.getType()) {
+            case io.github.ajclopez.mss.QueryParser.STRING -> QueryParser.unquote(token.getText());
+            case io.github.ajclopez.mss.QueryParser.ENCODED_STRING -> QueryParser.decode(token.getText());
+            default -> token.getText();
+        };
+	}
+	
+}
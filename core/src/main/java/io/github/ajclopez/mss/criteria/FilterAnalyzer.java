@@ -0,0 +1,329 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.model.EmptyQueryCheck;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.ParsedQuery;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ *
+ * Detects filters that no document can match, so callers can answer them without querying the server.
+ *
+ * <p>The analysis is conservative: a filter is only reported as empty when it is proven, conditions whose values cannot
+ * be compared are ignored. Conditions under {@code AND} are grouped by field, an {@code OR} is empty when all of its
+ * branches are.</p>
+ *
+ */
+public class FilterAnalyzer {
+
+	private static final Object INVALID = new Object();
+
+	private FilterAnalyzer() {
+
+	}
+
+	/**
+	 *
+	 * Checks whether no document can match the filters of a parsed query.
+	 *
+	 * @param parsed the parsed query.
+	 * @param check the analysis used, {@code null} for {@link EmptyQueryCheck#NONE}.
+	 * @return {@code true} when the filters are proven to match no document.
+	 */
+	public static boolean isAlwaysEmpty(ParsedQuery parsed, EmptyQueryCheck check) {
+		return check != null && check != EmptyQueryCheck.NONE && isAlwaysEmpty(parsed.toFilterNode(), check);
+	}
+
+	/**
+	 *
+	 * Checks whether no document can match a tree of logical operations.
+	 *
+	 * @param node the tree of logical operations, {@code null} when there are no filters.
+	 * @param check the analysis used, {@code null} for {@link EmptyQueryCheck#NONE}.
+	 * @return {@code true} when the tree is proven to match no document.
+	 */
+	public static boolean isAlwaysEmpty(FilterNode node, EmptyQueryCheck check) {
+
+		if ( node == null || check == null || check == EmptyQueryCheck.NONE ) {
+			return false;
+		}
+
+		return isEmpty(node, check == EmptyQueryCheck.SCALAR);
+	}
+
+	private static boolean isEmpty(FilterNode node, boolean scalar) {
+
+		if ( node instanceof FilterNode.Condition condition ) {
+			return isEmpty(condition.criteria());
+		}
+
+		FilterNode.Logical logical = (FilterNode.Logical) node;
+
+		if ( logical.operation() == LogicalOperation.OR ) {
+			return logical.children().stream().allMatch(child -> isEmpty(child, scalar));
+		}
+
+		Map<String, Field> fields = new LinkedHashMap<>();
+
+		for ( FilterNode child : logical.children() ) {
+
+			if ( isEmpty(child, scalar) ) {
+				return true;
+			}
+
+			if ( child instanceof FilterNode.Condition condition ) {
+				fields.computeIfAbsent(condition.criteria().getKey(), key -> new Field()).add(condition.criteria());
+			}
+		}
+
+		return fields.values().stream().anyMatch(field -> field.isEmpty(scalar));
+	}
+
+	/**
+	 *
+	 * An equality over an empty list becomes {@code $in: []}.
+	 *
+	 */
+	private static boolean isEmpty(SearchCriteria criteria) {
+		return criteria.getOperation() == SearchOperation.EQUAL && decode(criteria) instanceof List<?> list && list.isEmpty();
+	}
+
+	private static Object decode(SearchCriteria criteria) {
+
+		if ( criteria.getOperation() == SearchOperation.EXISTS ) {
+			return null;
+		}
+
+		try {
+			return CriteriaImpl.getValue(criteria);
+		} catch (RuntimeException e) {
+			return INVALID;
+		}
+	}
+
+	private enum Kind {
+		NUMBER, DATE
+	}
+
+	private record Bound(BigDecimal value, boolean strict) {
+
+	}
+
+	/**
+	 *
+	 * Constraints of the conditions on the same field joined by {@code AND}.
+	 *
+	 */
+	private static class Field {
+
+		private boolean present;
+		private boolean missing;
+		private Set<Object> allowed;
+		private final Set<Object> excluded = new HashSet<>();
+		private final Map<Kind, Bound> lower = new EnumMap<>(Kind.class);
+		private final Map<Kind, Bound> upper = new EnumMap<>(Kind.class);
+
+		void add(SearchCriteria criteria) {
+
+			SearchOperation operation = criteria.getOperation();
+
+			if ( operation == SearchOperation.EXISTS ) {
+				if ( Boolean.TRUE.equals(criteria.getPrefix()) ) {
+					missing = true;
+				} else {
+					present = true;
+				}
+				return;
+			}
+
+			Object value = decode(criteria);
+
+			if ( value == INVALID ) {
+				return;
+			}
+
+			List<Object> values = values(value);
+
+			switch (operation) {
+			case EQUAL:
+				// null also matches a missing field
+				present |= !values.contains(null);
+				if ( values.stream().noneMatch(Pattern.class::isInstance) ) {
+					Set<Object> set = normalize(values);
+					if ( allowed == null ) {
+						allowed = set;
+					} else {
+						allowed.retainAll(set);
+					}
+				}
+				break;
+			case NOT_EQUAL:
+				if ( values.stream().noneMatch(Pattern.class::isInstance) ) {
+					excluded.addAll(normalize(values));
+				}
+				break;
+			default:
+				if ( value == null ) {
+					break;
+				}
+				present = true;
+				bound(operation, value);
+				break;
+			}
+		}
+
+		/**
+		 *
+		 * Without the scalar assumption only an existence check that contradicts the other conditions is detected, the
+		 * rest of the constraints can be satisfied by different elements of an array.
+		 *
+		 */
+		boolean isEmpty(boolean scalar) {
+
+			if ( present && missing ) {
+				return true;
+			}
+
+			if ( !scalar ) {
+				return false;
+			}
+
+			for ( Kind kind : Kind.values() ) {
+
+				Bound low = lower.get(kind);
+				Bound high = upper.get(kind);
+
+				if ( low != null && high != null ) {
+					int comparison = low.value().compareTo(high.value());
+					if ( comparison > 0 || (comparison == 0 && (low.strict() || high.strict())) ) {
+						return true;
+					}
+				}
+			}
+
+			if ( allowed == null ) {
+				return false;
+			}
+
+			for ( Object value : allowed ) {
+				if ( !excluded.contains(value) && inBounds(value) ) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private void bound(SearchOperation operation, Object value) {
+
+			BigDecimal position = FilterOptimizer.toBigDecimal(value);
+
+			if ( position == null ) {
+				return;
+			}
+
+			Kind kind = kind(value);
+			boolean strict = operation == SearchOperation.GREATER_THAN || operation == SearchOperation.LESS_THAN;
+			boolean isLower = operation == SearchOperation.GREATER_THAN || operation == SearchOperation.GREATER_THAN_EQUAL;
+			Map<Kind, Bound> bounds = isLower ? lower : upper;
+			Bound current = bounds.get(kind);
+
+			int comparison = current != null ? position.compareTo(current.value()) : 0;
+
+			if ( current == null || (isLower ? comparison > 0 : comparison < 0) || (comparison == 0 && strict) ) {
+				bounds.put(kind, new Bound(position, strict));
+			}
+		}
+
+		/**
+		 *
+		 * Values of a kind without bounds of that kind are kept, a value of another type may still match.
+		 *
+		 */
+		private boolean inBounds(Object value) {
+
+			BigDecimal position = FilterOptimizer.toBigDecimal(value);
+
+			if ( position == null ) {
+				return true;
+			}
+
+			Kind kind = kind(value);
+			Bound low = lower.get(kind);
+			Bound high = upper.get(kind);
+
+			if ( low != null ) {
+				int comparison = position.compareTo(low.value());
+				if ( comparison < 0 || (comparison == 0 && low.strict()) ) {
+					return false;
+				}
+			}
+
+			if ( high != null ) {
+				int comparison = position.compareTo(high.value());
+				if ( comparison > 0 || (comparison == 0 && high.strict()) ) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private static Kind kind(Object value) {
+			return value instanceof Date || value instanceof Instant ? Kind.DATE : Kind.NUMBER;
+		}
+
+		private static List<Object> values(Object value) {
+
+			List<Object> values = new ArrayList<>();
+
+			if ( value instanceof List<?> list ) {
+				values.addAll(list);
+			} else {
+				values.add(value);
+			}
+
+			return values;
+		}
+
+		/**
+		 *
+		 * Numbers of different types are equal in MongoDB when they have the same value, for example {@code 1} and
+		 * {@code 1.0}.
+		 *
+		 */
+		private static Set<Object> normalize(List<Object> values) {
+
+			Set<Object> set = new HashSet<>();
+
+			for ( Object value : values ) {
+				BigDecimal number = value instanceof Number ? FilterOptimizer.toBigDecimal(value) : null;
+				if ( number != null ) {
+					set.add(number.stripTrailingZeros());
+				} else if ( value instanceof Date date ) {
+					set.add(date.toInstant());
+				} else {
+					set.add(value);
+				}
+			}
+
+			return set;
+		}
+
+	}
+
+}
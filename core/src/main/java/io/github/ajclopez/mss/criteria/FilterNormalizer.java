@@ -0,0 +1,49 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.model.FilterNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 
+ * Class used to normalize the tree of logical operations before creating queries.
+ * 
+ */
+public class FilterNormalizer {
+
+	private FilterNormalizer() {
+		
+	}
+	
+	/**
+	 * 
+	 * Collapses nested logical operations of the same type into a single operation,
+	 * for example {@code (a OR b) OR c} into {@code OR(a, b, c)}.
+	 * 
+	 * @param node the tree of logical operations.
+	 * @return the normalized tree.
+	 */
+	public static FilterNode normalize(FilterNode node) {
+		
+		if ( !(node instanceof FilterNode.Logical logical) ) {
+			return node;
+		}
+		
+		List<FilterNode> children = new ArrayList<>();
+		
+		for ( FilterNode child : logical.children() ) {
+			
+			FilterNode normalized = normalize(child);
+			
+			if ( normalized instanceof FilterNode.Logical nested && nested.operation() == logical.operation() ) {
+				children.addAll(nested.children());
+			} else {
+				children.add(normalized);
+			}
+		}
+		
+		return children.size() == 1 ? children.get(0) : new FilterNode.Logical(logical.operation(), children);
+	}
+	
+}
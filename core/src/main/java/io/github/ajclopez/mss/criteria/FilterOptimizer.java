@@ -0,0 +1,393 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.OptimizerRule;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ *
+ * Rewrites the filters of a query into smaller equivalent predicates with the rules of {@link OptimizerRule}.
+ *
+ * <p>Rules are applied bottom-up on every logical operation. Values are converted with the codec of their field to
+ * compare them, conditions whose value cannot be converted are left as written. Every rewrite is logged at
+ * {@code DEBUG} level and can also be collected in a trace.</p>
+ *
+ */
+public class FilterOptimizer {
+
+	private static final System.Logger LOGGER = System.getLogger(FilterOptimizer.class.getName());
+	private static final Object INVALID = new Object();
+
+	/**
+	 *
+	 * Rewrite applied by a rule.
+	 *
+	 * @param rule the rule applied.
+	 * @param before the terms before the rewrite.
+	 * @param after the terms after the rewrite.
+	 */
+	public record Rewrite(OptimizerRule rule, String before, String after) {
+
+	}
+
+	private final Set<OptimizerRule> rules;
+	private final List<Rewrite> trace;
+	private final boolean tracing;
+
+	private FilterOptimizer(Set<OptimizerRule> rules, List<Rewrite> trace) {
+		this.rules = rules != null ? rules : Set.of();
+		this.trace = trace;
+		this.tracing = trace != null || LOGGER.isLoggable(System.Logger.Level.DEBUG);
+	}
+
+	/**
+	 *
+	 * Rewrites a tree of logical operations.
+	 *
+	 * @param node the normalized tree of logical operations.
+	 * @param rules the rules enabled.
+	 * @param trace receives the rewrites applied, {@code null} to only log them.
+	 * @return the rewritten tree.
+	 */
+	public static FilterNode optimize(FilterNode node, Set<OptimizerRule> rules, List<Rewrite> trace) {
+		return new FilterOptimizer(rules, trace).visit(node);
+	}
+
+	/**
+	 *
+	 * Rewrites the default filters of a query, which are joined by {@code AND}.
+	 *
+	 * @param filters the default filters.
+	 * @param rules the rules enabled.
+	 * @param trace receives the rewrites applied, {@code null} to only log them.
+	 * @return the rewritten filters.
+	 */
+	public static List<SearchCriteria> optimize(List<SearchCriteria> filters, Set<OptimizerRule> rules, List<Rewrite> trace) {
+
+		FilterOptimizer optimizer = new FilterOptimizer(rules, trace);
+
+		List<FilterNode> children = new ArrayList<>();
+		for ( SearchCriteria criteria : filters ) {
+			children.add(optimizer.visit(new FilterNode.Condition(criteria)));
+		}
+
+		List<SearchCriteria> optimized = new ArrayList<>();
+		for ( FilterNode child : optimizer.rewrite(LogicalOperation.AND, children) ) {
+			optimized.add(((FilterNode.Condition) child).criteria());
+		}
+
+		return optimized;
+	}
+
+	private FilterNode visit(FilterNode node) {
+
+		if ( node instanceof FilterNode.Condition condition ) {
+			return negation(condition);
+		}
+
+		FilterNode.Logical logical = (FilterNode.Logical) node;
+
+		List<FilterNode> children = new ArrayList<>();
+		for ( FilterNode child : logical.children() ) {
+			children.add(visit(child));
+		}
+
+		children = rewrite(logical.operation(), children);
+
+		return FilterNormalizer.normalize(children.size() == 1 ? children.get(0) : new FilterNode.Logical(logical.operation(), children));
+	}
+
+	private List<FilterNode> rewrite(LogicalOperation operation, List<FilterNode> children) {
+
+		children = apply(OptimizerRule.DUPLICATE, operation, children, nodes -> new ArrayList<>(new LinkedHashSet<>(nodes)));
+
+		if ( operation == LogicalOperation.OR ) {
+			return apply(OptimizerRule.IN, operation, children, nodes -> merge(nodes, SearchOperation.EQUAL));
+		}
+
+		children = apply(OptimizerRule.NOT_IN, operation, children, nodes -> merge(nodes, SearchOperation.NOT_EQUAL));
+
+		return apply(OptimizerRule.RANGE, operation, children, FilterOptimizer::bounds);
+	}
+
+	private List<FilterNode> apply(OptimizerRule rule, LogicalOperation operation, List<FilterNode> children, UnaryOperator<List<FilterNode>> rewrite) {
+
+		if ( !rules.contains(rule) || children.size() < 2 ) {
+			return children;
+		}
+
+		List<FilterNode> rewritten = rewrite.apply(children);
+
+		if ( rewritten.size() != children.size() ) {
+			record(rule, render(operation, children), render(operation, rewritten));
+		}
+
+		return rewritten;
+	}
+
+	private FilterNode negation(FilterNode.Condition condition) {
+
+		SearchCriteria criteria = condition.criteria();
+
+		if ( !rules.contains(OptimizerRule.NEGATION) || !Boolean.TRUE.equals(criteria.getPrefix()) || criteria.getOperation() == SearchOperation.EXISTS ) {
+			return condition;
+		}
+
+		SearchCriteria rewritten = new SearchCriteria(false, criteria.getKey(), criteria.getOperation(), criteria.getValue(), criteria.getCaster(), criteria.getCodec());
+		record(OptimizerRule.NEGATION, render(criteria), render(rewritten));
+
+		return new FilterNode.Condition(rewritten);
+	}
+
+	/**
+	 *
+	 * Merges the conditions with the given operation on the same field into a single condition whose value is the
+	 * list of their values, placed where the first one was.
+	 *
+	 */
+	private static List<FilterNode> merge(List<FilterNode> children, SearchOperation operation) {
+
+		Map<String, List<Integer>> groups = new LinkedHashMap<>();
+
+		for ( int i = 0; i < children.size(); i++ ) {
+			if ( children.get(i) instanceof FilterNode.Condition condition && condition.criteria().getOperation() == operation ) {
+				groups.computeIfAbsent(condition.criteria().getKey(), key -> new ArrayList<>()).add(i);
+			}
+		}
+
+		List<FilterNode> merged = new ArrayList<>(children);
+		Set<Integer> removed = new LinkedHashSet<>();
+
+		for ( List<Integer> group : groups.values() ) {
+
+			if ( group.size() < 2 ) {
+				continue;
+			}
+
+			List<SearchCriteria> conditions = group.stream().map(i -> ((FilterNode.Condition) children.get(i)).criteria()).toList();
+			List<Object> values = values(conditions, operation == SearchOperation.NOT_EQUAL);
+
+			if ( values == null ) {
+				continue;
+			}
+
+			SearchCriteria first = conditions.get(0);
+			String value = conditions.stream().map(SearchCriteria::getValue).collect(Collectors.joining(","));
+			List<Object> list = Collections.unmodifiableList(values);
+
+			merged.set(group.get(0), new FilterNode.Condition(new SearchCriteria(first.getPrefix(), first.getKey(), operation, value, first.getCaster(), ignored -> list)));
+			removed.addAll(group.subList(1, group.size()));
+		}
+
+		return remove(merged, removed);
+	}
+
+	/**
+	 *
+	 * Converts the values of the conditions, lists are flattened. Regular expressions are not merged into {@code $nin}
+	 * because inequalities match them literally.
+	 *
+	 */
+	private static List<Object> values(List<SearchCriteria> conditions, boolean literal) {
+
+		List<Object> values = new ArrayList<>();
+
+		for ( SearchCriteria criteria : conditions ) {
+
+			Object value = decode(criteria);
+
+			if ( value == INVALID || (literal && value instanceof Pattern) ) {
+				return null;
+			}
+
+			if ( value instanceof List<?> list ) {
+				if ( literal && list.stream().anyMatch(Pattern.class::isInstance) ) {
+					return null;
+				}
+				values.addAll(list);
+			} else {
+				values.add(value);
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 *
+	 * Keeps the tightest lower bound and the tightest upper bound of every field, among the bounds of the same type.
+	 *
+	 */
+	private static List<FilterNode> bounds(List<FilterNode> children) {
+
+		Map<Slot, Integer> tightest = new HashMap<>();
+		Map<Integer, BigDecimal> values = new HashMap<>();
+		Set<Integer> removed = new LinkedHashSet<>();
+
+		for ( int i = 0; i < children.size(); i++ ) {
+
+			if ( !(children.get(i) instanceof FilterNode.Condition condition) || !isBound(condition.criteria().getOperation()) ) {
+				continue;
+			}
+
+			SearchCriteria criteria = condition.criteria();
+			Object value = decode(criteria);
+			BigDecimal bound = toBigDecimal(value);
+
+			if ( bound == null ) {
+				continue;
+			}
+
+			boolean lower = criteria.getOperation() == SearchOperation.GREATER_THAN || criteria.getOperation() == SearchOperation.GREATER_THAN_EQUAL;
+			Slot slot = new Slot(criteria.getKey(), lower, value instanceof Date || value instanceof Instant);
+			Integer current = tightest.get(slot);
+			values.put(i, bound);
+
+			if ( current == null ) {
+				tightest.put(slot, i);
+				continue;
+			}
+
+			int comparison = bound.compareTo(values.get(current));
+			boolean strict = criteria.getOperation() == SearchOperation.GREATER_THAN || criteria.getOperation() == SearchOperation.LESS_THAN;
+			boolean currentStrict = ((FilterNode.Condition) children.get(current)).criteria().getOperation() == criteria.getOperation();
+			boolean tighter = (lower ? comparison > 0 : comparison < 0) || (comparison == 0 && strict && !currentStrict);
+
+			if ( tighter ) {
+				removed.add(current);
+				tightest.put(slot, i);
+			} else {
+				removed.add(i);
+			}
+		}
+
+		return remove(children, removed);
+	}
+
+	private record Slot(String key, boolean lower, boolean date) {
+
+	}
+
+	private static boolean isBound(SearchOperation operation) {
+		return operation == SearchOperation.GREATER_THAN || operation == SearchOperation.GREATER_THAN_EQUAL
+				|| operation == SearchOperation.LESS_THAN || operation == SearchOperation.LESS_THAN_EQUAL;
+	}
+
+	/**
+	 *
+	 * Returns the position of a number or a date on its own scale, or {@code null} for values without order.
+	 *
+	 */
+	static BigDecimal toBigDecimal(Object value) {
+
+		try {
+			if ( value instanceof Date date ) {
+				return BigDecimal.valueOf(date.getTime());
+			}
+			if ( value instanceof Instant instant ) {
+				return BigDecimal.valueOf(instant.getEpochSecond()).add(BigDecimal.valueOf(instant.getNano(), 9));
+			}
+			if ( value instanceof Decimal128 decimal ) {
+				return decimal.bigDecimalValue();
+			}
+			if ( value instanceof BigDecimal decimal ) {
+				return decimal;
+			}
+			if ( value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float ) {
+				return new BigDecimal(value.toString());
+			}
+		} catch (RuntimeException e) {
+			// NaN, infinities and negative zero of Decimal128 have no order to compare
+		}
+
+		return null;
+	}
+
+	private static Object decode(SearchCriteria criteria) {
+		try {
+			return CriteriaImpl.getValue(criteria);
+		} catch (RuntimeException e) {
+			return INVALID;
+		}
+	}
+
+	private static List<FilterNode> remove(List<FilterNode> children, Set<Integer> removed) {
+
+		if ( removed.isEmpty() ) {
+			return children;
+		}
+
+		List<FilterNode> kept = new ArrayList<>();
+		for ( int i = 0; i < children.size(); i++ ) {
+			if ( !removed.contains(i) ) {
+				kept.add(children.get(i));
+			}
+		}
+
+		return kept;
+	}
+
+	private void record(OptimizerRule rule, String before, String after) {
+
+		if ( !tracing ) {
+			return;
+		}
+
+		if ( trace != null ) {
+			trace.add(new Rewrite(rule, before, after));
+		}
+
+		LOGGER.log(System.Logger.Level.DEBUG, "{0}: {1} -> {2}", rule, before, after);
+	}
+
+	private static String render(LogicalOperation operation, List<FilterNode> children) {
+		return children.size() == 1 ? render(children.get(0)) : render(new FilterNode.Logical(operation, children));
+	}
+
+	private static String render(FilterNode node) {
+
+		if ( node instanceof FilterNode.Condition condition ) {
+			return render(condition.criteria());
+		}
+
+		FilterNode.Logical logical = (FilterNode.Logical) node;
+
+		return logical.children().stream().map(FilterOptimizer::render).collect(Collectors.joining(" " + logical.operation() + " ", "(", ")"));
+	}
+
+	private static String render(SearchCriteria criteria) {
+
+		String prefix = Boolean.TRUE.equals(criteria.getPrefix()) ? "!" : "";
+
+		String operator = switch (criteria.getOperation()) {
+			case EQUAL -> "=";
+			case NOT_EQUAL -> "!=";
+			case GREATER_THAN -> ">";
+			case GREATER_THAN_EQUAL -> ">=";
+			case LESS_THAN -> "<";
+			case LESS_THAN_EQUAL -> "<=";
+			case EXISTS -> null;
+		};
+
+		return operator == null ? prefix + criteria.getKey() : prefix + criteria.getKey() + operator + criteria.getValue();
+	}
+
+}
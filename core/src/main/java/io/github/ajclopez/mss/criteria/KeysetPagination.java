@@ -0,0 +1,221 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ *
+ * Encodes and decodes the tokens of keyset pagination.
+ *
+ * <p>A token holds the sort keys of the query and their values in the last document of a page. The next page is
+ * selected with range conditions over those keys, so the server seeks in the index instead of reading and discarding
+ * the skipped documents. {@code _id} is always the last sort key, so every document has a unique position.</p>
+ *
+ * <p>Missing and {@code null} values sort before any other value. Sort keys are expected to hold a single type, values
+ * of different types are not compared by range conditions.</p>
+ *
+ */
+public class KeysetPagination {
+
+	private static final String ID = "_id";
+	private static final String KEYS = "k";
+	private static final String VALUES = "v";
+
+	private static final Codec<Document> CODEC = new DocumentCodec(CodecRegistries.withUuidRepresentation(MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.STANDARD));
+	private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+	private KeysetPagination() {
+
+	}
+
+	/**
+	 *
+	 * Appends {@code _id} to the sort keys when it is missing, with the direction of the last key.
+	 *
+	 * @param sort the sort of the query.
+	 * @return the sort used by keyset pagination.
+	 */
+	public static Sort tieBreak(Sort sort) {
+
+		Sort.Direction direction = Sort.Direction.ASC;
+
+		for ( Sort.Order order : sort ) {
+			if ( ID.equals(order.getProperty()) ) {
+				return sort;
+			}
+			direction = order.getDirection();
+		}
+
+		return sort.and(Sort.by(direction, ID));
+	}
+
+	/**
+	 *
+	 * Builds the token of the page that follows a document.
+	 *
+	 * @param sort the sort of the query, including {@code _id}.
+	 * @param last the last document of the page, as stored in the collection.
+	 * @return an opaque token for the {@code after} key.
+	 * @throws ArgumentNotValidException Exception to be thrown when a sort key holds a value that cannot be encoded.
+	 */
+	public static String nextToken(Sort sort, Document last) throws ArgumentNotValidException {
+
+		List<String> keys = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+
+		for ( Sort.Order order : sort ) {
+			Object value = getValue(last, order.getProperty());
+
+			if ( !isSupported(value) ) {
+				throw new ArgumentNotValidException(String.format("sort key '%s' of type %s cannot be used for keyset pagination.", order.getProperty(), value.getClass().getSimpleName()));
+			}
+
+			keys.add(order.isAscending() ? order.getProperty() : "-" + order.getProperty());
+			values.add(value);
+		}
+
+		String json = new Document(KEYS, keys).append(VALUES, values).toJson(JSON, CODEC);
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 *
+	 * Decodes a token built by {@link #nextToken(Sort, Document)}.
+	 *
+	 * @param token the value of the {@code after} key.
+	 * @param sort the sort of the query, including {@code _id}.
+	 * @return the values of the sort keys in the last document of the previous page.
+	 * @throws ArgumentNotValidException Exception to be thrown when the token is not valid or was built for another sort.
+	 */
+	public static List<Object> decode(String token, Sort sort) throws ArgumentNotValidException {
+
+		Document document;
+
+		try {
+			document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8), CODEC);
+		} catch (RuntimeException e) {
+			throw new ArgumentNotValidException(String.format("after '%s' is not a valid token.", token));
+		}
+
+		Object keys = document.get(KEYS);
+		Object values = document.get(VALUES);
+
+		List<String> expected = new ArrayList<>();
+		for ( Sort.Order order : sort ) {
+			expected.add(order.isAscending() ? order.getProperty() : "-" + order.getProperty());
+		}
+
+		if ( !(values instanceof List<?> list) || list.size() != expected.size() || !list.stream().allMatch(KeysetPagination::isSupported) ) {
+			throw new ArgumentNotValidException(String.format("after '%s' is not a valid token.", token));
+		}
+
+		if ( !expected.equals(keys) ) {
+			throw new ArgumentNotValidException(String.format("after '%s' was not created for sort '%s'.", token, String.join(",", expected)));
+		}
+
+		return new ArrayList<>(list);
+	}
+
+	/**
+	 *
+	 * Builds the conditions that select the documents after a position, that is {@code k1 > v1 OR (k1 = v1 AND k2 > v2)}
+	 * and so on, where {@code >} becomes {@code <} for descending keys.
+	 *
+	 * @param sort the sort of the query, including {@code _id}.
+	 * @param values the values of the sort keys in the last document of the previous page.
+	 * @return the criteria of the next page.
+	 */
+	public static Criteria criteria(Sort sort, List<Object> values) {
+
+		List<Sort.Order> orders = sort.toList();
+		List<Criteria> branches = new ArrayList<>();
+
+		for ( int i = 0; i < orders.size(); i++ ) {
+
+			Criteria after = after(orders.get(i), values.get(i));
+
+			if ( after == null ) {
+				continue;
+			}
+
+			List<Criteria> conditions = new ArrayList<>();
+			for ( int j = 0; j < i; j++ ) {
+				conditions.add(Criteria.where(orders.get(j).getProperty()).is(values.get(j)));
+			}
+			conditions.add(after);
+
+			branches.add(conditions.size() == 1 ? after : new Criteria().andOperator(conditions));
+		}
+
+		if ( branches.isEmpty() ) {
+			return Criteria.where(ID).exists(false);
+		}
+
+		return branches.size() == 1 ? branches.get(0) : new Criteria().orOperator(branches);
+	}
+
+	/**
+	 *
+	 * Selects the values that sort after {@code value}. Missing and {@code null} values come first in ascending order
+	 * and last in descending order. {@code _id} is never missing.
+	 *
+	 */
+	private static Criteria after(Sort.Order order, Object value) {
+
+		String key = order.getProperty();
+
+		if ( value == null ) {
+			return order.isAscending() ? Criteria.where(key).ne(null) : null;
+		}
+
+		if ( order.isAscending() ) {
+			return Criteria.where(key).gt(value);
+		}
+		
+		if ( ID.equals(key) ) {
+			return Criteria.where(key).lt(value);
+		}
+
+		return new Criteria().orOperator(Criteria.where(key).lt(value), Criteria.where(key).is(null));
+	}
+
+	private static Object getValue(Document document, String path) {
+
+		Object value = document;
+
+		for ( String key : path.split("\\.") ) {
+			if ( !(value instanceof Document current) ) {
+				return null;
+			}
+			value = current.get(key);
+		}
+
+		return value;
+	}
+
+	private static boolean isSupported(Object value) {
+		return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+				|| value instanceof Double || value instanceof Decimal128 || value instanceof Boolean
+				|| value instanceof Date || value instanceof ObjectId || value instanceof UUID;
+	}
+
+}
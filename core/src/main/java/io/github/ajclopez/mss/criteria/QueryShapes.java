@@ -0,0 +1,241 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.ParsedQuery;
+import io.github.ajclopez.mss.model.QueryShape;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * Builds the canonical form and the shape fingerprint of parsed queries.
+ * 
+ * <p>Conditions joined by the same logical operator, the values of {@code $in} lists and the projected fields are
+ * sorted, so their order in the query string does not change the result. The order of the sort keys is kept because
+ * it changes the result of the query.</p>
+ *
+ */
+public class QueryShapes {
+
+	private static final long C1 = 0x87c37b91114253d5L;
+	private static final long C2 = 0x4cf5ad432745937fL;
+	
+	private QueryShapes() {
+		
+	}
+	
+	/**
+	 * 
+	 * Builds the canonical form and the shape fingerprint of a parsed query.
+	 * 
+	 * @param query the parsed query.
+	 * @return a {@link QueryShape} instance.
+	 */
+	public static QueryShape of(ParsedQuery query) {
+		
+		FilterNode filter = query.toFilterNode();
+		filter = filter != null ? FilterNormalizer.normalize(filter) : null;
+		
+		String canonical = render(query, filter, true);
+		String shape = render(query, filter, false);
+		
+		long[] hash = murmur3(shape.getBytes(StandardCharsets.UTF_8));
+		
+		return new QueryShape(canonical, shape, hash[0], hash[1]);
+	}
+	
+	private static String render(ParsedQuery query, FilterNode filter, boolean values) {
+		
+		StringBuilder builder = new StringBuilder();
+		builder.append("filter=").append(filter != null ? render(filter, values) : "");
+		
+		builder.append("&sort=");
+		String separator = "";
+		for ( Sort.Order order : query.sort() ) {
+			builder.append(separator).append(order.getProperty()).append(order.isAscending() ? ":1" : ":-1");
+			separator = ",";
+		}
+		
+		builder.append("&fields=").append(String.join(",", new TreeSet<>(query.fields())));
+		builder.append("&skip=").append(renderNumber(query.skip(), values));
+		builder.append("&limit=").append(renderNumber(query.limit(), values));
+		
+		if ( query.after() != null ) {
+			builder.append("&after=");
+			separator = "";
+			for ( Object value : query.after() ) {
+				builder.append(separator).append(values ? renderValue(value) : "?");
+				separator = ",";
+			}
+		}
+		
+		return builder.toString();
+	}
+	
+	private static String renderNumber(Number number, boolean values) {
+		
+		if ( number == null ) {
+			return "";
+		}
+		
+		return values ? number.toString() : "?";
+	}
+	
+	private static String render(FilterNode node, boolean values) {
+		
+		if ( node instanceof FilterNode.Condition condition ) {
+			return render(condition.criteria(), values);
+		}
+		
+		FilterNode.Logical logical = (FilterNode.Logical) node;
+		
+		List<String> children = new ArrayList<>();
+		for ( FilterNode child : logical.children() ) {
+			children.add(render(child, values));
+		}
+		children.sort(null);
+		
+		return "$" + logical.operation().name().toLowerCase() + "(" + String.join(",", children) + ")";
+	}
+	
+	private static String render(SearchCriteria criteria, boolean values) {
+		
+		if ( criteria.getOperation() == SearchOperation.EXISTS ) {
+			return criteria.getKey() + " $exists " + !criteria.getPrefix();
+		}
+		
+		Object value = CriteriaImpl.getValue(criteria);
+		
+		return criteria.getKey() + " " + getOperator(criteria.getOperation(), value) + " " + (values ? renderValue(value) : "?");
+	}
+	
+	private static String getOperator(SearchOperation operation, Object value) {
+		
+		return switch (operation) {
+			case NOT_EQUAL -> value instanceof Pattern ? "$not" : value instanceof List ? "$nin" : "$ne";
+			case GREATER_THAN -> "$gt";
+			case GREATER_THAN_EQUAL -> "$gte";
+			case LESS_THAN -> "$lt";
+			case LESS_THAN_EQUAL -> "$lte";
+			default -> value instanceof Pattern ? "$regex" : value instanceof List ? "$in" : "$eq";
+		};
+	}
+	
+	private static String renderValue(Object value) {
+		
+		if ( value == null || value instanceof Boolean || value instanceof Long || value instanceof Integer ) {
+			return String.valueOf(value);
+		}
+		
+		if ( value instanceof String string ) {
+			return "\"" + string.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+		}
+		
+		if ( value instanceof Pattern pattern ) {
+			return "/" + pattern.pattern() + "/" + pattern.flags();
+		}
+		
+		if ( value instanceof List<?> list ) {
+			TreeSet<String> items = new TreeSet<>();
+			for ( Object item : list ) {
+				items.add(renderValue(item));
+			}
+			return "[" + String.join(",", items) + "]";
+		}
+		
+		return value.getClass().getSimpleName() + "(" + value + ")";
+	}
+	
+	/**
+	 * 
+	 * MurmurHash3 x64 128-bit variant with seed {@code 0}.
+	 * 
+	 */
+	static long[] murmur3(byte[] data) {
+		
+		long h1 = 0;
+		long h2 = 0;
+		int blocks = data.length / 16;
+		
+		for ( int i = 0; i < blocks; i++ ) {
+			long k1 = getLong(data, i * 16);
+			long k2 = getLong(data, i * 16 + 8);
+			
+			h1 ^= mixK1(k1);
+			h1 = Long.rotateLeft(h1, 27) + h2;
+			h1 = h1 * 5 + 0x52dce729;
+			
+			h2 ^= mixK2(k2);
+			h2 = Long.rotateLeft(h2, 31) + h1;
+			h2 = h2 * 5 + 0x38495ab5;
+		}
+		
+		long k1 = 0;
+		long k2 = 0;
+		int tail = blocks * 16;
+		
+		for ( int i = data.length - tail - 1; i >= 8; i-- ) {
+			k2 = (k2 << 8) | (data[tail + i] & 0xffL);
+		}
+		
+		for ( int i = Math.min(data.length - tail, 8) - 1; i >= 0; i-- ) {
+			k1 = (k1 << 8) | (data[tail + i] & 0xffL);
+		}
+		
+		h1 ^= mixK1(k1);
+		h2 ^= mixK2(k2);
+		
+		h1 ^= data.length;
+		h2 ^= data.length;
+		
+		h1 += h2;
+		h2 += h1;
+		
+		h1 = fmix(h1);
+		h2 = fmix(h2);
+		
+		h1 += h2;
+		h2 += h1;
+		
+		return new long[] { h1, h2 };
+	}
+	
+	private static long getLong(byte[] data, int offset) {
+		
+		long value = 0;
+		for ( int i = 7; i >= 0; i-- ) {
+			value = (value << 8) | (data[offset + i] & 0xffL);
+		}
+		
+		return value;
+	}
+	
+	private static long mixK1(long k1) {
+		k1 *= C1;
+		k1 = Long.rotateLeft(k1, 31);
+		return k1 * C2;
+	}
+	
+	private static long mixK2(long k2) {
+		k2 *= C2;
+		k2 = Long.rotateLeft(k2, 33);
+		return k2 * C1;
+	}
+	
+	private static long fmix(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+	
+}
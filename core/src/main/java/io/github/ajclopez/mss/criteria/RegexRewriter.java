@@ -0,0 +1,160 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.RegexRewrite;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * Turns regular expressions anchored to a case-sensitive literal prefix into index range predicates.
+ * 
+ * <p>A value such as {@code /^abc/} only matches strings in {@code ["abc", "abd")}, a range that any index on the field
+ * can answer with tight bounds. Case-insensitive, multiline or unanchored patterns have no such range.</p>
+ *
+ */
+public class RegexRewriter {
+
+	private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+	private static final int UNSUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.COMMENTS | Pattern.LITERAL;
+	
+	private RegexRewriter() {
+		
+	}
+	
+	/**
+	 * 
+	 * Adds a regular expression condition, rewritten according to {@code rewrite}.
+	 * 
+	 * @param criteria the criteria of the field.
+	 * @param pattern the regular expression.
+	 * @param rewrite the rewrite to apply, {@code null} for {@link RegexRewrite#NONE}.
+	 * @param strict {@code true} to reject patterns that cannot be answered with an index range.
+	 * @return the criteria of the field.
+	 */
+	public static Criteria regex(Criteria criteria, Pattern pattern, RegexRewrite rewrite, boolean strict) {
+		
+		String prefix = getLiteralPrefix(pattern);
+		String successor = prefix != null ? getSuccessor(prefix) : null;
+		
+		if ( successor == null ) {
+			if ( strict ) {
+				throw notIndexable(criteria.getKey(), pattern);
+			}
+			
+			return criteria.regex(pattern);
+		}
+		
+		if ( rewrite == null || rewrite == RegexRewrite.NONE ) {
+			return criteria.regex(pattern);
+		}
+		
+		criteria.gte(prefix).lt(successor);
+		
+		if ( rewrite == RegexRewrite.RANGE && isPrefixOnly(pattern) ) {
+			return criteria;
+		}
+		
+		return criteria.in(pattern);
+	}
+	
+	/**
+	 * 
+	 * Returns the error thrown for regular expressions that cannot be answered with an index range.
+	 * 
+	 * @param key the name of the field.
+	 * @param pattern the regular expression.
+	 * @return the exception.
+	 */
+	public static ArgumentNotValidException notIndexable(String key, Pattern pattern) {
+		return new ArgumentNotValidException(String.format("regular expression '%s' on '%s' is not anchored to a case-sensitive prefix and cannot use an index.", pattern, key));
+	}
+	
+	/**
+	 * 
+	 * Returns the literal prefix that every match of the pattern starts with.
+	 * 
+	 * @param pattern the regular expression.
+	 * @return the prefix, {@code null} when the pattern is not anchored to a case-sensitive literal prefix.
+	 */
+	public static String getLiteralPrefix(Pattern pattern) {
+		
+		StringBuilder prefix = new StringBuilder();
+		scanPrefix(pattern, prefix);
+		
+		return prefix.length() > 0 ? prefix.toString() : null;
+	}
+	
+	/**
+	 * 
+	 * Returns the smallest string greater than every string that starts with {@code prefix}.
+	 * 
+	 * @param prefix the literal prefix.
+	 * @return the exclusive upper bound, {@code null} when the prefix has characters whose UTF-16 and UTF-8 order differ.
+	 */
+	public static String getSuccessor(String prefix) {
+		
+		for ( int i = 0; i < prefix.length(); i++ ) {
+			if ( prefix.charAt(i) >= Character.MIN_SURROGATE ) {
+				return null;
+			}
+		}
+		
+		int last = prefix.length() - 1;
+		
+		// the successor of U+D7FF would be a lone surrogate, which has no UTF-8 encoding
+		if ( prefix.charAt(last) >= Character.MIN_SURROGATE - 1 ) {
+			return null;
+		}
+		
+		return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+	}
+	
+	static boolean isPrefixOnly(Pattern pattern) {
+		
+		String source = pattern.pattern();
+		int end = scanPrefix(pattern, new StringBuilder());
+		
+		return end == source.length() || (end == source.length() - 2 && source.endsWith(".*"));
+	}
+	
+	/**
+	 * 
+	 * Reads the literal characters that follow the {@code ^} anchor.
+	 * 
+	 * @return the position where the literal prefix ends, {@code -1} when it ends before a quantifier or the pattern has no prefix.
+	 */
+	private static int scanPrefix(Pattern pattern, StringBuilder prefix) {
+		
+		String source = pattern.pattern();
+		
+		if ( (pattern.flags() & UNSUPPORTED_FLAGS) != 0 || !source.startsWith("^") || source.indexOf('|') >= 0 ) {
+			return -1;
+		}
+		
+		int i = 1;
+		
+		while ( i < source.length() ) {
+			
+			char c = source.charAt(i);
+			int next = i + 1;
+			
+			if ( c == '\\' && next < source.length() && !Character.isLetterOrDigit(source.charAt(next)) ) {
+				c = source.charAt(next++);
+			} else if ( META_CHARACTERS.indexOf(c) >= 0 ) {
+				break;
+			}
+			
+			if ( next < source.length() && "?*{".indexOf(source.charAt(next)) >= 0 ) {
+				return -1;
+			}
+			
+			prefix.append(c);
+			i = next;
+		}
+		
+		return i;
+	}
+	
+}
@@ -0,0 +1,37 @@
+package io.github.ajclopez.mss.exception;
+
+import io.github.ajclopez.mss.model.CostMetric;
+
+/**
+ * 
+ * Exception to be thrown when a query exceeds a limit of its cost policy.
+ *
+ */
+public class QueryCostExceededException extends ArgumentNotValidException {
+
+	private static final long serialVersionUID = 3907511584217339470L;
+	
+	private final CostMetric metric;
+	private final long limit;
+	private final long actual;
+
+	public QueryCostExceededException(CostMetric metric, long limit, long actual) {
+		super(String.format("query exceeds the maximum %s: %s > %s.", metric.getDescription(), actual, limit));
+		this.metric = metric;
+		this.limit = limit;
+		this.actual = actual;
+	}
+
+	public CostMetric getMetric() {
+		return metric;
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	public long getActual() {
+		return actual;
+	}
+	
+}
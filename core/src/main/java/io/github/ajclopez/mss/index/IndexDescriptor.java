@@ -0,0 +1,64 @@
+package io.github.ajclopez.mss.index;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Keys of an index that can bound filters and return documents in order.</p>
+ *
+ * <ul>
+ * <li><b>name:</b> name of the index, used as {@code hint}.
+ * <li><b>keys:</b> ordered keys of the index and their direction.
+ * </ul>
+ */
+public record IndexDescriptor(String name, List<Sort.Order> keys) {
+
+	public IndexDescriptor {
+		keys = List.copyOf(keys);
+	}
+	
+	/**
+	 * 
+	 * Declares an index.
+	 * 
+	 * @param name name of the index.
+	 * @param keys ordered keys of the index, for example {@code Sort.by("status").and(Sort.by(Sort.Direction.DESC, "createdAt"))}.
+	 * @return a new {@link IndexDescriptor} instance.
+	 */
+	public static IndexDescriptor of(String name, Sort keys) {
+		return new IndexDescriptor(name, keys.toList());
+	}
+	
+	/**
+	 * 
+	 * Reads an index discovered with {@code IndexOperations#getIndexInfo()}. Partial, sparse, hidden, hashed and wildcard
+	 * indexes are skipped because they cannot answer every query on their keys, and the keys end at the first geo or text field.
+	 * 
+	 * @param info the index.
+	 * @return a new {@link IndexDescriptor} instance, {@code null} when the index cannot be used.
+	 */
+	public static IndexDescriptor of(IndexInfo info) {
+		
+		if ( info.getPartialFilterExpression() != null || info.isSparse() || info.isHidden() || info.isHashed() || info.isWildcard() ) {
+			return null;
+		}
+		
+		List<Sort.Order> keys = new ArrayList<>();
+		
+		for ( IndexField field : info.getIndexFields() ) {
+			
+			if ( field.isGeo() || field.isText() || field.getDirection() == null ) {
+				break;
+			}
+			
+			keys.add(new Sort.Order(field.getDirection(), field.getKey()));
+		}
+		
+		return keys.isEmpty() ? null : new IndexDescriptor(info.getName(), keys);
+	}
+	
+}
@@ -0,0 +1,19 @@
+package io.github.ajclopez.mss.index;
+
+/**
+ * 
+ * Action taken by {@link IndexValidator} for each compiled query.
+ *
+ * <ul>
+ * <li><b>WARN:</b> logs a warning for queries that sort in memory or scan the collection.
+ * <li><b>REJECT:</b> rejects queries that sort in memory or scan the collection with {@code ArgumentNotValidException}.
+ * <li><b>HINT:</b> adds a {@code hint} with the best index to the query.
+ * </ul>
+ */
+public enum IndexMode {
+
+	WARN,
+	REJECT,
+	HINT
+	
+}
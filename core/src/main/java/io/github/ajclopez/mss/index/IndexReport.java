@@ -0,0 +1,13 @@
+package io.github.ajclopez.mss.index;
+
+/**
+ * <p>Result of checking a query against the indexes of a collection.</p>
+ *
+ * <ul>
+ * <li><b>verdict:</b> how the query can be answered.
+ * <li><b>index:</b> name of the best index, {@code null} when no single index is used.
+ * </ul>
+ */
+public record IndexReport(IndexVerdict verdict, String index) {
+
+}
@@ -0,0 +1,301 @@
+package io.github.ajclopez.mss.index;
+
+import io.github.ajclopez.mss.criteria.CriteriaImpl;
+import io.github.ajclopez.mss.criteria.FilterNormalizer;
+import io.github.ajclopez.mss.criteria.QueryShapes;
+import io.github.ajclopez.mss.criteria.RegexRewriter;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.ParsedQuery;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * Checks queries against the indexes of a collection with the equality, sort, range rule.
+ * 
+ * <p>For each index, the keys matched by equality conditions come first, then the sort keys in order and then the
+ * fields of range conditions. The best verdict of all indexes is reported. Conditions inside {@code OR} branches are
+ * checked per branch and the worst branch is reported.</p>
+ * 
+ * <p>Enable it by passing an instance through {@code Configuration#withIndexValidator(IndexValidator)}, queries are
+ * checked once when they are compiled.</p>
+ *
+ */
+public class IndexValidator {
+
+	private static final System.Logger LOGGER = System.getLogger(IndexValidator.class.getName());
+	private static final String ID = "_id";
+	
+	private final Supplier<List<IndexDescriptor>> loader;
+	private final IndexMode mode;
+	private volatile List<IndexDescriptor> indexes;
+	
+	private IndexValidator(Supplier<List<IndexDescriptor>> loader, IndexMode mode) {
+		this.loader = loader;
+		this.mode = Objects.requireNonNull(mode);
+	}
+	
+	/**
+	 * 
+	 * Creates a validator for declared indexes.
+	 * 
+	 * @param indexes the indexes of the collection.
+	 * @param mode action taken for each compiled query.
+	 * @return a new {@link IndexValidator} instance.
+	 */
+	public static IndexValidator of(Collection<IndexDescriptor> indexes, IndexMode mode) {
+		
+		List<IndexDescriptor> copy = List.copyOf(indexes);
+		
+		return new IndexValidator(() -> copy, mode);
+	}
+	
+	/**
+	 * 
+	 * Creates a validator for the indexes of a collection. They are read on first use and kept until {@link #refresh()}.
+	 * 
+	 * @param indexOperations the index operations of the collection.
+	 * @param mode action taken for each compiled query.
+	 * @return a new {@link IndexValidator} instance.
+	 */
+	public static IndexValidator discover(IndexOperations indexOperations, IndexMode mode) {
+		
+		return new IndexValidator(() -> {
+			List<IndexInfo> infos = indexOperations.getIndexInfo();
+			return infos.stream().map(IndexDescriptor::of).filter(Objects::nonNull).toList();
+		}, mode);
+	}
+	
+	/**
+	 * 
+	 * Returns the indexes used to check queries.
+	 * 
+	 * @return the indexes of the collection.
+	 */
+	public List<IndexDescriptor> getIndexes() {
+		
+		List<IndexDescriptor> current = indexes;
+		
+		if ( current == null ) {
+			current = loader.get();
+			indexes = current;
+		}
+		
+		return current;
+	}
+	
+	/**
+	 * 
+	 * Forgets the discovered indexes, they are read again on next use.
+	 * 
+	 */
+	public void refresh() {
+		indexes = null;
+	}
+	
+	public IndexMode getMode() {
+		return mode;
+	}
+	
+	/**
+	 * 
+	 * Checks a query against the indexes.
+	 * 
+	 * @param query the parsed query.
+	 * @return an {@link IndexReport} instance.
+	 */
+	public IndexReport check(ParsedQuery query) {
+		
+		FilterNode filter = query.toFilterNode();
+		filter = filter != null ? FilterNormalizer.normalize(filter) : null;
+		
+		if ( filter instanceof FilterNode.Logical logical && logical.operation() == LogicalOperation.OR ) {
+			
+			IndexVerdict verdict = IndexVerdict.INDEX_PREFIX;
+			Set<String> names = new HashSet<>();
+			
+			for ( FilterNode branch : logical.children() ) {
+				
+				IndexReport report = check(branch, query.sort(), List.of());
+				
+				if ( report.verdict().compareTo(verdict) > 0 ) {
+					verdict = report.verdict();
+				}
+				names.add(report.index());
+			}
+			
+			return new IndexReport(verdict, names.size() == 1 ? names.iterator().next() : null);
+		}
+		
+		return check(filter, query.sort(), query.fields());
+	}
+	
+	/**
+	 * 
+	 * Checks a query and applies the mode of this validator.
+	 * 
+	 * @param query the parsed query.
+	 * @return the name of the index to use as {@code hint}, {@code null} for no hint.
+	 * @throws ArgumentNotValidException Exception to be thrown when the query is rejected.
+	 */
+	public String apply(ParsedQuery query) throws ArgumentNotValidException {
+		
+		IndexReport report = check(query);
+		boolean slow = report.verdict().compareTo(IndexVerdict.INDEX_PREFIX) > 0 && (query.toFilterNode() != null || query.sort().isSorted());
+		
+		switch (mode) {
+		case HINT:
+			return report.verdict() != IndexVerdict.COLLECTION_SCAN ? report.index() : null;
+		case REJECT:
+			if ( slow ) {
+				throw new ArgumentNotValidException(String.format("query '%s' is not supported by an index: %s.", QueryShapes.of(query).shape(), report.verdict()));
+			}
+			return null;
+		case WARN:
+		default:
+			if ( slow ) {
+				LOGGER.log(System.Logger.Level.WARNING, "query ''{0}'' is not supported by an index: {1}.", QueryShapes.of(query).shape(), report.verdict());
+			}
+			return null;
+		}
+	}
+	
+	private IndexReport check(FilterNode filter, Sort sort, List<String> fields) {
+		
+		Set<String> equalities = new HashSet<>();
+		Set<String> ranges = new HashSet<>();
+		Set<String> filtered = new HashSet<>();
+		boolean simple = true;
+		
+		List<FilterNode> conditions = filter == null ? List.of()
+				: filter instanceof FilterNode.Logical logical && logical.operation() == LogicalOperation.AND ? logical.children() : List.of(filter);
+		
+		for ( FilterNode node : conditions ) {
+			
+			if ( !(node instanceof FilterNode.Condition condition) ) {
+				simple = false;
+				continue;
+			}
+			
+			SearchCriteria criteria = condition.criteria();
+			filtered.add(criteria.getKey());
+			
+			switch (getKind(criteria)) {
+			case EQUALITY -> equalities.add(criteria.getKey());
+			case RANGE -> ranges.add(criteria.getKey());
+			default -> simple = false;
+			}
+		}
+		
+		IndexReport best = new IndexReport(IndexVerdict.COLLECTION_SCAN, null);
+		
+		for ( IndexDescriptor index : getIndexes() ) {
+			
+			IndexVerdict verdict = check(index, equalities, ranges, sort);
+			
+			if ( verdict == IndexVerdict.INDEX_PREFIX && simple && !fields.isEmpty() && isCovered(index, filtered, fields) ) {
+				verdict = IndexVerdict.COVERED;
+			}
+			
+			if ( verdict.compareTo(best.verdict()) < 0 ) {
+				best = new IndexReport(verdict, index.name());
+			}
+		}
+		
+		return best;
+	}
+	
+	private static IndexVerdict check(IndexDescriptor index, Set<String> equalities, Set<String> ranges, Sort sort) {
+		
+		List<Sort.Order> keys = index.keys();
+		List<Sort.Order> orders = sort.toList();
+		
+		String first = keys.get(0).getProperty();
+		boolean bounded = equalities.contains(first) || ranges.contains(first);
+		
+		int i = 0;
+		while ( i < keys.size() && equalities.contains(keys.get(i).getProperty()) ) {
+			i++;
+		}
+		
+		int j = 0;
+		int direction = 0;
+		
+		while ( j < orders.size() ) {
+			
+			Sort.Order order = orders.get(j);
+			
+			if ( equalities.contains(order.getProperty()) ) {
+				j++;
+				continue;
+			}
+			
+			if ( i >= keys.size() || !keys.get(i).getProperty().equals(order.getProperty()) ) {
+				break;
+			}
+			
+			int sign = keys.get(i).getDirection() == order.getDirection() ? 1 : -1;
+			if ( direction != 0 && sign != direction ) {
+				break;
+			}
+			
+			direction = sign;
+			i++;
+			j++;
+		}
+		
+		boolean sorted = j == orders.size();
+		
+		if ( bounded ) {
+			return sorted ? IndexVerdict.INDEX_PREFIX : IndexVerdict.IN_MEMORY_SORT;
+		}
+		
+		return sorted && !orders.isEmpty() && equalities.isEmpty() && ranges.isEmpty() ? IndexVerdict.INDEX_PREFIX : IndexVerdict.COLLECTION_SCAN;
+	}
+	
+	private static boolean isCovered(IndexDescriptor index, Set<String> filtered, List<String> fields) {
+		
+		Set<String> keys = new HashSet<>();
+		index.keys().forEach(key -> keys.add(key.getProperty()));
+		
+		return keys.contains(ID) && keys.containsAll(filtered) && keys.containsAll(fields);
+	}
+	
+	private static Kind getKind(SearchCriteria criteria) {
+		
+		switch (criteria.getOperation()) {
+		case GREATER_THAN:
+		case GREATER_THAN_EQUAL:
+		case LESS_THAN:
+		case LESS_THAN_EQUAL:
+			return Kind.RANGE;
+		case EQUAL:
+			Object value = CriteriaImpl.getValue(criteria);
+			if ( value instanceof Pattern pattern ) {
+				return RegexRewriter.getLiteralPrefix(pattern) != null ? Kind.RANGE : Kind.OTHER;
+			}
+			return value instanceof List ? Kind.RANGE : Kind.EQUALITY;
+		default:
+			return Kind.OTHER;
+		}
+	}
+	
+	private enum Kind {
+		EQUALITY,
+		RANGE,
+		OTHER
+	}
+	
+}
@@ -0,0 +1,21 @@
+package io.github.ajclopez.mss.index;
+
+/**
+ * 
+ * How a query can be answered with the indexes of a collection, from best to worst.
+ *
+ * <ul>
+ * <li><b>COVERED:</b> the filter, the sort and the projection are answered by the index alone.
+ * <li><b>INDEX_PREFIX:</b> the filter uses a prefix of the index, which also returns documents in sort order.
+ * <li><b>IN_MEMORY_SORT:</b> the filter uses an index but the documents are sorted in memory.
+ * <li><b>COLLECTION_SCAN:</b> no index bounds the filter or the sort, every document is read.
+ * </ul>
+ */
+public enum IndexVerdict {
+
+	COVERED,
+	INDEX_PREFIX,
+	IN_MEMORY_SORT,
+	COLLECTION_SCAN
+	
+}
@@ -0,0 +1,124 @@
+package io.github.ajclopez.mss.metrics;
+
+import io.github.ajclopez.mss.cache.LruCache;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.SearchOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Publishes the measurements of the translation of queries to a Micrometer {@link MeterRegistry}.
+ * 
+ * <ul>
+ * <li><b>mss.phase</b> timer tagged with {@code phase}: {@code tokenize}, {@code filter_parse}, {@code cast} and {@code build}.
+ * <li><b>mss.conditions</b> counter tagged with {@code operation}.
+ * <li><b>mss.casts</b> counter tagged with {@code caster}, {@code auto} when the type is inferred or converted by a custom codec.
+ * <li><b>mss.logical</b> counter tagged with {@code operation}: {@code and} and {@code or}.
+ * <li><b>mss.rejections</b> counter tagged with {@code exception}, and <b>mss.rejections.size</b> summary of the length of the rejected queries.
+ * <li><b>mss.cache.*</b> meters of the caches bound with {@link #bindCache(String, LruCache)}.
+ * </ul>
+ * 
+ * <p>Micrometer is an optional dependency, this class must only be used when it is on the classpath.</p>
+ *
+ */
+public class MicrometerSearchMetrics implements SearchMetrics {
+
+	private static final String AUTO = "auto";
+	
+	private final MeterRegistry registry;
+	
+	private final Map<SearchPhase, Timer> phases = new EnumMap<>(SearchPhase.class);
+	private final Map<SearchOperation, Counter> conditions = new EnumMap<>(SearchOperation.class);
+	private final Map<CastType, Counter> casts = new EnumMap<>(CastType.class);
+	private final Map<LogicalOperation, Counter> logicals = new EnumMap<>(LogicalOperation.class);
+	private final Counter inferred;
+	private final DistributionSummary rejectionSize;
+	
+	/**
+	 * 
+	 * Creates the meters of the translation of queries in the given registry.
+	 * 
+	 * @param registry the registry of the meters.
+	 */
+	public MicrometerSearchMetrics(MeterRegistry registry) {
+		
+		this.registry = registry;
+		
+		for ( SearchPhase phase : SearchPhase.values() ) {
+			phases.put(phase, Timer.builder("mss.phase").tag("phase", tag(phase)).register(registry));
+		}
+		
+		for ( SearchOperation operation : SearchOperation.values() ) {
+			conditions.put(operation, Counter.builder("mss.conditions").tag("operation", tag(operation)).register(registry));
+		}
+		
+		for ( CastType caster : CastType.values() ) {
+			casts.put(caster, Counter.builder("mss.casts").tag("caster", tag(caster)).register(registry));
+		}
+		inferred = Counter.builder("mss.casts").tag("caster", AUTO).register(registry);
+		
+		for ( LogicalOperation operation : LogicalOperation.values() ) {
+			logicals.put(operation, Counter.builder("mss.logical").tag("operation", tag(operation)).register(registry));
+		}
+		
+		rejectionSize = DistributionSummary.builder("mss.rejections.size").baseUnit("characters").register(registry);
+	}
+	
+	@Override
+	public void record(SearchPhase phase, long nanos) {
+		phases.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	@Override
+	public void condition(SearchOperation operation, CastType caster) {
+		conditions.get(operation).increment();
+		(caster != null ? casts.get(caster) : inferred).increment();
+	}
+	
+	@Override
+	public void logical(LogicalOperation operation) {
+		logicals.get(operation).increment();
+	}
+	
+	@Override
+	public void rejected(String query, ArgumentNotValidException exception) {
+		Counter.builder("mss.rejections").tag("exception", exception.getClass().getSimpleName()).register(registry).increment();
+		rejectionSize.record(query != null ? query.length() : 0);
+	}
+	
+	/**
+	 * 
+	 * Publishes the hits, misses, evictions, size and hit rate of a cache, for example the {@code QueryCache} of a
+	 * configuration or {@code PatternCache.getDefault()}.
+	 * 
+	 * @param name the value of the {@code cache} tag.
+	 * @param cache the cache.
+	 * @return this instance.
+	 */
+	public MicrometerSearchMetrics bindCache(String name, LruCache<?, ?> cache) {
+		
+		FunctionCounter.builder("mss.cache.requests", cache, c -> c.stats().hits()).tags("cache", name, "result", "hit").register(registry);
+		FunctionCounter.builder("mss.cache.requests", cache, c -> c.stats().misses()).tags("cache", name, "result", "miss").register(registry);
+		FunctionCounter.builder("mss.cache.evictions", cache, c -> c.stats().evictions()).tag("cache", name).register(registry);
+		Gauge.builder("mss.cache.size", cache, LruCache::size).tag("cache", name).register(registry);
+		Gauge.builder("mss.cache.hit.rate", cache, c -> c.stats().hitRate()).tag("cache", name).register(registry);
+		
+		return this;
+	}
+	
+	private static String tag(Enum<?> value) {
+		return value.name().toLowerCase();
+	}
+	
+}
@@ -0,0 +1,54 @@
+package io.github.ajclopez.mss.metrics;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.SearchOperation;
+
+/**
+ * 
+ * Receives the measurements of the translation of queries. Set it with {@code Configuration.withMetrics}, without it
+ * nothing is measured.
+ * 
+ * <p>Implementations are called from every thread that translates queries and must be thread-safe.</p>
+ *
+ * @see MicrometerSearchMetrics
+ */
+public interface SearchMetrics {
+
+	/**
+	 * 
+	 * Records the duration of a phase of a query.
+	 * 
+	 * @param phase the phase.
+	 * @param nanos the duration in nanoseconds.
+	 */
+	void record(SearchPhase phase, long nanos);
+	
+	/**
+	 * 
+	 * Counts a condition of a query.
+	 * 
+	 * @param operation the operation of the condition.
+	 * @param caster the caster of its field, {@code null} when the type is inferred or converted by a custom codec.
+	 */
+	void condition(SearchOperation operation, CastType caster);
+	
+	/**
+	 * 
+	 * Counts a logical operation of the {@code filter} key.
+	 * 
+	 * @param operation the logical operation.
+	 */
+	void logical(LogicalOperation operation);
+	
+	/**
+	 * 
+	 * Counts a query rejected with {@link ArgumentNotValidException}.
+	 * 
+	 * @param query the rejected query string.
+	 * @param exception the exception thrown.
+	 */
+	void rejected(String query, ArgumentNotValidException exception);
+	
+}
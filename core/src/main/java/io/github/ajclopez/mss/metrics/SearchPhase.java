@@ -0,0 +1,21 @@
+package io.github.ajclopez.mss.metrics;
+
+/**
+ * 
+ * Phases of the translation of a query timed by {@link SearchMetrics}.
+ *
+ * <ul>
+ * <li><b>TOKENIZE:</b> split of the query string into its conditions and reserved keys with {@code QueryParser.parse}.
+ * <li><b>FILTER_PARSE:</b> parse of the {@code filter} key of advanced queries.
+ * <li><b>CAST:</b> conversion of each value with its codec or caster, part of {@code BUILD}.
+ * <li><b>BUILD:</b> creation of the MongoDB criteria from the parsed query.
+ * </ul>
+ */
+public enum SearchPhase {
+
+	TOKENIZE,
+	FILTER_PARSE,
+	CAST,
+	BUILD
+	
+}
@@ -0,0 +1,42 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Result of one query of a batch, in the same position as the query.</p>
+ *
+ * <ul>
+ * <li><b>index:</b> position of the query in the batch.
+ * <li><b>query:</b> the query string.
+ * <li><b>value:</b> the compiled query, {@code null} when it failed.
+ * <li><b>error:</b> the exception thrown while compiling the query, {@code null} when it succeeded.
+ * </ul>
+ *
+ * @param <T> the type of the compiled queries.
+ */
+public record BatchResult<T>(int index, String query, T value, RuntimeException error) {
+
+	/**
+	 * 
+	 * Returns whether the query was compiled.
+	 * 
+	 * @return {@code true} when there is no error.
+	 */
+	public boolean isSuccess() {
+		return error == null;
+	}
+	
+	/**
+	 * 
+	 * Returns the compiled query or throws the error of the query.
+	 * 
+	 * @return the compiled query.
+	 */
+	public T orElseThrow() {
+		
+		if ( error != null ) {
+			throw error;
+		}
+		
+		return value;
+	}
+	
+}
@@ -0,0 +1,25 @@
+package io.github.ajclopez.mss.model;
+
+import org.bson.BsonDocument;
+
+/**
+ * <p>Query written directly as BSON, for callers that use the MongoDB driver without {@code MongoTemplate}.</p>
+ *
+ * <ul>
+ * <li><b>filter:</b> filter document, empty when the query has no filters.
+ * <li><b>sort:</b> sort document, empty when the query has no {@code sort} key.
+ * <li><b>projection:</b> projection document, empty when the query has no {@code fields} key.
+ * <li><b>skip:</b> value for {@code skip} key or {@code null}.
+ * <li><b>limit:</b> value for {@code limit} key or {@code null}.
+ * <li><b>hint:</b> name of the index used as {@code hint} or {@code null}.
+ * </ul>
+ */
+public record BsonQuery(BsonDocument filter, BsonDocument sort, BsonDocument projection, Long skip, Integer limit, String hint) {
+
+	public BsonQuery {
+		filter = filter != null ? filter : new BsonDocument();
+		sort = sort != null ? sort : new BsonDocument();
+		projection = projection != null ? projection : new BsonDocument();
+	}
+	
+}
@@ -0,0 +1,66 @@
+package io.github.ajclopez.mss.model;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+/**
+ * <p>Immutable result of compiling a search query, used to create as many MongoDB queries as needed.</p>
+ *
+ * <ul>
+ * <li><b>criteria:</b> filter criteria or {@code null} when the query has no filters.
+ * <li><b>sort:</b> sort specification, {@link Sort#unsorted()} when the query has no {@code sort} key.
+ * <li><b>fields:</b> fields included in the projection.
+ * <li><b>skip:</b> value for {@code skip} key or {@code null}.
+ * <li><b>limit:</b> value for {@code limit} key or {@code null}.
+ * <li><b>hint:</b> name of the index used as {@code hint} or {@code null}.
+ * <li><b>alwaysEmpty:</b> {@code true} when the filter was proven to match no document, see {@link EmptyQueryCheck}.
+ * </ul>
+ */
+public record CompiledQuery(CriteriaDefinition criteria, Sort sort, List<String> fields, Long skip, Integer limit, String hint, boolean alwaysEmpty) {
+
+	public CompiledQuery {
+		sort = sort != null ? sort : Sort.unsorted();
+		fields = fields != null ? List.copyOf(fields) : List.of();
+	}
+	
+	public CompiledQuery(CriteriaDefinition criteria, Sort sort, List<String> fields, Long skip, Integer limit) {
+		this(criteria, sort, fields, skip, limit, null, false);
+	}
+	
+	public CompiledQuery(CriteriaDefinition criteria, Sort sort, List<String> fields, Long skip, Integer limit, String hint) {
+		this(criteria, sort, fields, skip, limit, hint, false);
+	}
+	
+	/**
+	 * 
+	 * Creates a new MongoDB query. The criteria are shared between queries and must not be modified.
+	 * 
+	 * @return MongoDB Query
+	 */
+	public Query toQuery() {
+		
+		Query query = criteria != null ? new Query(criteria) : new Query();
+		
+		if ( skip != null ) {
+			query.skip(skip);
+		}
+		
+		if ( limit != null ) {
+			query.limit(limit);
+		}
+		
+		for ( String field : fields ) {
+			query.fields().include(field);
+		}
+		
+		if ( hint != null ) {
+			query.withHint(hint);
+		}
+		
+		return query.with(sort);
+	}
+	
+}
@@ -0,0 +1,196 @@
+package io.github.ajclopez.mss.model;
+
+import io.github.ajclopez.mss.cache.QueryCache;
+import io.github.ajclopez.mss.index.IndexValidator;
+import io.github.ajclopez.mss.metrics.SearchMetrics;
+import io.github.ajclopez.mss.parser.FieldCodecs;
+import io.github.ajclopez.mss.parser.ValueCodec;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Class used for advanced options [optional].</p>
+ *
+ * <ul>
+ * <li><b>casters:</b> object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+ * <li><b>defaultLimit:</b> default value for {@code limit} key.
+ * <li><b>maxLimit:</b> maximum value for {@code limit} key.
+ * <li><b>queryCache:</b> cache of compiled queries, {@code null} to disable caching.
+ * <li><b>filterParserMode:</b> strategy used to parse the {@code filter} key, {@code null} for {@link FilterParserMode#LL}.
+ * <li><b>codecs:</b> table of codecs per field, compiled from {@code casters} and the custom codecs.
+ * <li><b>regexRewrite:</b> rewrite of regular expressions anchored to a literal prefix, {@code null} for {@link RegexRewrite#NONE}.
+ * <li><b>strictPerformance:</b> {@code true} to reject regular expressions that cannot use an index.
+ * <li><b>costPolicy:</b> structural limits enforced while parsing, {@code null} for no limits.
+ * <li><b>indexValidator:</b> checks compiled queries against the indexes of the collection, {@code null} to disable it.
+ * <li><b>paginationMode:</b> strategy used to move between pages, {@code null} for {@link PaginationMode#OFFSET}.
+ * <li><b>metrics:</b> receives the measurements of the translation of queries, {@code null} to measure nothing.
+ * <li><b>optimizerRules:</b> rewrite rules applied to the filters before creating queries, {@code null} for none.
+ * <li><b>emptyQueryCheck:</b> analysis that marks queries no document can match, {@code null} for {@link EmptyQueryCheck#NONE}.
+ * <li><b>filterLimits:</b> limits of the strict parser of the {@code filter} key, {@code null} for the lenient parser.
+ * </ul>
+ */
+public record Configuration(Map<String, CastType> casters, Integer defaultLimit, Integer maxLimit, QueryCache queryCache,
+		FilterParserMode filterParserMode, FieldCodecs codecs, RegexRewrite regexRewrite, boolean strictPerformance,
+		CostPolicy costPolicy, IndexValidator indexValidator, PaginationMode paginationMode,
+		SearchMetrics metrics, Set<OptimizerRule> optimizerRules, EmptyQueryCheck emptyQueryCheck,
+		FilterLimits filterLimits) {
+
+	public Configuration {
+		casters = casters != null ? Map.copyOf(casters) : null;
+		codecs = FieldCodecs.of(casters, codecs != null ? codecs.custom() : null);
+		optimizerRules = optimizerRules != null && !optimizerRules.isEmpty() ? Collections.unmodifiableSet(EnumSet.copyOf(optimizerRules)) : Set.of();
+	}
+	
+	public Configuration(Map<String, CastType> casters, Integer defaultLimit, Integer maxLimit) {
+		this(casters, defaultLimit, maxLimit, null, null, null, null, false, null, null, null, null, null, null, null);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration with the given limits.
+	 *
+	 * @param defaultLimit default value for {@code limit} key.
+	 * @param maxLimit maximum value for {@code limit} key.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withLimits(Integer defaultLimit, Integer maxLimit) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that caches compiled queries.
+	 *
+	 * @param queryCache cache of compiled queries, {@code null} to disable caching.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withQueryCache(QueryCache queryCache) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that parses the {@code filter} key with the given strategy.
+	 *
+	 * @param filterParserMode strategy used to parse the {@code filter} key.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withFilterParserMode(FilterParserMode filterParserMode) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that converts the values of a field with a custom codec.
+	 *
+	 * @param field the name of the field.
+	 * @param codec the codec of the field, it takes precedence over {@code casters}.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withCodec(String field, ValueCodec codec) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs.with(field, codec), regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that rewrites regular expressions anchored to a literal prefix.
+	 *
+	 * @param regexRewrite rewrite of regular expressions anchored to a literal prefix.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withRegexRewrite(RegexRewrite regexRewrite) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that rejects regular expressions that cannot use an index.
+	 *
+	 * @param strictPerformance {@code true} to reject regular expressions that are not anchored to a case-sensitive prefix.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withStrictPerformance(boolean strictPerformance) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that enforces structural limits while parsing.
+	 *
+	 * @param costPolicy structural limits of the queries accepted, {@code null} for no limits.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withCostPolicy(CostPolicy costPolicy) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that checks compiled queries against the indexes of the collection.
+	 *
+	 * @param indexValidator the validator of the collection, {@code null} to disable it.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withIndexValidator(IndexValidator indexValidator) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that moves between pages with the given strategy.
+	 *
+	 * @param paginationMode strategy used to move between pages.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withPaginationMode(PaginationMode paginationMode) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that reports the measurements of the translation of queries.
+	 *
+	 * @param metrics receives the measurements, {@code null} to measure nothing.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withMetrics(SearchMetrics metrics) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that rewrites the filters with the given rules before creating queries.
+	 *
+	 * @param optimizerRules the rules enabled, {@code null} or empty to disable the optimizer.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withOptimizerRules(Set<OptimizerRule> optimizerRules) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that analyzes the filters to mark the queries no document can match.
+	 *
+	 * @param emptyQueryCheck the analysis used, {@code null} or {@link EmptyQueryCheck#NONE} to disable it.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withEmptyQueryCheck(EmptyQueryCheck emptyQueryCheck) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+	/**
+	 *
+	 * Returns a copy of this configuration that parses the {@code filter} key strictly, within the given limits.
+	 *
+	 * @param filterLimits the limits of the filter, {@code null} for the lenient parser.
+	 * @return a new {@link Configuration} instance.
+	 */
+	public Configuration withFilterLimits(FilterLimits filterLimits) {
+		return new Configuration(casters, defaultLimit, maxLimit, queryCache, filterParserMode, codecs, regexRewrite, strictPerformance, costPolicy, indexValidator, paginationMode, metrics, optimizerRules, emptyQueryCheck, filterLimits);
+	}
+
+}
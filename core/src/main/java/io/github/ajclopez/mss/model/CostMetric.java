@@ -0,0 +1,37 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Structural metrics measured by the query cost guard.
+ *
+ * <ul>
+ * <li><b>CLAUSES:</b> number of conditions.
+ * <li><b>OR_BRANCHES:</b> number of branches of the largest {@code $or}.
+ * <li><b>DEPTH:</b> nesting depth of parentheses in the {@code filter} key.
+ * <li><b>IN_VALUES:</b> number of values of the largest comma-separated list.
+ * <li><b>REGEXES:</b> number of regular expressions.
+ * <li><b>SKIP:</b> value of the {@code skip} key.
+ * <li><b>SORT_FIELDS:</b> number of sort keys.
+ * </ul>
+ */
+public enum CostMetric {
+
+	CLAUSES("clauses"),
+	OR_BRANCHES("OR branches"),
+	DEPTH("nesting depth"),
+	IN_VALUES("list values"),
+	REGEXES("regular expressions"),
+	SKIP("skip"),
+	SORT_FIELDS("sort fields");
+	
+	private final String description;
+	
+	CostMetric(String description) {
+		this.description = description;
+	}
+	
+	public String getDescription() {
+		return description;
+	}
+	
+}
@@ -0,0 +1,42 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Structural limits of the queries accepted, {@code null} for no limit.</p>
+ *
+ * <ul>
+ * <li><b>maxClauses:</b> maximum number of conditions.
+ * <li><b>maxOrBranches:</b> maximum number of branches of a single {@code $or}.
+ * <li><b>maxDepth:</b> maximum nesting depth of parentheses in the {@code filter} key.
+ * <li><b>maxInValues:</b> maximum number of values of a comma-separated list.
+ * <li><b>maxRegexes:</b> maximum number of regular expressions.
+ * <li><b>maxSkip:</b> maximum value of the {@code skip} key.
+ * <li><b>maxSortFields:</b> maximum number of sort keys.
+ * <li><b>clamp:</b> {@code true} to clamp {@code skip} and drop extra sort keys instead of rejecting the query.
+ * </ul>
+ */
+public record CostPolicy(Integer maxClauses, Integer maxOrBranches, Integer maxDepth, Integer maxInValues, Integer maxRegexes,
+		Long maxSkip, Integer maxSortFields, boolean clamp) {
+
+	/**
+	 * 
+	 * Returns limits suited to public endpoints: 50 clauses, 20 {@code OR} branches, depth 8, 500 list values,
+	 * 5 regular expressions, skip up to 10000 and 4 sort keys.
+	 * 
+	 * @return a new {@link CostPolicy} instance that rejects queries over budget.
+	 */
+	public static CostPolicy defaults() {
+		return new CostPolicy(50, 20, 8, 500, 5, 10000L, 4, false);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of this policy that clamps {@code skip} and the sort keys instead of rejecting the query.
+	 * 
+	 * @param clamp {@code true} to clamp values over budget.
+	 * @return a new {@link CostPolicy} instance.
+	 */
+	public CostPolicy withClamp(boolean clamp) {
+		return new CostPolicy(maxClauses, maxOrBranches, maxDepth, maxInValues, maxRegexes, maxSkip, maxSortFields, clamp);
+	}
+	
+}
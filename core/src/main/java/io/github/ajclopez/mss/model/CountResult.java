@@ -0,0 +1,24 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Number of documents that match a query and how it was counted.</p>
+ *
+ * <ul>
+ * <li><b>count:</b> number of matches, at most the cap for {@link CountStrategy#CAPPED}.
+ * <li><b>strategy:</b> strategy used to count.
+ * <li><b>capped:</b> {@code true} when more documents than the cap match the query.
+ * </ul>
+ */
+public record CountResult(long count, CountStrategy strategy, boolean capped) {
+
+	/**
+	 * 
+	 * Returns the count as shown to users, for example {@code 1000+} when more than 1000 documents match a cap of 1000.
+	 * 
+	 * @return the count followed by {@code +} when there are more matches.
+	 */
+	public String label() {
+		return capped ? count + "+" : String.valueOf(count);
+	}
+	
+}
@@ -0,0 +1,21 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Strategy used to count the documents that match a query.
+ *
+ * <ul>
+ * <li><b>ESTIMATED:</b> the query has no filter, the count is read from the collection metadata with {@code estimatedDocumentCount}.
+ * <li><b>CAPPED:</b> {@code countDocuments} stops after the cap, the caller only needs to know whether there are more than N matches.
+ * <li><b>EXACT:</b> {@code countDocuments} counts every match.
+ * <li><b>SKIPPED:</b> the filter was proven to match no document, nothing was sent to the server.
+ * </ul>
+ */
+public enum CountStrategy {
+
+	ESTIMATED,
+	CAPPED,
+	EXACT,
+	SKIPPED
+	
+}
@@ -0,0 +1,19 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Analysis used to detect filters that no document can match, so the query does not need to reach the server.
+ *
+ * <ul>
+ * <li><b>NONE:</b> filters are not analyzed.
+ * <li><b>SAFE:</b> contradictions that hold for every document, such as {@code $in} over an empty list or a field that must exist and be missing.
+ * <li><b>SCALAR:</b> {@code SAFE} plus interval and value-set reasoning per field, such as {@code age>50 AND age<10} or {@code status=a AND status=b}. Only valid when the fields compared hold a single value, an array such as {@code [60, 5]} matches both bounds.
+ * </ul>
+ */
+public enum EmptyQueryCheck {
+
+	NONE,
+	SAFE,
+	SCALAR
+	
+}
@@ -0,0 +1,22 @@
+package io.github.ajclopez.mss.model;
+
+import java.util.List;
+
+/**
+ * <p>Page of documents and total count read from a single {@code $facet} aggregation.</p>
+ *
+ * <ul>
+ * <li><b>content:</b> documents of the page.
+ * <li><b>total:</b> number of documents that match the filter, at most {@code totalCap}.
+ * <li><b>capped:</b> {@code true} when more than {@code totalCap} documents match the filter.
+ * </ul>
+ *
+ * @param <T> the type of the documents.
+ */
+public record FacetPage<T>(List<T> content, long total, boolean capped) {
+
+	public FacetPage {
+		content = content != null ? List.copyOf(content) : List.of();
+	}
+	
+}
@@ -0,0 +1,37 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Limits of the strict parser of the {@code filter} key, {@code null} for no limit.</p>
+ *
+ * <p>With limits the first invalid token stops parsing with an {@code ArgumentNotValidException} that gives its
+ * position, nothing is printed and no partial tree is returned.</p>
+ *
+ * <ul>
+ * <li><b>maxLength:</b> maximum number of characters, checked before the filter is read.
+ * <li><b>maxTokens:</b> maximum number of tokens, checked while the filter is split into tokens.
+ * <li><b>maxDepth:</b> maximum nesting depth of parentheses, checked while the filter is split into tokens.
+ * </ul>
+ */
+public record FilterLimits(Integer maxLength, Integer maxTokens, Integer maxDepth) {
+
+	/**
+	 * 
+	 * Returns limits suited to public endpoints: 4096 characters, 1024 tokens and depth 32.
+	 * 
+	 * @return a new {@link FilterLimits} instance.
+	 */
+	public static FilterLimits defaults() {
+		return new FilterLimits(4096, 1024, 32);
+	}
+	
+	/**
+	 * 
+	 * Returns strict parsing without limits.
+	 * 
+	 * @return a new {@link FilterLimits} instance.
+	 */
+	public static FilterLimits none() {
+		return new FilterLimits(null, null, null);
+	}
+	
+}
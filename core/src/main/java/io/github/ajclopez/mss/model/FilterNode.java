@@ -0,0 +1,37 @@
+package io.github.ajclopez.mss.model;
+
+import java.util.List;
+
+/**
+ * 
+ * Tree of logical operations parsed from the {@code filter} key of advanced queries.
+ *
+ */
+public sealed interface FilterNode permits FilterNode.Logical, FilterNode.Condition {
+
+	/**
+	 * 
+	 * Logical operation applied to two or more nodes.
+	 *
+	 * @param operation the logical operation.
+	 * @param children the nodes combined by the operation.
+	 */
+	record Logical(LogicalOperation operation, List<FilterNode> children) implements FilterNode {
+		
+		public Logical {
+			children = List.copyOf(children);
+		}
+		
+	}
+	
+	/**
+	 * 
+	 * Single condition on a field.
+	 *
+	 * @param criteria the condition.
+	 */
+	record Condition(SearchCriteria criteria) implements FilterNode {
+		
+	}
+	
+}
@@ -0,0 +1,19 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Strategy used to parse the {@code filter} key of advanced queries.
+ *
+ * <ul>
+ * <li><b>LL:</b> full LL prediction with default error recovery, using new lexer and parser instances per query.
+ * <li><b>SLL:</b> fast SLL prediction that bails out on the first error and retries with full LL prediction, reusing lexer and parser instances per thread.
+ * <li><b>RECURSIVE_DESCENT:</b> hand-written single-pass parser that does not depend on the ANTLR runtime and rejects invalid queries.
+ * </ul>
+ */
+public enum FilterParserMode {
+
+	LL,
+	SLL,
+	RECURSIVE_DESCENT
+	
+}
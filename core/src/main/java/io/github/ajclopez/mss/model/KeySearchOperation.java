@@ -2,7 +2,7 @@ package io.github.ajclopez.mss.model;
 
 public enum KeySearchOperation {
 
-	SKIP, LIMIT, SORT, FIELDS, FILTER, DEFAULT;
+	SKIP, LIMIT, SORT, FIELDS, FILTER, AFTER, DEFAULT;
 	    
     public static KeySearchOperation getKeyOperation(String input) {
         return switch (input) {
@@ -11,6 +11,7 @@ public enum KeySearchOperation {
             case "sort" -> SORT;
             case "fields" -> FIELDS;
             case "filter" -> FILTER;
+            case "after" -> AFTER;
             default -> DEFAULT;
         };
     }
@@ -0,0 +1,23 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Rewrite rule applied to the filters of a query before creating MongoDB queries.
+ *
+ * <ul>
+ * <li><b>DUPLICATE:</b> repeated terms of the same {@code AND} or {@code OR} are removed, {@code a=1 AND a=1} becomes {@code a=1}.
+ * <li><b>IN:</b> equalities on the same field joined by {@code OR} become a single {@code $in}, {@code a=1 OR a=2} becomes {@code a=1,2}.
+ * <li><b>NOT_IN:</b> inequalities on the same field joined by {@code AND} become a single {@code $nin}, {@code a!=1 AND a!=2} becomes {@code a!=1,2}.
+ * <li><b>RANGE:</b> redundant bounds on the same field joined by {@code AND} are removed, {@code a>18 AND a>21} becomes {@code a>21}.
+ * <li><b>NEGATION:</b> negations without effect are removed, the {@code !} prefix is only meaningful for existence checks.
+ * </ul>
+ */
+public enum OptimizerRule {
+
+	DUPLICATE,
+	IN,
+	NOT_IN,
+	RANGE,
+	NEGATION
+	
+}
@@ -0,0 +1,17 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Strategy used to move between the pages of a query.
+ *
+ * <ul>
+ * <li><b>OFFSET:</b> pages are selected with the {@code skip} key, the server reads and discards every skipped document.
+ * <li><b>KEYSET:</b> pages are selected with the {@code after} key, an opaque token decoded into range conditions over the sort keys and {@code _id}. The {@code skip} key is rejected.
+ * </ul>
+ */
+public enum PaginationMode {
+
+	OFFSET,
+	KEYSET
+	
+}
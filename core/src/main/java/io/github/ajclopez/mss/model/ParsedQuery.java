@@ -0,0 +1,57 @@
+package io.github.ajclopez.mss.model;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Search query split into its keys, before any MongoDB object is created.</p>
+ *
+ * <ul>
+ * <li><b>filters:</b> conditions of the query string, joined by {@code AND}.
+ * <li><b>filter:</b> tree of logical operations of the {@code filter} key or {@code null}.
+ * <li><b>sort:</b> sort specification, {@link Sort#unsorted()} when the query has no {@code sort} key.
+ * <li><b>fields:</b> fields included in the projection.
+ * <li><b>skip:</b> value for {@code skip} key or {@code null}.
+ * <li><b>limit:</b> value for {@code limit} key or {@code null}.
+ * <li><b>after:</b> values of the sort keys decoded from the {@code after} key or {@code null}.
+ * <li><b>cost:</b> structural metrics measured while parsing.
+ * </ul>
+ */
+public record ParsedQuery(List<SearchCriteria> filters, FilterNode filter, Sort sort, List<String> fields, Long skip, Integer limit, List<Object> after, QueryCost cost) {
+
+	public ParsedQuery {
+		filters = filters != null ? List.copyOf(filters) : List.of();
+		sort = sort != null ? sort : Sort.unsorted();
+		fields = fields != null ? List.copyOf(fields) : List.of();
+		after = after != null ? Collections.unmodifiableList(new ArrayList<>(after)) : null;
+	}
+	
+	/**
+	 * 
+	 * Returns every condition of the query as a single tree of logical operations.
+	 * 
+	 * @return the tree of logical operations, {@code null} when the query has no filters.
+	 */
+	public FilterNode toFilterNode() {
+		
+		List<FilterNode> children = new ArrayList<>();
+		
+		if ( filter != null ) {
+			children.add(filter);
+		}
+		
+		for ( SearchCriteria criteria : filters ) {
+			children.add(new FilterNode.Condition(criteria));
+		}
+		
+		if ( children.isEmpty() ) {
+			return null;
+		}
+		
+		return children.size() == 1 ? children.get(0) : new FilterNode.Logical(LogicalOperation.AND, children);
+	}
+	
+}
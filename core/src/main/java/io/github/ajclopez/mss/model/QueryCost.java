@@ -0,0 +1,18 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Structural metrics of a parsed query, see {@link CostMetric}.</p>
+ *
+ * <ul>
+ * <li><b>clauses:</b> number of conditions.
+ * <li><b>orBranches:</b> number of branches of the largest {@code $or}, {@code 0} without {@code OR}.
+ * <li><b>depth:</b> nesting depth of parentheses in the {@code filter} key.
+ * <li><b>inValues:</b> number of values of the largest comma-separated list.
+ * <li><b>regexes:</b> number of regular expressions.
+ * <li><b>skip:</b> value of the {@code skip} key, {@code 0} when absent.
+ * <li><b>sortFields:</b> number of sort keys.
+ * </ul>
+ */
+public record QueryCost(int clauses, int orBranches, int depth, int inValues, int regexes, long skip, int sortFields) {
+
+}
@@ -0,0 +1,35 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Canonical form of a search query and fingerprint of its shape.</p>
+ *
+ * <ul>
+ * <li><b>canonical:</b> order-independent form of the query with its values, equal for equivalent queries.
+ * <li><b>shape:</b> canonical form with the values replaced by {@code ?}.
+ * <li><b>fingerprintHigh:</b> upper 64 bits of the 128-bit fingerprint of {@code shape}.
+ * <li><b>fingerprintLow:</b> lower 64 bits of the 128-bit fingerprint of {@code shape}.
+ * </ul>
+ */
+public record QueryShape(String canonical, String shape, long fingerprintHigh, long fingerprintLow) {
+
+	/**
+	 * 
+	 * Returns the 64-bit fingerprint of the shape.
+	 * 
+	 * @return the upper 64 bits of the fingerprint.
+	 */
+	public long fingerprint64() {
+		return fingerprintHigh;
+	}
+	
+	/**
+	 * 
+	 * Returns the 128-bit fingerprint of the shape as 32 hexadecimal characters.
+	 * 
+	 * @return the fingerprint.
+	 */
+	public String fingerprint() {
+		return String.format("%016x%016x", fingerprintHigh, fingerprintLow);
+	}
+	
+}
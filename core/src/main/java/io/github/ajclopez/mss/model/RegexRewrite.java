@@ -0,0 +1,19 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * 
+ * Rewrite applied to regular expressions anchored to a case-sensitive literal prefix, for example {@code /^abc/}.
+ *
+ * <ul>
+ * <li><b>NONE:</b> regular expressions are sent unchanged as {@code $regex}.
+ * <li><b>RANGE:</b> patterns that only match a prefix become a {@code $gte}/{@code $lt} range, other anchored patterns keep the regular expression and add the range.
+ * <li><b>BOUNDS:</b> anchored patterns always keep the regular expression and add the {@code $gte}/{@code $lt} range.
+ * </ul>
+ */
+public enum RegexRewrite {
+
+	NONE,
+	RANGE,
+	BOUNDS
+	
+}
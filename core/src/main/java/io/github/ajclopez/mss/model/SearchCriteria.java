@@ -1,5 +1,9 @@
 package io.github.ajclopez.mss.model;
 
+import io.github.ajclopez.mss.parser.ValueCodec;
+
+import java.util.Objects;
+
 public class SearchCriteria {
 
 	private Boolean prefix;
@@ -7,6 +11,7 @@ public class SearchCriteria {
 	private SearchOperation operation;
 	private String value;
 	private CastType caster;
+	private ValueCodec codec;
 	
 	public SearchCriteria() {
 		
@@ -19,6 +24,11 @@ public class SearchCriteria {
 		this.value = value;
 		this.caster = caster;
 	}
+	
+	public SearchCriteria(Boolean prefix, String key, SearchOperation operation, String value, CastType caster, ValueCodec codec) {
+		this(prefix, key, operation, value, caster);
+		this.codec = codec;
+	}
 
 	public Boolean getPrefix() {
 		return prefix;
@@ -60,10 +70,39 @@ public class SearchCriteria {
 		this.caster = caster;
 	}
 
+	public ValueCodec getCodec() {
+		return codec;
+	}
+
+	public void setCodec(ValueCodec codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(prefix, key, operation, value, caster, codec);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		
+		if ( this == obj ) {
+			return true;
+		}
+		
+		if ( !(obj instanceof SearchCriteria other) ) {
+			return false;
+		}
+		
+		return Objects.equals(prefix, other.prefix) && Objects.equals(key, other.key) && operation == other.operation
+				&& Objects.equals(value, other.value) && caster == other.caster
+				&& Objects.equals(codec, other.codec);
+	}
+
 	@Override
 	public String toString() {
 		return "SearchCriteria [prefix=" + prefix + ", key=" + key + ", operation=" + operation + ", value=" + value
-				+ ", caster=" + caster + "]";
+				+ ", caster=" + caster + ", codec=" + codec + "]";
 	}
 	
 }
@@ -0,0 +1,62 @@
+package io.github.ajclopez.mss.model;
+
+/**
+ * <p>Options of queries executed as streams.</p>
+ *
+ * <ul>
+ * <li><b>batchSize:</b> number of documents fetched by each round trip of the cursor, {@code null} for the driver default.
+ * <li><b>ignoreLimitCaps:</b> {@code true} to ignore {@code defaultLimit} and {@code maxLimit} of the configuration, used by exports.
+ * </ul>
+ */
+public record StreamOptions(Integer batchSize, boolean ignoreLimitCaps) {
+
+	public StreamOptions {
+		if ( batchSize != null && batchSize < 0 ) {
+			throw new IllegalArgumentException("batchSize must not be negative.");
+		}
+	}
+	
+	/**
+	 * 
+	 * Returns options that keep the limits of the configuration and the batch size of the driver.
+	 * 
+	 * @return a new {@link StreamOptions} instance.
+	 */
+	public static StreamOptions defaults() {
+		return new StreamOptions(null, false);
+	}
+	
+	/**
+	 * 
+	 * Returns options suited to exports, which read every matching document in batches of the given size.
+	 * 
+	 * @param batchSize number of documents fetched by each round trip of the cursor.
+	 * @return a new {@link StreamOptions} instance that ignores the limit caps.
+	 */
+	public static StreamOptions forExport(int batchSize) {
+		return new StreamOptions(batchSize, true);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of these options with the given batch size.
+	 * 
+	 * @param batchSize number of documents fetched by each round trip of the cursor, {@code null} for the driver default.
+	 * @return a new {@link StreamOptions} instance.
+	 */
+	public StreamOptions withBatchSize(Integer batchSize) {
+		return new StreamOptions(batchSize, ignoreLimitCaps);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of these options that ignores or keeps the limit caps of the configuration.
+	 * 
+	 * @param ignoreLimitCaps {@code true} to ignore {@code defaultLimit} and {@code maxLimit}.
+	 * @return a new {@link StreamOptions} instance.
+	 */
+	public StreamOptions withIgnoreLimitCaps(boolean ignoreLimitCaps) {
+		return new StreamOptions(batchSize, ignoreLimitCaps);
+	}
+	
+}
@@ -0,0 +1,252 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.QueryLexer;
+import io.github.ajclopez.mss.criteria.CriteriaQueryVisitor;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.FilterLimits;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * 
+ * Class used to parse the {@code filter} key of advanced queries with the ANTLR grammar.
+ *
+ */
+public class AdvancedFilterParser {
+
+	// ANTLR parsers are not thread-safe, their DFA caches are static and synchronized by the runtime
+	private static final ThreadLocal<Pipeline> PIPELINE = ThreadLocal.withInitial(Pipeline::new);
+	
+	private AdvancedFilterParser() {
+		
+	}
+	
+	/**
+	 * 
+	 * Parses an advanced query with logical operators.
+	 * 
+	 * @param input the advanced query, for example {@code (country=Mexico OR country=Spain) and gender=female}.
+	 * @param codecs table of codecs per field, {@code null} to infer the type of every value.
+	 * @param mode the strategy used to parse the query, {@code null} for {@link FilterParserMode#LL}.
+	 * @return the tree of logical operations.
+	 */
+	public static FilterNode parse(String input, FieldCodecs codecs, FilterParserMode mode) {
+		return parse(input, codecs, mode, null);
+	}
+	
+	/**
+	 * 
+	 * Parses an advanced query with logical operators. The cost policy of {@code guard} is enforced on the tokens
+	 * of the query, before the parse tree is built.
+	 * 
+	 * @param input the advanced query, for example {@code (country=Mexico OR country=Spain) and gender=female}.
+	 * @param codecs table of codecs per field, {@code null} to infer the type of every value.
+	 * @param mode the strategy used to parse the query, {@code null} for {@link FilterParserMode#LL}.
+	 * @param guard the cost guard of the query, {@code null} for no limits.
+	 * @return the tree of logical operations.
+	 */
+	public static FilterNode parse(String input, FieldCodecs codecs, FilterParserMode mode, CostGuard guard) {
+		return parse(input, codecs, mode, guard, null);
+	}
+	
+	/**
+	 * 
+	 * Parses an advanced query with logical operators. With limits the query is parsed strictly: the first invalid
+	 * token stops parsing with its position, instead of the default error recovery of ANTLR that prints to
+	 * {@code System.err} and may return a partial tree.
+	 * 
+	 * @param input the advanced query, for example {@code (country=Mexico OR country=Spain) and gender=female}.
+	 * @param codecs table of codecs per field, {@code null} to infer the type of every value.
+	 * @param mode the strategy used to parse the query, {@code null} for {@link FilterParserMode#LL}.
+	 * @param guard the cost guard of the query, {@code null} for no limits.
+	 * @param limits the limits of the strict parser, {@code null} for the lenient parser.
+	 * @return the tree of logical operations.
+	 * @throws ArgumentNotValidException Exception to be thrown when the query is not valid or exceeds its limits.
+	 */
+	public static FilterNode parse(String input, FieldCodecs codecs, FilterParserMode mode, CostGuard guard, FilterLimits limits) throws ArgumentNotValidException {
+		
+		InputGuard inputGuard = InputGuard.of(input, limits);
+		CriteriaQueryVisitor visitor = new CriteriaQueryVisitor(codecs);
+		
+		if ( mode == FilterParserMode.SLL ) {
+			return visitor.visit(PIPELINE.get().parse(input, codecs, guard, inputGuard));
+		}
+		
+		QueryLexer lexer = new QueryLexer(CharStreams.fromString(input));
+		
+		if ( inputGuard == null ) {
+			CommonTokenStream tokens = new CommonTokenStream(lexer);
+			measure(tokens, codecs, guard);
+			
+			io.github.ajclopez.mss.QueryParser parser = new io.github.ajclopez.mss.QueryParser(tokens);
+			
+			return visitor.visit(parser.input());
+		}
+		
+		lexer.removeErrorListeners();
+		lexer.addErrorListener(InputGuard.LEXER_ERRORS);
+		
+		CommonTokenStream tokens = new CommonTokenStream(new ListTokenSource(inputGuard.lex(lexer)));
+		measure(tokens, codecs, guard);
+		
+		io.github.ajclopez.mss.QueryParser parser = new io.github.ajclopez.mss.QueryParser(tokens);
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy());
+		
+		return visitor.visit(strict(parser, inputGuard));
+	}
+	
+	/**
+	 * 
+	 * Parses with the bail error strategy and turns its cancellation into an error at the offending token.
+	 * 
+	 */
+	private static io.github.ajclopez.mss.QueryParser.InputContext strict(io.github.ajclopez.mss.QueryParser parser, InputGuard inputGuard) {
+		try {
+			return parser.input();
+		} catch (ParseCancellationException e) {
+			Token token = e.getCause() instanceof RecognitionException recognition ? recognition.getOffendingToken() : parser.getCurrentToken();
+			throw inputGuard.unexpected(token);
+		}
+	}
+	
+	/**
+	 * 
+	 * Pulls the tokens of the query one by one and records its parentheses, operators and conditions in the guard, so
+	 * a query over budget is rejected before the rest of it is read. The stream is rewound for the parser.
+	 * 
+	 */
+	private static void measure(CommonTokenStream tokens, FieldCodecs codecs, CostGuard guard) {
+		
+		if ( guard == null ) {
+			return;
+		}
+		
+		FieldCodecs fieldCodecs = codecs != null ? codecs : FieldCodecs.of(null);
+		String key = null;
+		SearchOperation operation = null;
+		
+		for ( Token token = tokens.LT(1); ; token = tokens.LT(1) ) {
+			
+			SearchOperation tokenOperation = getOperation(token.getType());
+			
+			if ( tokenOperation != null ) {
+				operation = key != null ? tokenOperation : null;
+			} else if ( key != null && operation != null && isValue(token.getType()) ) {
+				String value = token.getType() == QueryLexer.STRING ? QueryParser.unquote(token.getText()) : QueryParser.decode(token.getText());
+				guard.condition(operation, value, fieldCodecs.get(key));
+				key = null;
+				operation = null;
+			} else {
+				
+				if ( key != null ) {
+					guard.condition(SearchOperation.EXISTS, "", null);
+					key = null;
+					operation = null;
+				}
+				
+				switch (token.getType()) {
+				case QueryLexer.LPAREN -> guard.enter();
+				case QueryLexer.RPAREN -> guard.exit();
+				case QueryLexer.AND -> guard.and();
+				case QueryLexer.OR -> guard.or();
+				case QueryLexer.IDENTIFIER -> key = token.getText();
+				case QueryLexer.NEG_IDENTIFIER -> key = token.getText().substring(1);
+				default -> {
+					// other tokens do not change the cost
+				}
+				}
+			}
+			
+			if ( token.getType() == Token.EOF ) {
+				break;
+			}
+			
+			tokens.consume();
+		}
+		
+		tokens.seek(0);
+	}
+	
+	private static SearchOperation getOperation(int type) {
+		return switch (type) {
+			case QueryLexer.EQ -> SearchOperation.EQUAL;
+			case QueryLexer.NE -> SearchOperation.NOT_EQUAL;
+			case QueryLexer.GT -> SearchOperation.GREATER_THAN;
+			case QueryLexer.GTE -> SearchOperation.GREATER_THAN_EQUAL;
+			case QueryLexer.LT -> SearchOperation.LESS_THAN;
+			case QueryLexer.LTE -> SearchOperation.LESS_THAN_EQUAL;
+			default -> null;
+		};
+	}
+	
+	private static boolean isValue(int type) {
+		return type == QueryLexer.IDENTIFIER || type == QueryLexer.STRING || type == QueryLexer.ENCODED_STRING;
+	}
+	
+	/**
+	 * 
+	 * Lexer and parser reused by one thread. The parse tree is only valid until the next call.
+	 *
+	 */
+	private static class Pipeline {
+		
+		private final QueryLexer lexer = new QueryLexer(null);
+		private final CommonTokenStream tokens = new CommonTokenStream(lexer);
+		private final io.github.ajclopez.mss.QueryParser parser = new io.github.ajclopez.mss.QueryParser(tokens);
+		private final BailErrorStrategy bailErrorStrategy = new BailErrorStrategy();
+		private final DefaultErrorStrategy defaultErrorStrategy = new DefaultErrorStrategy();
+		
+		private io.github.ajclopez.mss.QueryParser.InputContext parse(String input, FieldCodecs codecs, CostGuard guard, InputGuard inputGuard) {
+			
+			lexer.setInputStream(CharStreams.fromString(input));
+			lexer.removeErrorListeners();
+			
+			if ( inputGuard != null ) {
+				lexer.addErrorListener(InputGuard.LEXER_ERRORS);
+				tokens.setTokenSource(new ListTokenSource(inputGuard.lex(lexer)));
+			} else {
+				lexer.addErrorListener(ConsoleErrorListener.INSTANCE);
+				tokens.setTokenSource(lexer);
+			}
+			
+			measure(tokens, codecs, guard);
+			parser.setTokenStream(tokens);
+			
+			parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+			parser.removeErrorListeners();
+			parser.setErrorHandler(bailErrorStrategy);
+			
+			try {
+				return parser.input();
+			} catch (ParseCancellationException e) {
+				// SLL prediction failed or input is not valid, retry with full LL prediction
+				tokens.seek(0);
+				parser.reset();
+				parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+				
+				if ( inputGuard != null ) {
+					return strict(parser, inputGuard);
+				}
+				
+				parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+				parser.setErrorHandler(defaultErrorStrategy);
+				
+				return parser.input();
+			}
+		}
+		
+	}
+	
+}
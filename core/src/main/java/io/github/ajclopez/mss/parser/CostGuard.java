@@ -0,0 +1,257 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.exception.QueryCostExceededException;
+import io.github.ajclopez.mss.model.CostMetric;
+import io.github.ajclopez.mss.model.CostPolicy;
+import io.github.ajclopez.mss.model.QueryCost;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * Measures the structural cost of a query while it is parsed and enforces a {@link CostPolicy}.
+ * 
+ * <p>Every limit is checked as soon as the metric grows, so a query over budget is rejected before the rest of it is
+ * parsed. An instance is used for a single query and is not thread-safe.</p>
+ *
+ */
+public class CostGuard {
+
+	private static final byte NONE = 0;
+	private static final byte AND = 1;
+	private static final byte OR = 2;
+	
+	private final CostPolicy policy;
+	
+	// per depth: the branches of the operand built so far when it is an OR, and the operator waiting for its right operand
+	private int[] branches = new int[8];
+	private byte[] operators = new byte[8];
+	
+	private int clauses;
+	private int orBranches;
+	private int depth;
+	private int maxDepth;
+	private int inValues;
+	private int regexes;
+	private long skip;
+	private int sortFields;
+	
+	/**
+	 * 
+	 * Creates a new guard.
+	 * 
+	 * @param policy the limits to enforce, {@code null} to only measure the query.
+	 */
+	public CostGuard(CostPolicy policy) {
+		this.policy = policy;
+	}
+	
+	/**
+	 * 
+	 * Records an opening parenthesis.
+	 * 
+	 */
+	public void enter() {
+		
+		depth++;
+		
+		if ( depth > maxDepth ) {
+			maxDepth = depth;
+			check(CostMetric.DEPTH, maxDepth, policy != null ? policy.maxDepth() : null);
+		}
+		
+		if ( depth >= branches.length ) {
+			branches = Arrays.copyOf(branches, branches.length * 2);
+			operators = Arrays.copyOf(operators, operators.length * 2);
+		}
+		
+		branches[depth] = 0;
+		operators[depth] = NONE;
+	}
+	
+	/**
+	 * 
+	 * Records a closing parenthesis.
+	 * 
+	 */
+	public void exit() {
+		
+		int group = depth > 0 ? branches[depth] : 0;
+		
+		depth--;
+		operand(level(), group);
+	}
+	
+	/**
+	 * 
+	 * Records an {@code AND} operator.
+	 * 
+	 */
+	public void and() {
+		operators[level()] = AND;
+	}
+	
+	/**
+	 * 
+	 * Records an {@code OR} operator. Operators are left-associative with the same precedence and nested {@code OR}
+	 * operations are merged, so the branches are counted per {@code $or} and not over the whole query.
+	 * 
+	 */
+	public void or() {
+		
+		int level = level();
+		
+		operators[level] = OR;
+		// the right operand adds at least one branch
+		branches(Math.max(branches[level], 1) + 1);
+	}
+	
+	/**
+	 * 
+	 * Records a condition.
+	 * 
+	 * @param operation the operation of the condition.
+	 * @param value the decoded value of the condition.
+	 * @param codec the codec of the field, {@code null} when the type of the value is inferred.
+	 */
+	public void condition(SearchOperation operation, String value, ValueCodec codec) {
+		
+		clauses++;
+		check(CostMetric.CLAUSES, clauses, policy != null ? policy.maxClauses() : null);
+		operand(level(), 0);
+		
+		if ( operation == SearchOperation.EXISTS || value == null ) {
+			return;
+		}
+		
+		if ( codec == ValueCodecs.PATTERN ) {
+			regex();
+			return;
+		}
+		
+		if ( codec != null ) {
+			return;
+		}
+		
+		int values = 0;
+		int start = 0;
+		
+		while ( start <= value.length() ) {
+			
+			int end = value.indexOf(',', start);
+			end = end < 0 ? value.length() : end;
+			
+			if ( end - start > 1 && value.charAt(start) == '/' && QueryParser.getRegExpEnd(value.substring(start, end)) > 0 ) {
+				regex();
+			}
+			
+			values++;
+			start = end + 1;
+		}
+		
+		if ( values > 1 && values > inValues ) {
+			inValues = values;
+			check(CostMetric.IN_VALUES, inValues, policy != null ? policy.maxInValues() : null);
+		}
+	}
+	
+	/**
+	 * 
+	 * Records the {@code skip} key.
+	 * 
+	 * @param value the value of the {@code skip} key.
+	 * @return the value, clamped when the policy allows it.
+	 */
+	public long skip(long value) {
+		
+		Long max = policy != null ? policy.maxSkip() : null;
+		
+		if ( max != null && value > max && policy.clamp() ) {
+			value = max;
+		}
+		
+		skip = value;
+		check(CostMetric.SKIP, skip, max);
+		
+		return value;
+	}
+	
+	/**
+	 * 
+	 * Records the sort keys.
+	 * 
+	 * @param sort the sort keys of the query.
+	 * @return the sort keys, without the keys over budget when the policy allows it.
+	 */
+	public Sort sort(Sort sort) {
+		
+		Integer max = policy != null ? policy.maxSortFields() : null;
+		int count = (int) sort.stream().count();
+		
+		if ( max != null && count > max && policy.clamp() ) {
+			sort = Sort.by(sort.stream().limit(max).toList());
+			count = max;
+		}
+		
+		sortFields = count;
+		check(CostMetric.SORT_FIELDS, sortFields, max);
+		
+		return sort;
+	}
+	
+	/**
+	 * 
+	 * Returns the metrics measured so far.
+	 * 
+	 * @return a {@link QueryCost} instance.
+	 */
+	public QueryCost cost() {
+		return new QueryCost(clauses, orBranches, maxDepth, inValues, regexes, skip, sortFields);
+	}
+	
+	private int level() {
+		return Math.max(depth, 0);
+	}
+	
+	/**
+	 * 
+	 * Records a completed operand: a condition, or a group with the given branches when it is an {@code OR}.
+	 * 
+	 */
+	private void operand(int level, int group) {
+		
+		switch (operators[level]) {
+		case OR -> {
+			branches[level] = Math.max(branches[level], 1) + Math.max(group, 1);
+			branches(branches[level]);
+		}
+		case AND -> branches[level] = 0;
+		default -> branches[level] = group;
+		}
+		
+		operators[level] = NONE;
+	}
+	
+	private void branches(int value) {
+		
+		if ( value > orBranches ) {
+			orBranches = value;
+			check(CostMetric.OR_BRANCHES, orBranches, policy != null ? policy.maxOrBranches() : null);
+		}
+	}
+	
+	private void regex() {
+		regexes++;
+		check(CostMetric.REGEXES, regexes, policy != null ? policy.maxRegexes() : null);
+	}
+	
+	private static void check(CostMetric metric, long actual, Number limit) {
+		
+		if ( limit != null && actual > limit.longValue() ) {
+			throw new QueryCostExceededException(metric, limit.longValue(), actual);
+		}
+	}
+	
+}
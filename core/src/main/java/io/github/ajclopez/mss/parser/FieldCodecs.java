@@ -0,0 +1,154 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 
+ * Immutable table of the {@link ValueCodec} used for each field.
+ * 
+ * <p>The table is compiled once from the casters of a {@link io.github.ajclopez.mss.model.Configuration}, so every
+ * condition only needs a single lookup to find a codec that is ready to use. Custom codecs take precedence over
+ * casters and allow types that {@link CastType} cannot express, such as {@link ValueCodecs#UUID} or
+ * {@link ValueCodecs#DECIMAL128}. Fields without codec infer the type of the value.</p>
+ *
+ */
+public final class FieldCodecs {
+
+	private static final FieldCodecs EMPTY = new FieldCodecs(Map.of(), Map.of(), Map.of());
+	
+	private final Map<String, CastType> casters;
+	private final Map<String, ValueCodec> custom;
+	private final Map<String, ValueCodec> codecs;
+	
+	private FieldCodecs(Map<String, CastType> casters, Map<String, ValueCodec> custom, Map<String, ValueCodec> codecs) {
+		this.casters = casters;
+		this.custom = custom;
+		this.codecs = codecs;
+	}
+	
+	/**
+	 * 
+	 * Compiles the codecs of the casters.
+	 * 
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @return the table of codecs.
+	 */
+	public static FieldCodecs of(Map<String, CastType> casters) {
+		return of(casters, null);
+	}
+	
+	/**
+	 * 
+	 * Compiles the codecs of the casters and adds the custom codecs.
+	 * 
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @param custom object which map keys to custom codecs, they take precedence over casters.
+	 * @return the table of codecs.
+	 */
+	public static FieldCodecs of(Map<String, CastType> casters, Map<String, ValueCodec> custom) {
+		
+		if ( (casters == null || casters.isEmpty()) && (custom == null || custom.isEmpty()) ) {
+			return EMPTY;
+		}
+		
+		Map<String, ValueCodec> codecs = new HashMap<>();
+		
+		if ( casters != null ) {
+			casters.forEach((field, caster) -> codecs.put(field, ValueCodecs.of(caster)));
+		}
+		
+		if ( custom != null ) {
+			codecs.putAll(custom);
+		}
+		
+		return new FieldCodecs(casters != null ? Map.copyOf(casters) : Map.of(), custom != null ? Map.copyOf(custom) : Map.of(), Map.copyOf(codecs));
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of this table with a custom codec for a field.
+	 * 
+	 * @param field the name of the field.
+	 * @param codec the codec of the field.
+	 * @return a new {@link FieldCodecs} instance.
+	 */
+	public FieldCodecs with(String field, ValueCodec codec) {
+		
+		Map<String, ValueCodec> codecs = new HashMap<>(custom);
+		codecs.put(field, codec);
+		
+		return of(casters, codecs);
+	}
+	
+	/**
+	 * 
+	 * Returns the codec of a field.
+	 * 
+	 * @param field the name of the field.
+	 * @return the codec, {@code null} when the type of the value is inferred.
+	 */
+	public ValueCodec get(String field) {
+		return codecs.get(field);
+	}
+	
+	/**
+	 * 
+	 * Returns the caster of a field.
+	 * 
+	 * @param field the name of the field.
+	 * @return the caster, {@code null} when the field has no caster.
+	 */
+	public CastType caster(String field) {
+		return casters.get(field);
+	}
+	
+	/**
+	 * 
+	 * Returns the custom codecs of this table.
+	 * 
+	 * @return object which map keys to custom codecs.
+	 */
+	public Map<String, ValueCodec> custom() {
+		return custom;
+	}
+	
+	/**
+	 * 
+	 * Creates a condition with the caster and the codec of its field.
+	 * 
+	 * @param prefix {@code true} if the key was negated.
+	 * @param key the name of the field.
+	 * @param operation the operation of the condition.
+	 * @param value the value of the condition.
+	 * @return a {@link SearchCriteria} instance.
+	 */
+	public SearchCriteria criteria(Boolean prefix, String key, SearchOperation operation, String value) {
+		return new SearchCriteria(prefix, key, operation, value, casters.get(key), codecs.get(key));
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(casters, custom);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		
+		if ( this == obj ) {
+			return true;
+		}
+		
+		if ( !(obj instanceof FieldCodecs other) ) {
+			return false;
+		}
+		
+		return casters.equals(other.casters) && custom.equals(other.custom);
+	}
+	
+}
@@ -0,0 +1,164 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.QueryLexer;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.FilterLimits;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * Enforces the {@link FilterLimits} of the strict parser on a single {@code filter} value and creates its errors.
+ *
+ * <p>The length is checked when the guard is created, the tokens and the nesting depth as soon as each token is
+ * read, so the cost of rejecting an input is bounded by the limits and not by its length.</p>
+ *
+ */
+final class InputGuard {
+
+	/**
+	 *
+	 * Replaces the listener of the lexer that prints to {@code System.err}.
+	 *
+	 */
+	static final BaseErrorListener LEXER_ERRORS = new BaseErrorListener() {
+
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+
+			Lexer lexer = (Lexer) recognizer;
+			int position = lexer._tokenStartCharIndex;
+			String character = lexer.getInputStream().getText(Interval.of(position, position));
+
+			throw unexpectedCharacter(lexer.getInputStream().toString(), character, position);
+		}
+	};
+
+	private final String input;
+	private final FilterLimits limits;
+
+	private int tokens;
+	private int depth;
+
+	private InputGuard(String input, FilterLimits limits) {
+		this.input = input;
+		this.limits = limits;
+	}
+
+	/**
+	 *
+	 * Creates the guard of a filter, rejecting it at once when it is too long.
+	 *
+	 * @return the guard, {@code null} when there are no limits, which selects the lenient parser.
+	 */
+	static InputGuard of(String input, FilterLimits limits) {
+
+		if ( limits == null ) {
+			return null;
+		}
+
+		if ( limits.maxLength() != null && input.length() > limits.maxLength() ) {
+			throw new ArgumentNotValidException(String.format("filter is not valid: %s characters exceed the limit of %s.", input.length(), limits.maxLength()));
+		}
+
+		return new InputGuard(input, limits);
+	}
+
+	/**
+	 *
+	 * Records a token that is not skipped or hidden.
+	 *
+	 */
+	void token(int position) {
+
+		tokens++;
+
+		if ( limits.maxTokens() != null && tokens > limits.maxTokens() ) {
+			throw new ArgumentNotValidException(String.format("filter is not valid: more than %s tokens at position %s.", limits.maxTokens(), position));
+		}
+	}
+
+	/**
+	 *
+	 * Records an opening parenthesis.
+	 *
+	 */
+	void enter(int position) {
+
+		depth++;
+
+		if ( limits.maxDepth() != null && depth > limits.maxDepth() ) {
+			throw new ArgumentNotValidException(String.format("filter is not valid: nesting deeper than %s at position %s.", limits.maxDepth(), position));
+		}
+	}
+
+	/**
+	 *
+	 * Records a closing parenthesis.
+	 *
+	 */
+	void exit() {
+		depth--;
+	}
+
+	/**
+	 *
+	 * Reads every token of the filter with the lexer, whose error listeners must already throw.
+	 *
+	 * @return the tokens read, ending with {@code EOF}.
+	 */
+	List<Token> lex(QueryLexer lexer) {
+
+		List<Token> result = new ArrayList<>();
+		Token token = lexer.nextToken();
+
+		while ( token.getType() != Token.EOF ) {
+
+			if ( token.getChannel() == Token.DEFAULT_CHANNEL ) {
+				token(token.getStartIndex());
+			}
+
+			if ( token.getType() == QueryLexer.LPAREN ) {
+				enter(token.getStartIndex());
+			} else if ( token.getType() == QueryLexer.RPAREN ) {
+				exit();
+			}
+
+			result.add(token);
+			token = lexer.nextToken();
+		}
+
+		result.add(token);
+
+		return result;
+	}
+
+	/**
+	 *
+	 * Creates the error of an unexpected token.
+	 *
+	 */
+	ArgumentNotValidException unexpected(Token token) {
+
+		String found = token == null || token.getType() == Token.EOF ? "end of input" : String.format("'%s'", token.getText());
+		int position = token == null || token.getType() == Token.EOF ? input.length() : token.getStartIndex();
+
+		return unexpected(input, found, position);
+	}
+
+	static ArgumentNotValidException unexpected(String input, String found, int position) {
+		return new ArgumentNotValidException(String.format("filter '%s' is not valid: unexpected %s at position %s.", input, found, position));
+	}
+
+	static ArgumentNotValidException unexpectedCharacter(String input, Object character, int position) {
+		return new ArgumentNotValidException(String.format("filter '%s' is not valid: unexpected character '%s' at position %s.", input, character, position));
+	}
+
+}
@@ -0,0 +1,443 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.cache.PatternCache;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import io.github.ajclopez.mss.pattern.SearchPatterns;
+import org.bson.types.ObjectId;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * Class used to parse a search query {@code String} and create a list of {@link SearchCriteria}.
+ * 
+ */
+public class QueryParser {
+
+	private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+	private static final String DATE_SHAPE = "-00-00T00:00:00.000Z";
+	static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT);
+	
+	private QueryParser() {
+		
+	}
+	
+	/**
+	 * 
+	 * This function expect a search string for build a list of criteria.
+	 * 
+	 * @param query The search string.
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @return A list of {@link SearchCriteria} used to build MongoDB queries.
+	 */
+	public static List<SearchCriteria> parse(String query, Map<String, CastType> casters) {
+	
+		List<SearchCriteria> criterias = new ArrayList<>();
+		
+		for ( String condition : query.split("&") ) {
+			criterias.add(criteriaParser(condition, casters));
+		}		
+		
+		return criterias;
+	}
+	
+	/**
+	 * 
+	 * This function creates a {@link SearchCriteria} instance from a search string condition.
+	 * 
+	 * @param condition A condition in search string.
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @return A {@link SearchCriteria} instance.
+	 */
+	public static SearchCriteria criteriaParser(String condition, Map<String, CastType> casters) {
+				
+		Matcher matcher = SearchPatterns.getOperatorPattern().matcher(URLDecoder.decode(condition, StandardCharsets.UTF_8));
+
+		if ( matcher.matches() ) {
+
+			Boolean prefix = matcher.group(1) != null && !matcher.group(1).isEmpty();
+			String key = matcher.group(2);
+			SearchOperation operation = SearchOperation.getOperation(matcher.group(3));
+			String value = matcher.group(4);
+			CastType caster = casters != null ? casters.get(key) : null;
+			
+			return new SearchCriteria(prefix, key, operation, value, caster);
+		}
+
+		return null;
+	}
+	
+	/**
+	 * 
+	 * Decodes the percent-encoded characters of a value. A {@code +} is kept as is instead of being decoded as a space.
+	 * 
+	 * @param value The encoded value.
+	 * @return The decoded value.
+	 */
+	public static String decode(String value) {
+		
+		if ( value == null || value.indexOf('%') < 0 ) {
+			return value;
+		}
+		
+		return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * 
+	 * Removes the single quotes around a quoted value and resolves its escape sequences, for example {@code \n} or {@code \'}.
+	 * 
+	 * @param value The quoted value, for example {@code 'John Smith'}.
+	 * @return The unquoted value.
+	 */
+	public static String unquote(String value) {
+		
+		if ( value == null || value.length() < 2 || value.charAt(0) != '\'' || value.charAt(value.length() - 1) != '\'' ) {
+			return value;
+		}
+		
+		String content = value.substring(1, value.length() - 1);
+		if ( content.indexOf('\\') < 0 ) {
+			return content;
+		}
+		
+		StringBuilder builder = new StringBuilder(content.length());
+		
+		for ( int i = 0; i < content.length(); i++ ) {
+			
+			char c = content.charAt(i);
+			if ( c != '\\' || i + 1 == content.length() ) {
+				builder.append(c);
+				continue;
+			}
+			
+			char escape = content.charAt(++i);
+			switch (escape) {
+			case 'b' -> builder.append('\b');
+			case 'f' -> builder.append('\f');
+			case 'n' -> builder.append('\n');
+			case 'r' -> builder.append('\r');
+			case 't' -> builder.append('\t');
+			case 'v' -> builder.append('\u000B');
+			case 'x', 'u' -> {
+				int digits = escape == 'x' ? 2 : 4;
+				int code = parseHex(content, i + 1, digits);
+				
+				if ( code < 0 ) {
+					builder.append(escape);
+				} else {
+					builder.append((char) code);
+					i += digits;
+				}
+			}
+			case '\r' -> {
+				// line continuation
+				if ( i + 1 < content.length() && content.charAt(i + 1) == '\n' ) {
+					i++;
+				}
+			}
+			case '\n', '\u2028', '\u2029' -> {
+				// line continuation
+			}
+			default -> builder.append(escape);
+			}
+		}
+		
+		return builder.toString();
+	}
+	
+	private static int parseHex(String value, int start, int digits) {
+		
+		if ( start + digits > value.length() ) {
+			return -1;
+		}
+		
+		int code = 0;
+		for ( int i = start; i < start + digits; i++ ) {
+			int digit = Character.digit(value.charAt(i), 16);
+			if ( digit < 0 ) {
+				return -1;
+			}
+			code = code * 16 + digit;
+		}
+		
+		return code;
+	}
+	
+	/**
+	 * 
+	 * The value is automatically cast: {@code Number, Date, Boolean, RegExp, ObjectId, String, List}.
+	 * 
+	 * @param value The value will be cast.
+	 * @param caster Specify casting per value.
+	 * @return Object Cast to {@code Number, Date, Boolean, RegExp, ObjectId, String, List}.
+	 */
+	public static Object parseValue(String value, CastType caster) {
+		
+		if ( caster == null ) {
+			return parseValue(value);
+		}
+		
+		return ValueCodecs.of(caster).decode(value);
+	}
+	
+	static Number parseNumber(String value, boolean strict) {
+		
+		if ( isNumber(value) ) {
+			return parseNumber(value);
+		}
+		
+		if ( !strict ) {
+			try {
+				return NumberFormat.getInstance(Locale.ROOT).parse(value);
+			} catch (ParseException ignored) {
+				// default implementation ignored
+			}
+		}
+		
+		throw new ArgumentNotValidException(String.format("'%s' cannot be cast to number.", value));
+	}
+	
+	static Pattern parsePattern(String value) {
+		
+		PatternCache cache = PatternCache.getDefault();
+		
+		return cache != null ? cache.get(value, QueryParser::compilePattern) : compilePattern(value);
+	}
+	
+	private static Pattern compilePattern(String value) {
+		
+		int end = getRegExpEnd(value);
+		
+		if ( end > 0 ) {
+			return Pattern.compile(value.substring(1, end).replace("/", ""), SearchPatterns.getFlags(value, end + 1));
+		}
+		
+		return Pattern.compile(value.replace("/", ""));
+	}
+
+	/**
+	 * 
+	 * Infers the type of the value from its characters. Values are only parsed once their shape is known,
+	 * so no exception is thrown for plain strings.
+	 * 
+	 */
+	static Object parseValue(String value) {
+		
+		if ( value == null ) {
+			return null;
+		}
+		
+		if ( value.indexOf(',') >= 0 ) {
+			
+			String[] parts = value.split(",");
+			if ( parts.length > 1 ) {
+				
+				List<Object> list = new ArrayList<>(parts.length);
+				for ( String part : parts ) {
+					list.add(parseValue(part));
+				}
+				
+				return list;
+			}
+		}
+		
+		switch (value) {
+		case "true":
+			return Boolean.TRUE;
+		case "false":
+			return Boolean.FALSE;
+		case "null":
+			return null;
+		default:
+			break;
+		}
+		
+		if ( isDateTime(value) ) {
+			try {
+				return parseLocalDateTime(value);
+			} catch(DateTimeParseException ignored) {
+				// out of range fields, for example month 13, are not a date
+			}
+		}
+		
+		if ( isNumber(value) ) {
+			return parseNumber(value);
+		}
+		
+		if ( getRegExpEnd(value) > 0 ) {
+			return parsePattern(value);
+		}
+		
+		if ( ObjectId.isValid(value) ) {
+			return new ObjectId(value);
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * 
+	 * Checks the shape {@code yyyy-MM-dd'T'HH:mm:ss.SSS'Z'}, the year may have more than four digits.
+	 * 
+	 */
+	private static boolean isDateTime(String value) {
+		
+		int length = value.length();
+		if ( length < 24 || value.charAt(length - 1) != 'Z' ) {
+			return false;
+		}
+		
+		int year = length - DATE_SHAPE.length();
+		for ( int i = 0; i < year; i++ ) {
+			if ( !isDigit(value.charAt(i)) ) {
+				return false;
+			}
+		}
+		
+		for ( int i = 0; i < DATE_SHAPE.length(); i++ ) {
+			char expected = DATE_SHAPE.charAt(i);
+			char c = value.charAt(year + i);
+			
+			if ( expected == '0' ? !isDigit(c) : c != expected ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 
+	 * Checks the shape {@code -?[0-9]+[.0-9]*}.
+	 * 
+	 */
+	private static boolean isNumber(String value) {
+		
+		int start = !value.isEmpty() && value.charAt(0) == '-' ? 1 : 0;
+		if ( start >= value.length() || !isDigit(value.charAt(start)) ) {
+			return false;
+		}
+		
+		for ( int i = start + 1; i < value.length(); i++ ) {
+			char c = value.charAt(i);
+			if ( !isDigit(c) && c != '.' ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 
+	 * Parses a value with the shape {@code -?[0-9]+[.0-9]*} independently of the default locale.
+	 * Integral values that fit are returned as {@code Long}, any other value as {@code Double}.
+	 * Parsing stops at a second decimal point.
+	 * 
+	 */
+	private static Number parseNumber(String value) {
+		
+		boolean negative = value.charAt(0) == '-';
+		int point = value.indexOf('.');
+		int end = point < 0 ? value.length() : value.indexOf('.', point + 1);
+		end = end < 0 ? value.length() : end;
+		
+		boolean integral = true;
+		for ( int i = point + 1; point >= 0 && i < end; i++ ) {
+			if ( value.charAt(i) != '0' ) {
+				integral = false;
+				break;
+			}
+		}
+		
+		if ( integral ) {
+			
+			long result = 0;
+			boolean fits = true;
+			for ( int i = negative ? 1 : 0; i < (point < 0 ? end : point); i++ ) {
+				
+				int digit = value.charAt(i) - '0';
+				if ( result < (Long.MIN_VALUE + digit) / 10 ) {
+					fits = false;
+					break;
+				}
+				result = result * 10 - digit;
+			}
+			
+			if ( fits && result == 0 && negative ) {
+				return -0.0d;
+			}
+			
+			if ( fits && (negative || result != Long.MIN_VALUE) ) {
+				return negative ? result : -result;
+			}
+		}
+		
+		return Double.parseDouble(value.substring(0, end));
+	}
+	
+	/**
+	 * 
+	 * Returns the position of the slash that closes a {@code /pattern/flags} value, or {@code -1}.
+	 * 
+	 */
+	static int getRegExpEnd(String value) {
+		
+		if ( value.length() < 2 || value.charAt(0) != '/' ) {
+			return -1;
+		}
+		
+		int end = value.lastIndexOf('/');
+		if ( end == 0 ) {
+			return -1;
+		}
+		
+		for ( int i = end + 1; i < value.length(); i++ ) {
+			if ( "igmsx".indexOf(value.charAt(i)) < 0 ) {
+				return -1;
+			}
+		}
+		
+		for ( int i = 1; i < end; i++ ) {
+			char c = value.charAt(i);
+			if ( c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029' ) {
+				return -1;
+			}
+		}
+		
+		return end;
+	}
+	
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+	
+    private static Instant parseLocalDateTime(String value) {
+
+    	return parseLocalDateTime(value, DATE_FORMATTER);
+    }
+    
+    static Instant parseLocalDateTime(String value, DateTimeFormatter formatter) {
+    	
+    	return LocalDateTime.parse(value, formatter).toInstant(ZoneOffset.UTC);
+    }
+    
+}
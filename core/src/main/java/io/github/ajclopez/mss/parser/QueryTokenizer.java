@@ -0,0 +1,444 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import io.github.ajclopez.mss.pattern.SearchPatterns;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Single-pass tokenizer for the conditions of a search query.
+ *
+ * <p>It splits the query on {@code &} and every condition into its prefix, key, operator and value, the same as
+ * {@link QueryParser#criteriaParser(String, Map)} does with {@code OPERATOR_PATTERN}, without regular expressions and
+ * without creating intermediate {@code String} instances. Conditions without percent-encoded characters are read in
+ * place, the others are decoded into a buffer reused by the whole query. A {@code +} is kept as is instead of being
+ * decoded as a space.</p>
+ *
+ * <p>Raw queries can also be read from a {@code byte[]} or a {@link ByteBuffer}, decoded as UTF-8, so servers can
+ * tokenize the request line without building a {@code String} first. Empty conditions, such as the one in
+ * {@code a=1&&b=2}, are ignored.</p>
+ *
+ */
+public class QueryTokenizer {
+
+	/**
+	 *
+	 * Receives the conditions found by the tokenizer. Slices are positions of {@code source}, which is only valid during
+	 * the call: the buffer of decoded conditions is reused for the next one.
+	 *
+	 */
+	@FunctionalInterface
+	public interface Handler {
+
+		/**
+		 *
+		 * Receives a condition of the query.
+		 *
+		 * @param source the characters of the condition.
+		 * @param prefix {@code true} when the key is preceded by {@code !}.
+		 * @param keyStart position of the first character of the key.
+		 * @param keyEnd position after the last character of the key.
+		 * @param operation the operator of the condition, {@link SearchOperation#EXISTS} when there is none.
+		 * @param valueStart position of the first character of the value.
+		 * @param valueEnd position after the last character of the value.
+		 */
+		void condition(CharSequence source, boolean prefix, int keyStart, int keyEnd, SearchOperation operation, int valueStart, int valueEnd);
+
+	}
+
+	private final Handler handler;
+
+	private StringBuilder buffer;
+	private byte[] bytes;
+
+	private QueryTokenizer(Handler handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 *
+	 * Splits a search query into a list of criteria.
+	 *
+	 * @param query the search query, for example {@code name=John&age>30}.
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @return a list of {@link SearchCriteria} used to build MongoDB queries.
+	 * @throws ArgumentNotValidException Exception to be thrown when a condition is not valid.
+	 */
+	public static List<SearchCriteria> tokenize(CharSequence query, Map<String, CastType> casters) throws ArgumentNotValidException {
+
+		List<SearchCriteria> criterias = new ArrayList<>();
+		scan(query, collector(criterias, casters));
+
+		return criterias;
+	}
+
+	/**
+	 *
+	 * Splits a raw search query, encoded as UTF-8, into a list of criteria.
+	 *
+	 * @param query the bytes of the search query.
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @return a list of {@link SearchCriteria} used to build MongoDB queries.
+	 * @throws ArgumentNotValidException Exception to be thrown when a condition is not valid.
+	 */
+	public static List<SearchCriteria> tokenize(byte[] query, Map<String, CastType> casters) throws ArgumentNotValidException {
+		return tokenize(ByteBuffer.wrap(query), casters);
+	}
+
+	/**
+	 *
+	 * Splits a raw search query, encoded as UTF-8, into a list of criteria. The bytes from the position to the limit of
+	 * the buffer are read, the position is not changed.
+	 *
+	 * @param query the bytes of the search query.
+	 * @param casters object which map keys to casters ({@code BOOLEAN, NUMBER, PATTERN, DATE, STRING}).
+	 * @return a list of {@link SearchCriteria} used to build MongoDB queries.
+	 * @throws ArgumentNotValidException Exception to be thrown when a condition is not valid.
+	 */
+	public static List<SearchCriteria> tokenize(ByteBuffer query, Map<String, CastType> casters) throws ArgumentNotValidException {
+
+		List<SearchCriteria> criterias = new ArrayList<>();
+		scan(query, collector(criterias, casters));
+
+		return criterias;
+	}
+
+	/**
+	 *
+	 * Sends every condition of a search query to handler.
+	 *
+	 * @param query the search query, for example {@code name=John&age>30}.
+	 * @param handler receives the conditions.
+	 * @throws ArgumentNotValidException Exception to be thrown when a condition is not valid.
+	 */
+	public static void scan(CharSequence query, Handler handler) throws ArgumentNotValidException {
+		new QueryTokenizer(handler).chars(query);
+	}
+
+	/**
+	 *
+	 * Sends every condition of a raw search query, encoded as UTF-8, to handler. The bytes from the position to the
+	 * limit of the buffer are read, the position is not changed.
+	 *
+	 * @param query the bytes of the search query.
+	 * @param handler receives the conditions.
+	 * @throws ArgumentNotValidException Exception to be thrown when a condition is not valid.
+	 */
+	public static void scan(ByteBuffer query, Handler handler) throws ArgumentNotValidException {
+		new QueryTokenizer(handler).bytes(query);
+	}
+
+	/**
+	 *
+	 * Returns whether a raw search query only holds whitespace, the same as {@code String.trim().isEmpty()}.
+	 *
+	 * @param query the bytes of the search query.
+	 * @return {@code true} when the query is {@code null}, empty or blank.
+	 */
+	public static boolean isBlank(ByteBuffer query) {
+
+		if ( query == null ) {
+			return true;
+		}
+
+		for ( int i = query.position(); i < query.limit(); i++ ) {
+			if ( (query.get(i) & 0xFF) > ' ' ) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static Handler collector(List<SearchCriteria> criterias, Map<String, CastType> casters) {
+		return (source, prefix, keyStart, keyEnd, operation, valueStart, valueEnd) -> {
+			String key = source.subSequence(keyStart, keyEnd).toString();
+			String value = source.subSequence(valueStart, valueEnd).toString();
+			CastType caster = casters != null ? casters.get(key) : null;
+
+			criterias.add(new SearchCriteria(prefix, key, operation, value, caster));
+		};
+	}
+
+	/**
+	 *
+	 * Finds the end of every condition, the position of its operator and its last line terminator in one pass.
+	 * Conditions with percent-encoded characters are decoded first, an encoded operator is still an operator.
+	 *
+	 */
+	private void chars(CharSequence query) {
+
+		int start = 0;
+		int operator = -1;
+		int terminator = -1;
+		boolean encoded = false;
+
+		for ( int i = 0; i <= query.length(); i++ ) {
+
+			char c = i < query.length() ? query.charAt(i) : '&';
+
+			if ( c == '&' ) {
+				if ( encoded ) {
+					decode(query, start, i);
+					condition(buffer, 0, buffer.length());
+				} else {
+					condition(query, start, i, operator, terminator);
+				}
+
+				start = i + 1;
+				operator = -1;
+				terminator = -1;
+				encoded = false;
+			} else if ( c == '%' ) {
+				encoded = true;
+			} else if ( operator < 0 && isOperator(c) && !(c == '!' && i == start) ) {
+				operator = i;
+			} else if ( SearchPatterns.isLineTerminator(c) ) {
+				terminator = i;
+			}
+		}
+	}
+
+	private void bytes(ByteBuffer query) {
+
+		int start = query.position();
+
+		for ( int i = query.position(); i <= query.limit(); i++ ) {
+
+			if ( i < query.limit() && query.get(i) != '&' ) {
+				continue;
+			}
+
+			decode(query, start, i);
+			condition(buffer, 0, buffer.length());
+
+			start = i + 1;
+		}
+	}
+
+	private void condition(CharSequence source, int start, int end) {
+
+		int operator = -1;
+		int terminator = -1;
+
+		for ( int i = start; i < end; i++ ) {
+
+			char c = source.charAt(i);
+
+			if ( operator < 0 && isOperator(c) && !(c == '!' && i == start) ) {
+				operator = i;
+			} else if ( SearchPatterns.isLineTerminator(c) ) {
+				terminator = i;
+			}
+		}
+
+		condition(source, start, end, operator, terminator);
+	}
+
+	/**
+	 *
+	 * Splits a condition the same as {@code (!?)([^><!=]+)([><]=?|!?=|)(.*)}: the key ends at the first operator
+	 * character and a {@code !} that is not followed by {@code =} starts the value of an {@code EXISTS} condition.
+	 *
+	 */
+	private void condition(CharSequence source, int start, int end, int operator, int terminator) {
+
+		if ( start == end ) {
+			return;
+		}
+
+		boolean prefix = source.charAt(start) == '!';
+		int keyStart = prefix ? start + 1 : start;
+		int keyEnd = operator < 0 ? end : operator;
+
+		if ( keyEnd <= keyStart ) {
+			throw invalid(source, start, end);
+		}
+
+		int valueStart = keyEnd;
+		SearchOperation operation = SearchOperation.EXISTS;
+
+		if ( keyEnd < end ) {
+
+			char c = source.charAt(keyEnd);
+			boolean equal = keyEnd + 1 < end && source.charAt(keyEnd + 1) == '=';
+
+			if ( c == '>' ) {
+				operation = equal ? SearchOperation.GREATER_THAN_EQUAL : SearchOperation.GREATER_THAN;
+				valueStart = equal ? keyEnd + 2 : keyEnd + 1;
+			} else if ( c == '<' ) {
+				operation = equal ? SearchOperation.LESS_THAN_EQUAL : SearchOperation.LESS_THAN;
+				valueStart = equal ? keyEnd + 2 : keyEnd + 1;
+			} else if ( c == '=' ) {
+				operation = SearchOperation.EQUAL;
+				valueStart = keyEnd + 1;
+			} else if ( equal ) {
+				operation = SearchOperation.NOT_EQUAL;
+				valueStart = keyEnd + 2;
+			}
+		}
+
+		if ( terminator >= valueStart ) {
+			throw invalid(source, start, end);
+		}
+
+		handler.condition(source, prefix, keyStart, keyEnd, operation, valueStart, end);
+	}
+
+	/**
+	 *
+	 * Decodes a condition into the buffer. Consecutive escapes are decoded together as UTF-8, the same as
+	 * {@link java.net.URLDecoder}.
+	 *
+	 */
+	private void decode(CharSequence query, int start, int end) {
+
+		StringBuilder builder = buffer();
+		int i = start;
+
+		while ( i < end ) {
+
+			char c = query.charAt(i);
+
+			if ( c != '%' ) {
+				builder.append(c);
+				i++;
+				continue;
+			}
+
+			int count = 0;
+
+			while ( i < end && query.charAt(i) == '%' ) {
+				bytes(count + 1)[count++] = (byte) escape(query, start, end, i);
+				i += 3;
+			}
+
+			appendUtf8(builder, count);
+		}
+	}
+
+	/**
+	 *
+	 * Decodes a raw condition into the buffer. Raw and escaped bytes are both read as UTF-8.
+	 *
+	 */
+	private void decode(ByteBuffer query, int start, int end) {
+
+		StringBuilder builder = buffer();
+		int count = 0;
+		int i = start;
+
+		while ( i < end ) {
+
+			int b = query.get(i) & 0xFF;
+
+			if ( b == '%' ) {
+				b = escape(query, start, end, i);
+				i += 3;
+			} else {
+				i++;
+			}
+
+			if ( b < 0x80 ) {
+				appendUtf8(builder, count);
+				count = 0;
+				builder.append((char) b);
+			} else {
+				bytes(count + 1)[count++] = (byte) b;
+			}
+		}
+
+		appendUtf8(builder, count);
+	}
+
+	private void appendUtf8(StringBuilder builder, int count) {
+
+		if ( count == 0 ) {
+			return;
+		}
+
+		boolean ascii = true;
+		for ( int i = 0; i < count && ascii; i++ ) {
+			ascii = bytes[i] >= 0;
+		}
+
+		if ( !ascii ) {
+			builder.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+			return;
+		}
+
+		for ( int i = 0; i < count; i++ ) {
+			builder.append((char) bytes[i]);
+		}
+	}
+
+	private int escape(CharSequence query, int start, int end, int position) {
+
+		int high = position + 1 < end ? Character.digit(query.charAt(position + 1), 16) : -1;
+		int low = position + 2 < end ? Character.digit(query.charAt(position + 2), 16) : -1;
+
+		if ( high < 0 || low < 0 ) {
+			throw malformed(query.subSequence(start, end), position);
+		}
+
+		return (high << 4) | low;
+	}
+
+	private int escape(ByteBuffer query, int start, int end, int position) {
+
+		int high = position + 1 < end ? Character.digit(query.get(position + 1), 16) : -1;
+		int low = position + 2 < end ? Character.digit(query.get(position + 2), 16) : -1;
+
+		if ( high < 0 || low < 0 ) {
+			byte[] condition = new byte[end - start];
+			query.get(start, condition);
+			throw malformed(new String(condition, StandardCharsets.UTF_8), position - query.position());
+		}
+
+		return (high << 4) | low;
+	}
+
+	private StringBuilder buffer() {
+
+		if ( buffer == null ) {
+			buffer = new StringBuilder();
+		}
+
+		buffer.setLength(0);
+		return buffer;
+	}
+
+	private byte[] bytes(int size) {
+
+		if ( bytes == null || bytes.length < size ) {
+			byte[] grown = new byte[Math.max(size, bytes == null ? 16 : bytes.length * 2)];
+			if ( bytes != null ) {
+				System.arraycopy(bytes, 0, grown, 0, bytes.length);
+			}
+			bytes = grown;
+		}
+
+		return bytes;
+	}
+
+	private static boolean isOperator(char c) {
+		return c == '>' || c == '<' || c == '!' || c == '=';
+	}
+
+	private static ArgumentNotValidException invalid(CharSequence source, int start, int end) {
+		return new ArgumentNotValidException(String.format("condition '%s' is not valid.", source.subSequence(start, end)));
+	}
+
+	private static ArgumentNotValidException malformed(CharSequence condition, int position) {
+		return new ArgumentNotValidException(String.format("condition '%s' is not valid: malformed escape at position %s.", condition, position));
+	}
+
+}
@@ -0,0 +1,421 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.FilterLimits;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.model.SearchOperation;
+
+import java.util.List;
+
+/**
+ *
+ * Single-pass recursive-descent parser for the {@code filter} key of advanced queries.
+ *
+ * <p>It accepts the same language as {@code Query.g4}: tokens are matched with the longest match rule and ties are
+ * resolved in the order the lexer rules are declared, {@code AND} and {@code OR} have the same precedence and are left
+ * associative. The tree of logical operations is built while parsing, without a parse tree.</p>
+ *
+ */
+public class RecursiveDescentFilterParser {
+
+	private static final int EOF = -1;
+	private static final int STRING = 1;
+	private static final int AND = 2;
+	private static final int OR = 3;
+	private static final int LPAREN = 4;
+	private static final int RPAREN = 5;
+	private static final int EQ = 6;
+	private static final int NE = 7;
+	private static final int GT = 8;
+	private static final int GTE = 9;
+	private static final int LT = 10;
+	private static final int LTE = 11;
+	private static final int IDENTIFIER = 12;
+	private static final int NEG_IDENTIFIER = 13;
+	private static final int ENCODED_STRING = 14;
+	private static final int LINE_TERMINATOR = 15;
+	private static final int WS = 16;
+
+	private final String input;
+	private final FieldCodecs codecs;
+	private final CostGuard guard;
+	private final InputGuard inputGuard;
+
+	private int position;
+	private int tokenType;
+	private int tokenStart;
+	private int tokenEnd;
+
+	private RecursiveDescentFilterParser(String input, FieldCodecs codecs, CostGuard guard, InputGuard inputGuard) {
+		this.input = input;
+		this.codecs = codecs != null ? codecs : FieldCodecs.of(null);
+		this.guard = guard != null ? guard : new CostGuard(null);
+		this.inputGuard = inputGuard;
+	}
+
+	/**
+	 *
+	 * Parses an advanced query with logical operators.
+	 *
+	 * @param input the advanced query, for example {@code (country=Mexico OR country=Spain) and gender=female}.
+	 * @param codecs table of codecs per field, {@code null} to infer the type of every value.
+	 * @return the tree of logical operations.
+	 * @throws ArgumentNotValidException Exception to be thrown when the query is not valid.
+	 */
+	public static FilterNode parse(String input, FieldCodecs codecs) throws ArgumentNotValidException {
+		return parse(input, codecs, null);
+	}
+
+	/**
+	 *
+	 * Parses an advanced query with logical operators, enforcing the cost policy of {@code guard} while parsing.
+	 *
+	 * @param input the advanced query, for example {@code (country=Mexico OR country=Spain) and gender=female}.
+	 * @param codecs table of codecs per field, {@code null} to infer the type of every value.
+	 * @param guard the cost guard of the query, {@code null} for no limits.
+	 * @return the tree of logical operations.
+	 * @throws ArgumentNotValidException Exception to be thrown when the query is not valid or exceeds its cost policy.
+	 */
+	public static FilterNode parse(String input, FieldCodecs codecs, CostGuard guard) throws ArgumentNotValidException {
+		return parse(input, codecs, guard, null);
+	}
+
+	/**
+	 *
+	 * Parses an advanced query with logical operators, enforcing the cost policy of {@code guard} and the limits of the
+	 * strict parser while parsing. Errors already stop at the first invalid token, the limits also bound the length,
+	 * the tokens and the nesting depth of the query.
+	 *
+	 * @param input the advanced query, for example {@code (country=Mexico OR country=Spain) and gender=female}.
+	 * @param codecs table of codecs per field, {@code null} to infer the type of every value.
+	 * @param guard the cost guard of the query, {@code null} for no limits.
+	 * @param limits the limits of the query, {@code null} for no limits.
+	 * @return the tree of logical operations.
+	 * @throws ArgumentNotValidException Exception to be thrown when the query is not valid or exceeds its limits.
+	 */
+	public static FilterNode parse(String input, FieldCodecs codecs, CostGuard guard, FilterLimits limits) throws ArgumentNotValidException {
+
+		RecursiveDescentFilterParser parser = new RecursiveDescentFilterParser(input, codecs, guard, InputGuard.of(input, limits));
+		parser.nextToken();
+
+		FilterNode node = parser.query();
+		parser.expect(EOF);
+
+		return node;
+	}
+
+	private FilterNode query() {
+
+		FilterNode left = term();
+
+		while ( tokenType == AND || tokenType == OR ) {
+
+			LogicalOperation operation = tokenType == OR ? LogicalOperation.OR : LogicalOperation.AND;
+			if ( operation == LogicalOperation.OR ) {
+				guard.or();
+			} else {
+				guard.and();
+			}
+			nextToken();
+			FilterNode right = term();
+
+			left = new FilterNode.Logical(operation, List.of(left, right));
+		}
+
+		return left;
+	}
+
+	private FilterNode term() {
+
+		if ( tokenType == LPAREN ) {
+			if ( inputGuard != null ) {
+				inputGuard.enter(tokenStart);
+			}
+			guard.enter();
+			nextToken();
+			FilterNode node = query();
+			expect(RPAREN);
+			guard.exit();
+			if ( inputGuard != null ) {
+				inputGuard.exit();
+			}
+
+			return node;
+		}
+
+		return criteria();
+	}
+
+	private FilterNode criteria() {
+
+		if ( tokenType != IDENTIFIER && tokenType != NEG_IDENTIFIER ) {
+			throw error();
+		}
+
+		boolean prefix = tokenType == NEG_IDENTIFIER;
+		String key = input.substring(prefix ? tokenStart + 1 : tokenStart, tokenEnd);
+		nextToken();
+
+		SearchOperation operation = operation();
+
+		if ( operation == null ) {
+			guard.condition(SearchOperation.EXISTS, "", null);
+			return new FilterNode.Condition(codecs.criteria(prefix, key, SearchOperation.EXISTS, ""));
+		}
+
+		nextToken();
+
+		if ( tokenType != IDENTIFIER && tokenType != STRING && tokenType != ENCODED_STRING ) {
+			throw error();
+		}
+
+		String value = input.substring(tokenStart, tokenEnd);
+		value = tokenType == STRING ? QueryParser.unquote(value) : QueryParser.decode(value);
+		guard.condition(operation, value, codecs.get(key));
+		nextToken();
+
+		return new FilterNode.Condition(codecs.criteria(prefix, key, operation, value));
+	}
+
+	private SearchOperation operation() {
+        return switch (tokenType) {
+            case EQ -> SearchOperation.EQUAL;
+            case NE -> SearchOperation.NOT_EQUAL;
+            case GT -> SearchOperation.GREATER_THAN;
+            case GTE -> SearchOperation.GREATER_THAN_EQUAL;
+            case LT -> SearchOperation.LESS_THAN;
+            case LTE -> SearchOperation.LESS_THAN_EQUAL;
+            default -> null;
+        };
+	}
+
+	private void expect(int type) {
+
+		if ( tokenType != type ) {
+			throw error();
+		}
+
+		nextToken();
+	}
+
+	private ArgumentNotValidException error() {
+
+		String found = tokenType == EOF ? "end of input" : String.format("'%s'", input.substring(tokenStart, tokenEnd));
+
+		return new ArgumentNotValidException(String.format("filter '%s' is not valid: unexpected %s at position %s.", input, found, tokenStart));
+	}
+
+	/**
+	 *
+	 * Moves to the next token that is not skipped or sent to the hidden channel.
+	 *
+	 */
+	private void nextToken() {
+
+		do {
+			tokenStart = position;
+
+			if ( position >= input.length() ) {
+				tokenType = EOF;
+				tokenEnd = position;
+				return;
+			}
+
+			matchToken();
+			position = tokenEnd;
+
+		} while ( tokenType == WS || tokenType == LINE_TERMINATOR );
+
+		if ( inputGuard != null ) {
+			inputGuard.token(tokenStart);
+		}
+	}
+
+	/**
+	 *
+	 * Finds the longest token starting at the current position. On equal lengths the first declared rule wins.
+	 *
+	 */
+	private void matchToken() {
+
+		tokenType = 0;
+		tokenEnd = position;
+
+		candidate(STRING, matchString());
+		candidate(AND, matchKeyword("AND", "and"));
+		candidate(OR, matchKeyword("OR", "or"));
+		candidate(LPAREN, matchChar('('));
+		candidate(RPAREN, matchChar(')'));
+		candidate(EQ, matchChar('='));
+		candidate(NE, matchOperator('!', '='));
+		candidate(GT, matchChar('>'));
+		candidate(GTE, matchOperator('>', '='));
+		candidate(LT, matchChar('<'));
+		candidate(LTE, matchOperator('<', '='));
+		candidate(IDENTIFIER, matchIdentifier(position));
+		candidate(NEG_IDENTIFIER, matchNegIdentifier());
+		candidate(ENCODED_STRING, matchEncodedString());
+		candidate(LINE_TERMINATOR, matchLineTerminator());
+		candidate(WS, matchWhitespace());
+
+		if ( tokenType == 0 ) {
+			tokenEnd = position + 1;
+			throw new ArgumentNotValidException(String.format("filter '%s' is not valid: unexpected character '%s' at position %s.", input, input.charAt(position), position));
+		}
+	}
+
+	private void candidate(int type, int length) {
+
+		if ( length > tokenEnd - position ) {
+			tokenType = type;
+			tokenEnd = position + length;
+		}
+	}
+
+	private int matchChar(char c) {
+		return input.charAt(position) == c ? 1 : 0;
+	}
+
+	private int matchOperator(char first, char second) {
+		return input.charAt(position) == first && position + 1 < input.length() && input.charAt(position + 1) == second ? 2 : 0;
+	}
+
+	private int matchKeyword(String upper, String lower) {
+		return input.startsWith(upper, position) || input.startsWith(lower, position) ? upper.length() : 0;
+	}
+
+	private int matchIdentifier(int start) {
+
+		int i = start;
+		while ( i < input.length() && isIdentifierChar(input.charAt(i)) ) {
+			i++;
+		}
+
+		return i - start;
+	}
+
+	private int matchNegIdentifier() {
+
+		if ( input.charAt(position) != '!' ) {
+			return 0;
+		}
+
+		int length = matchIdentifier(position + 1);
+		return length > 0 ? length + 1 : 0;
+	}
+
+	private int matchEncodedString() {
+
+		int i = position;
+		while ( i < input.length() && isEncodedChar(input.charAt(i)) ) {
+			i++;
+		}
+
+		return i - position;
+	}
+
+	private int matchLineTerminator() {
+
+		char c = input.charAt(position);
+		return c == '\r' || c == '\n' || c == '\u2028' || c == '\u2029' ? 1 : 0;
+	}
+
+	private int matchWhitespace() {
+
+		int i = position;
+		while ( i < input.length() && " \t\r\n".indexOf(input.charAt(i)) >= 0 ) {
+			i++;
+		}
+
+		return i - position;
+	}
+
+	/**
+	 *
+	 * Matches {@code '\'' StringCharacter* '\''}. A quote is also a valid string character, so the longest match ends
+	 * at the last quote found before an invalid character.
+	 *
+	 */
+	private int matchString() {
+
+		if ( input.charAt(position) != '\'' ) {
+			return 0;
+		}
+
+		int length = 0;
+		int i = position + 1;
+
+		while ( i < input.length() ) {
+
+			char c = input.charAt(i);
+
+			if ( c == '"' || c == '\r' || c == '\n' ) {
+				break;
+			}
+
+			if ( c == '\\' ) {
+				int escape = matchEscape(i + 1);
+				if ( escape == 0 ) {
+					break;
+				}
+
+				i += escape + 1;
+				continue;
+			}
+
+			i++;
+
+			if ( c == '\'' ) {
+				length = i - position;
+			}
+		}
+
+		return length;
+	}
+
+	private int matchEscape(int start) {
+
+		if ( start >= input.length() ) {
+			return 0;
+		}
+
+		char c = input.charAt(start);
+
+		switch (c) {
+		case 'x':
+			return isHexDigits(start + 1, 2) ? 3 : 0;
+		case 'u':
+			return isHexDigits(start + 1, 4) ? 5 : 0;
+		case '\r':
+			return start + 1 < input.length() && input.charAt(start + 1) == '\n' ? 2 : 1;
+		default:
+			return c >= '0' && c <= '9' ? 0 : 1;
+		}
+	}
+
+	private boolean isHexDigits(int start, int count) {
+
+		if ( start + count > input.length() ) {
+			return false;
+		}
+
+		for ( int i = start; i < start + count; i++ ) {
+			char c = input.charAt(i);
+			if ( !((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) ) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean isIdentifierChar(char c) {
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == ':' || c == '_' || c == '-';
+	}
+
+	private static boolean isEncodedChar(char c) {
+		return " \\[]<>!=()".indexOf(c) < 0;
+	}
+
+}
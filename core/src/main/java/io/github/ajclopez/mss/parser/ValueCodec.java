@@ -0,0 +1,23 @@
+package io.github.ajclopez.mss.parser;
+
+/**
+ * 
+ * Converts the raw value of a condition into the object used in the MongoDB query.
+ * 
+ * <p>Implementations must be stateless or immutable because the same codec is shared by every query compiled with a
+ * {@link io.github.ajclopez.mss.model.Configuration}.</p>
+ *
+ */
+@FunctionalInterface
+public interface ValueCodec {
+
+	/**
+	 * 
+	 * Converts the value.
+	 * 
+	 * @param value the decoded value of the condition.
+	 * @return the object used in the MongoDB query.
+	 */
+	Object decode(String value);
+	
+}
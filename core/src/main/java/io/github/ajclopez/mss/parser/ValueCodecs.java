@@ -0,0 +1,129 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 
+ * Reusable {@link ValueCodec} instances for the built-in types.
+ *
+ */
+public class ValueCodecs {
+
+	/**
+	 * Infers the type of the value: {@code Number, Date, Boolean, RegExp, ObjectId, String, List}.
+	 */
+	public static final ValueCodec AUTO = QueryParser::parseValue;
+	
+	/**
+	 * Keeps the value as a {@code String}.
+	 */
+	public static final ValueCodec STRING = value -> value;
+	
+	/**
+	 * Converts the value with {@link Boolean#parseBoolean(String)}.
+	 */
+	public static final ValueCodec BOOLEAN = Boolean::parseBoolean;
+	
+	/**
+	 * Converts the value into a {@code Long} when it is integral and fits, otherwise into a {@code Number}.
+	 */
+	public static final ValueCodec NUMBER = value -> QueryParser.parseNumber(value, false);
+	
+	/**
+	 * Converts the value into a {@code Long}.
+	 */
+	public static final ValueCodec LONG = value -> {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new ArgumentNotValidException(String.format("'%s' cannot be cast to long.", value));
+		}
+	};
+	
+	/**
+	 * Converts the value into a {@code Double}.
+	 */
+	public static final ValueCodec DOUBLE = value -> QueryParser.parseNumber(value, true).doubleValue();
+	
+	/**
+	 * Converts the value into a {@link Decimal128} without losing precision.
+	 */
+	public static final ValueCodec DECIMAL128 = value -> {
+		try {
+			return new Decimal128(new BigDecimal(value));
+		} catch (NumberFormatException e) {
+			throw new ArgumentNotValidException(String.format("'%s' cannot be cast to decimal128.", value));
+		}
+	};
+	
+	/**
+	 * Converts the value into an {@code Instant} using the {@code yyyy-MM-dd'T'HH:mm:ss.SSS'Z'} format.
+	 */
+	public static final ValueCodec DATE = date(QueryParser.DATE_FORMATTER);
+	
+	/**
+	 * Converts the value into a {@code Pattern}, for example {@code /^mex/i}.
+	 */
+	public static final ValueCodec PATTERN = QueryParser::parsePattern;
+	
+	/**
+	 * Converts the value into an {@code ObjectId}.
+	 */
+	public static final ValueCodec OBJECT_ID = ObjectId::new;
+	
+	/**
+	 * Converts the value into a {@code UUID}.
+	 */
+	public static final ValueCodec UUID = value -> {
+		try {
+			return java.util.UUID.fromString(value);
+		} catch (IllegalArgumentException e) {
+			throw new ArgumentNotValidException(String.format("'%s' cannot be cast to uuid.", value));
+		}
+	};
+	
+	private ValueCodecs() {
+		
+	}
+	
+	/**
+	 * 
+	 * Creates a codec that converts the value into an {@code Instant} with the given formatter. The date is read in UTC.
+	 * 
+	 * @param formatter the formatter of the dates.
+	 * @return the codec.
+	 */
+	public static ValueCodec date(DateTimeFormatter formatter) {
+		return value -> QueryParser.parseLocalDateTime(value, formatter);
+	}
+	
+	/**
+	 * 
+	 * Returns the codec of a caster.
+	 * 
+	 * @param caster the caster, {@code null} to infer the type of the value.
+	 * @return the codec.
+	 */
+	public static ValueCodec of(CastType caster) {
+		
+		if ( caster == null ) {
+			return AUTO;
+		}
+		
+		return switch (caster) {
+			case BOOLEAN -> BOOLEAN;
+			case DATE -> DATE;
+			case NUMBER -> NUMBER;
+			case PATTERN -> PATTERN;
+			case OBJECT_ID -> OBJECT_ID;
+			case STRING -> STRING;
+		};
+	}
+	
+}
@@ -46,16 +46,40 @@ public class SearchPatterns {
     	return numberPattern;
     }
     
+    /**
+     * 
+     * Returns whether {@code c} ends a line, that is a character not matched by {@code .} in the patterns of this class.
+     * 
+     * @param c the character.
+     * @return {@code true} for the line terminators of {@link Pattern}.
+     */
+    public static boolean isLineTerminator(char c) {
+    	return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+    
     public static int getFlags(String options) {
     	
-    	int flags = 0x00;
-    	
-    	if ( options == null || options.isEmpty() ) {
-    		return flags;
+    	if ( options == null ) {
+    		return 0x00;
     	}
     	
-    	for ( int i = 0; i < options.split("").length; i++ ) {
-            flags = switch (options.charAt(i)) {
+    	return getFlags(options, 0);
+    }
+    
+    /**
+     * 
+     * Decodes the regular expression flags found from {@code start} to the end of {@code value}.
+     * 
+     * @param value the value that contains the flags, for example {@code /^mex/i}.
+     * @param start position of the first flag.
+     * @return the flags of {@link Pattern}.
+     */
+    public static int getFlags(String value, int start) {
+    	
+    	int flags = 0x00;
+    	
+    	for ( int i = start; i < value.length(); i++ ) {
+            flags = switch (value.charAt(i)) {
                 case 'i' -> flags | Pattern.CASE_INSENSITIVE;
                 case 'g' -> flags | Pattern.LITERAL;
                 case 'm' -> flags | Pattern.MULTILINE;
@@ -0,0 +1,151 @@
+package io.github.ajclopez.mss.stream;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.StreamOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 
+ * Executes search queries as lazily consumed streams backed by {@link MongoOperations#stream(Query, Class)}.
+ * 
+ * <p>Documents are read from the server cursor in batches while the stream is consumed, instead of loading the whole
+ * result in memory. The cursor stays open until the stream is exhausted or closed, so streams that may be left before
+ * their end must be closed, for example with try-with-resources. Queries marked as always empty by the
+ * {@code emptyQueryCheck} of the configuration return an empty stream without opening a cursor.</p>
+ *
+ */
+public class SearchStreams {
+
+	private SearchStreams() {
+		
+	}
+	
+	/**
+	 * 
+	 * Executes query against the collection of entityClass.
+	 * 
+	 * @param <T> the type of the documents returned.
+	 * @param operations the template used to execute the query.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents returned.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and limit caps of the stream.
+	 * @return a stream that closes the server cursor when it is closed.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static <T> Stream<T> stream(MongoOperations operations, String query, Class<T> entityClass, Optional<Configuration> configuration, StreamOptions options) throws ArgumentNotValidException {
+		
+		CompiledQuery compiled = compile(query, configuration, options);
+		
+		return compiled.alwaysEmpty() ? Stream.empty() : operations.stream(toQuery(compiled, options), entityClass);
+	}
+	
+	/**
+	 * 
+	 * Executes query against the given collection.
+	 * 
+	 * @param <T> the type of the documents returned.
+	 * @param operations the template used to execute the query.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents returned.
+	 * @param collectionName the name of the collection.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and limit caps of the stream.
+	 * @return a stream that closes the server cursor when it is closed.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static <T> Stream<T> stream(MongoOperations operations, String query, Class<T> entityClass, String collectionName, Optional<Configuration> configuration, StreamOptions options) throws ArgumentNotValidException {
+		
+		CompiledQuery compiled = compile(query, configuration, options);
+		
+		return compiled.alwaysEmpty() ? Stream.empty() : operations.stream(toQuery(compiled, options), entityClass, collectionName);
+	}
+	
+	/**
+	 * 
+	 * Executes query against the collection of entityClass and returns an iterator over its documents.
+	 * 
+	 * @param <T> the type of the documents returned.
+	 * @param operations the template used to execute the query.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents returned.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and limit caps of the stream.
+	 * @return an iterator that closes the server cursor when it is closed.
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static <T> CloseableIterator<T> iterator(MongoOperations operations, String query, Class<T> entityClass, Optional<Configuration> configuration, StreamOptions options) throws ArgumentNotValidException {
+		return iterator(stream(operations, query, entityClass, configuration, options));
+	}
+	
+	/**
+	 * 
+	 * Converts query into a MongoDB query object with the cursor options of a stream.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and limit caps of the stream.
+	 * @return MongoDB Query
+	 * @throws ArgumentNotValidException Exception to be thrown when an argument fails.
+	 */
+	public static Query toQuery(String query, Optional<Configuration> configuration, StreamOptions options) throws ArgumentNotValidException {
+		return toQuery(compile(query, configuration, options), options);
+	}
+	
+	private static CompiledQuery compile(String query, Optional<Configuration> configuration, StreamOptions options) {
+		
+		StreamOptions streamOptions = options != null ? options : StreamOptions.defaults();
+		
+		if ( streamOptions.ignoreLimitCaps() ) {
+			// a configuration created per call would only fill the cache with entries that are never found again
+			configuration = configuration.map(config -> config.withLimits(null, null).withQueryCache(null));
+		}
+		
+		return MongoSpringSearch.compile(query, configuration);
+	}
+	
+	private static Query toQuery(CompiledQuery compiled, StreamOptions options) {
+		
+		StreamOptions streamOptions = options != null ? options : StreamOptions.defaults();
+		Query mongoQuery = compiled.toQuery();
+		
+		if ( streamOptions.batchSize() != null ) {
+			mongoQuery.cursorBatchSize(streamOptions.batchSize());
+		}
+		
+		return mongoQuery;
+	}
+	
+	private static <T> CloseableIterator<T> iterator(Stream<T> stream) {
+		
+		Iterator<T> iterator = stream.iterator();
+		
+		return new CloseableIterator<T>() {
+			
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+			
+			@Override
+			public void close() {
+				stream.close();
+			}
+		};
+	}
+	
+}
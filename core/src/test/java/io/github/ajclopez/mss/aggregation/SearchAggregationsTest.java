@@ -0,0 +1,102 @@
+package io.github.ajclopez.mss.aggregation;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.index.IndexDescriptor;
+import io.github.ajclopez.mss.index.IndexMode;
+import io.github.ajclopez.mss.index.IndexValidator;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.EmptyQueryCheck;
+import io.github.ajclopez.mss.model.FacetPage;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class SearchAggregationsTest {
+
+	@Test
+	void translatesQueryIntoStages() {
+		
+		Aggregation aggregation = MongoSpringSearch.aggregation("status=active&sort=-age&skip=20&limit=10&fields=name,address.city", Optional.empty());
+		
+		List<Document> expected = List.of(
+				Document.parse("{\"$match\": {\"$and\": [{\"status\": \"active\"}]}}"),
+				Document.parse("{\"$sort\": {\"age\": -1}}"),
+				Document.parse("{\"$skip\": {\"$numberLong\": \"20\"}}"),
+				Document.parse("{\"$limit\": {\"$numberLong\": \"10\"}}"),
+				Document.parse("{\"$project\": {\"name\": 1, \"address.city\": 1}}"));
+		
+		Assertions.assertEquals(expected, aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT));
+		Assertions.assertEquals(List.of(new Document("$match", new Document())), MongoSpringSearch.aggregation("", Optional.empty()).toPipeline(Aggregation.DEFAULT_CONTEXT));
+	}
+	
+	@Test
+	void wrapsPageAndTotalInFacet() {
+		
+		Aggregation aggregation = MongoSpringSearch.facet("status=active&sort=-age&limit=10", Optional.empty(), 1000L);
+		
+		List<Document> expected = List.of(
+				Document.parse("{\"$match\": {\"$and\": [{\"status\": \"active\"}]}}"),
+				Document.parse("{\"$sort\": {\"age\": -1}}"),
+				Document.parse("{\"$facet\": {"
+						+ "\"page\": [{\"$limit\": {\"$numberLong\": \"10\"}}], "
+						+ "\"total\": [{\"$limit\": {\"$numberLong\": \"1001\"}}, {\"$count\": \"count\"}]}}"));
+		
+		Assertions.assertEquals(expected, aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT));
+		
+		Document exact = Document.parse("{\"$facet\": {\"page\": [{\"$skip\": {\"$numberLong\": \"0\"}}], \"total\": [{\"$count\": \"count\"}]}}");
+		Assertions.assertEquals(List.of(exact), MongoSpringSearch.facet("", Optional.empty(), null).toPipeline(Aggregation.DEFAULT_CONTEXT));
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> MongoSpringSearch.facet("", Optional.empty(), 0L));
+	}
+	
+	@Test
+	void readsFacetResult() {
+		
+		Document result = Document.parse("{\"page\": [{\"name\": \"Ann\"}, {\"name\": \"Bob\"}], \"total\": [{\"count\": 1001}]}");
+		Document exact = Document.parse("{\"page\": [{\"name\": \"Ann\"}, {\"name\": \"Bob\"}], \"total\": [{\"count\": 1000}]}");
+		
+		Assertions.assertEquals(new FacetPage<>(List.of(new Document("name", "Ann"), new Document("name", "Bob")), 1000, true), SearchAggregations.read(result, 1000L));
+		Assertions.assertEquals(new FacetPage<>(List.of(new Document("name", "Ann"), new Document("name", "Bob")), 1001, false), SearchAggregations.read(result, null));
+		// exactly totalCap matches are not capped
+		Assertions.assertEquals(new FacetPage<>(List.of(new Document("name", "Ann"), new Document("name", "Bob")), 1000, false), SearchAggregations.read(exact, 1000L));
+		Assertions.assertEquals(new FacetPage<>(List.of(), 0, false), SearchAggregations.read(Document.parse("{\"page\": [], \"total\": []}"), 1000L));
+	}
+	
+	@Test
+	void returnsEmptyPageOfQueriesThatMatchNothing() {
+		
+		List<String> calls = new ArrayList<>();
+		MongoOperations operations = (MongoOperations) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { MongoOperations.class }, (proxy, method, args) -> {
+			calls.add(method.getName());
+			if ( method.getName().equals("getCollectionName") ) {
+				return "users";
+			}
+			throw new UnsupportedOperationException(method.getName());
+		});
+		
+		Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withEmptyQueryCheck(EmptyQueryCheck.SAFE));
+		
+		Assertions.assertEquals(new FacetPage<>(List.of(), 0, false), MongoSpringSearch.facetPage(operations, "status=active&!status&limit=10", Document.class, configuration, 1000L));
+		Assertions.assertEquals(List.of("getCollectionName"), calls);
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> MongoSpringSearch.facetPage(operations, "status=active", Document.class, configuration, 1000L));
+	}
+	
+	@Test
+	void keepsIndexHint() {
+		
+		IndexValidator validator = IndexValidator.of(List.of(IndexDescriptor.of("status_age", Sort.by("status", "age"))), IndexMode.HINT);
+		Configuration configuration = new Configuration(null, null, null).withIndexValidator(validator);
+		
+		Assertions.assertEquals(Optional.of("status_age"), MongoSpringSearch.facet("status=active&sort=age", Optional.of(configuration), null).getOptions().getHintObject());
+		Assertions.assertEquals(Optional.empty(), MongoSpringSearch.aggregation("status=active", Optional.empty()).getOptions().getHintObject());
+	}
+	
+}
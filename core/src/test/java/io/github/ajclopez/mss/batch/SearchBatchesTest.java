@@ -0,0 +1,154 @@
+package io.github.ajclopez.mss.batch;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.cache.PatternCache;
+import io.github.ajclopez.mss.cache.QueryCache;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.BatchResult;
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+class SearchBatchesTest {
+
+	private static final List<String> QUERIES = List.of(
+			"name=John&age>=30&sort=-age&limit=10",
+			"filter=(country=Mexico OR country=Spain) and gender=female&fields=name,country",
+			"email=/gmail\\.com$/i&date>2020-01-01T00:00:00.000Z&!deleted",
+			"filter=((a=1 or b=2) and (c=3 or d='x y')) or e!=4,5&skip=20",
+			"status!=closed,archived&score<=1.5&sort=name,-date");
+
+	@Test
+	void whenBatchIsCompiledThenKeepOrderAndErrorsPerQuery() {
+
+		List<String> queries = List.of("name=John", "skip=abc", "age>30", "filter=(a=1", "");
+
+		List<BatchResult<CompiledQuery>> results = MongoSpringSearch.compileAll(queries, Optional.of(new Configuration(null, null, null).withFilterParserMode(FilterParserMode.RECURSIVE_DESCENT)));
+
+		Assertions.assertEquals(5, results.size());
+		for ( int i = 0; i < results.size(); i++ ) {
+			Assertions.assertEquals(i, results.get(i).index());
+			Assertions.assertEquals(queries.get(i), results.get(i).query());
+		}
+
+		Assertions.assertTrue(results.get(0).isSuccess());
+		Assertions.assertInstanceOf(ArgumentNotValidException.class, results.get(1).error());
+		Assertions.assertEquals(MongoSpringSearch.mss("age>30"), results.get(2).orElseThrow().toQuery());
+		Assertions.assertThrows(ArgumentNotValidException.class, results.get(3)::orElseThrow);
+		Assertions.assertTrue(results.get(4).orElseThrow().toQuery().getQueryObject().isEmpty());
+	}
+
+	@Test
+	void whenCompiledConcurrentlyThenMatchSequentialResults() throws InterruptedException {
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		try {
+			for ( FilterParserMode mode : FilterParserMode.values() ) {
+
+				Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withFilterParserMode(mode));
+				List<String> queries = new ArrayList<>();
+				for ( int i = 0; i < 2000; i++ ) {
+					queries.add(QUERIES.get(i % QUERIES.size()) + "&id" + i + "=" + i);
+				}
+
+				List<BatchResult<CompiledQuery>> results = MongoSpringSearch.compileAll(queries, configuration, executor);
+
+				for ( int i = 0; i < queries.size(); i++ ) {
+					Assertions.assertEquals(MongoSpringSearch.mss(queries.get(i), configuration), results.get(i).orElseThrow().toQuery(), queries.get(i));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void whenExecutorIsGivenThenRunChunksOnIt() {
+
+		AtomicInteger tasks = new AtomicInteger();
+		List<BatchResult<CompiledQuery>> results = MongoSpringSearch.compileAll(Stream.generate(() -> "name=John").limit(100), Optional.empty(), task -> {
+			tasks.incrementAndGet();
+			task.run();
+		});
+
+		Assertions.assertEquals(100, results.size());
+		Assertions.assertTrue(tasks.get() > 0 && tasks.get() <= 100);
+		Assertions.assertTrue(results.stream().allMatch(BatchResult::isSuccess));
+	}
+
+	@Test
+	void whenExecutorRejectsChunkThenFailItsQueries() {
+
+		AtomicInteger tasks = new AtomicInteger();
+		List<BatchResult<CompiledQuery>> results = SearchBatches.compile(Collections.nCopies(40, "name=John"), query -> MongoSpringSearch.compile(query, Optional.empty()), task -> {
+			if ( tasks.incrementAndGet() % 2 == 0 ) {
+				throw new RejectedExecutionException("queue is full");
+			}
+			task.run();
+		});
+
+		Assertions.assertEquals(40, results.size());
+		Assertions.assertTrue(results.stream().anyMatch(BatchResult::isSuccess));
+		Assertions.assertTrue(results.stream().filter(result -> !result.isSuccess()).allMatch(result -> result.error() instanceof RejectedExecutionException));
+		Assertions.assertTrue(results.stream().anyMatch(result -> !result.isSuccess()));
+
+		for ( int i = 0; i < results.size(); i++ ) {
+			Assertions.assertEquals(i, results.get(i).index());
+		}
+	}
+
+	@Test
+	void whenPatternCacheIsReplacedDuringBatchThenResultsDoNotChange() throws InterruptedException {
+
+		List<String> queries = Collections.nCopies(500, "email=/gmail\\.com$/i&name=/^jo/");
+		List<CompiledQuery> expected = queries.stream().map(query -> MongoSpringSearch.compile(query, Optional.empty())).toList();
+		AtomicInteger calls = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			List<BatchResult<CompiledQuery>> results = SearchBatches.compile(queries, query -> {
+				PatternCache.setDefault(calls.incrementAndGet() % 2 == 0 ? new PatternCache(4) : null);
+				return MongoSpringSearch.compile(query, Optional.empty());
+			}, executor);
+
+			for ( int i = 0; i < queries.size(); i++ ) {
+				Assertions.assertEquals(expected.get(i).toQuery().getQueryObject().toJson(), results.get(i).value().toQuery().getQueryObject().toJson());
+			}
+		} finally {
+			executor.shutdown();
+			PatternCache.setDefault(new PatternCache(PatternCache.DEFAULT_MAXIMUM_SIZE));
+		}
+	}
+
+	@Test
+	void whenQueryCacheIsConfiguredThenShareItAcrossTheBatch() {
+
+		QueryCache cache = new QueryCache(10);
+		Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withQueryCache(cache));
+
+		List<BatchResult<CompiledQuery>> results = MongoSpringSearch.compileAll(List.of("name=John", "name=John", "name=John", "age>30"), configuration, Runnable::run);
+
+		Assertions.assertSame(results.get(0).value(), results.get(2).value());
+		Assertions.assertEquals(2, cache.stats().hits());
+		Assertions.assertEquals(2, cache.size());
+	}
+
+	@Test
+	void whenBatchIsEmptyThenReturnEmptyList() {
+		Assertions.assertTrue(SearchBatches.compile(List.of(), MongoSpringSearch::mss, SearchBatches.defaultExecutor()).isEmpty());
+	}
+
+}
@@ -0,0 +1,74 @@
+package io.github.ajclopez.mss.cache;
+
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.parser.QueryParser;
+import io.github.ajclopez.mss.pattern.SearchPatterns;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+class PatternCacheTest {
+
+	@AfterEach
+	void restoreDefault() {
+		PatternCache.setDefault(new PatternCache(PatternCache.DEFAULT_MAXIMUM_SIZE));
+	}
+	
+	@Test
+	void reusesCompiledPatterns() {
+		
+		PatternCache cache = new PatternCache(10);
+		PatternCache.setDefault(cache);
+		
+		Pattern first = (Pattern) QueryParser.parseValue("/^mex/i", null);
+		Pattern second = (Pattern) QueryParser.parseValue("/^mex/i", CastType.PATTERN);
+		Pattern other = (Pattern) QueryParser.parseValue("/^mex/", null);
+		
+		Assertions.assertSame(first, second);
+		Assertions.assertNotSame(first, other);
+		Assertions.assertEquals(Pattern.CASE_INSENSITIVE, first.flags());
+		Assertions.assertEquals(0, other.flags());
+		
+		CacheStats stats = cache.stats();
+		Assertions.assertEquals(1, stats.hits());
+		Assertions.assertEquals(2, stats.misses());
+		Assertions.assertEquals(2, stats.size());
+	}
+	
+	@Test
+	void evictsLeastRecentlyUsedPatterns() {
+		
+		PatternCache cache = new PatternCache(2);
+		PatternCache.setDefault(cache);
+		
+		QueryParser.parseValue("/a/", null);
+		QueryParser.parseValue("/b/", null);
+		QueryParser.parseValue("/c/", null);
+		
+		Assertions.assertEquals(2, cache.size());
+		Assertions.assertEquals(1, cache.stats().evictions());
+	}
+	
+	@Test
+	void canDisableCache() {
+		
+		PatternCache.setDefault(null);
+		
+		Pattern first = (Pattern) QueryParser.parseValue("/^mex/i", null);
+		Pattern second = (Pattern) QueryParser.parseValue("/^mex/i", null);
+		
+		Assertions.assertNotSame(first, second);
+		Assertions.assertEquals(first.pattern(), second.pattern());
+	}
+	
+	@Test
+	void decodesFlagsFromPosition() {
+		
+		Assertions.assertEquals(Pattern.CASE_INSENSITIVE | Pattern.MULTILINE, SearchPatterns.getFlags("/^mex/im", 6));
+		Assertions.assertEquals(Pattern.DOTALL | Pattern.COMMENTS, SearchPatterns.getFlags("sx"));
+		Assertions.assertEquals(0, SearchPatterns.getFlags(null));
+	}
+	
+}
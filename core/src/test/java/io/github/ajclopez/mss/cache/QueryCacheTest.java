@@ -0,0 +1,125 @@
+package io.github.ajclopez.mss.cache;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.Configuration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+class QueryCacheTest {
+
+	@Test
+	void cachedQueryIsEqualToUncachedQuery() {
+		
+		String query = "filter=(city=Madrid or city=Barcelona) and gender=female&skip=50&limit=10&sort=-birthday,name&fields=firstname,lastname&age>=18";
+		Configuration options = new Configuration(null, null, 100).withQueryCache(new QueryCache(10));
+		
+		Query expected = MongoSpringSearch.mss(query);
+		
+		Query first = MongoSpringSearch.mss(query, Optional.of(options));
+		Query second = MongoSpringSearch.mss(query, Optional.of(options));
+		
+		Assertions.assertEquals(expected.getQueryObject(), first.getQueryObject());
+		Assertions.assertEquals(expected.getQueryObject(), second.getQueryObject());
+		Assertions.assertEquals(expected.getSortObject(), second.getSortObject());
+		Assertions.assertEquals(expected.getFieldsObject(), second.getFieldsObject());
+		Assertions.assertEquals(expected.getSkip(), second.getSkip());
+		Assertions.assertEquals(expected.getLimit(), second.getLimit());
+		
+		CacheStats stats = options.queryCache().stats();
+		Assertions.assertEquals(1, stats.hits());
+		Assertions.assertEquals(1, stats.misses());
+		Assertions.assertEquals(1, stats.size());
+	}
+	
+	@Test
+	void cachedQueriesAreIndependentCopies() {
+		
+		Configuration options = new Configuration(null, null, null).withQueryCache(new QueryCache(10));
+		
+		Query first = MongoSpringSearch.mss("city=Madrid&limit=10", Optional.of(options));
+		first.addCriteria(Criteria.where("age").gt(18));
+		first.limit(20);
+		
+		Query second = MongoSpringSearch.mss("city=Madrid&limit=10", Optional.of(options));
+		
+		Assertions.assertFalse(second.getQueryObject().containsKey("age"));
+		Assertions.assertEquals(10, second.getLimit());
+	}
+	
+	@Test
+	void cacheKeyIncludesConfiguration() {
+		
+		QueryCache cache = new QueryCache(10);
+		
+		Query limited = MongoSpringSearch.mss("limit=1000", Optional.of(new Configuration(null, null, 500).withQueryCache(cache)));
+		Query unlimited = MongoSpringSearch.mss("limit=1000", Optional.of(new Configuration(null, null, null).withQueryCache(cache)));
+		
+		Assertions.assertEquals(500, limited.getLimit());
+		Assertions.assertEquals(1000, unlimited.getLimit());
+		Assertions.assertEquals(2, cache.stats().misses());
+	}
+	
+	@Test
+	void cacheKeyIsTheConfigurationInstance() {
+		
+		Map<String, CastType> casters = new HashMap<>(Map.of("code", CastType.STRING));
+		Configuration options = new Configuration(casters, null, null).withQueryCache(new QueryCache(10));
+		
+		Query first = MongoSpringSearch.mss("code=1", Optional.of(options));
+		casters.put("code", CastType.NUMBER);
+		Query second = MongoSpringSearch.mss("code=1", Optional.of(options));
+		
+		Assertions.assertEquals(Map.of("code", CastType.STRING), options.casters());
+		Assertions.assertEquals(first.getQueryObject(), second.getQueryObject());
+		Assertions.assertEquals(1, options.queryCache().stats().hits());
+		
+		Configuration copy = new Configuration(options.casters(), null, null).withQueryCache(options.queryCache());
+		Assertions.assertEquals(options, copy);
+		
+		MongoSpringSearch.mss("code=1", Optional.of(copy));
+		Assertions.assertEquals(2, options.queryCache().stats().misses());
+	}
+	
+	@Test
+	void cacheEvictsLeastRecentlyUsedQuery() {
+		
+		Configuration options = new Configuration(null, null, null).withQueryCache(new QueryCache(2));
+		
+		MongoSpringSearch.mss("a=1", Optional.of(options));
+		MongoSpringSearch.mss("b=2", Optional.of(options));
+		MongoSpringSearch.mss("a=1", Optional.of(options));
+		MongoSpringSearch.mss("c=3", Optional.of(options));
+		MongoSpringSearch.mss("a=1", Optional.of(options));
+		MongoSpringSearch.mss("b=2", Optional.of(options));
+		
+		CacheStats stats = options.queryCache().stats();
+		Assertions.assertEquals(2, stats.hits());
+		Assertions.assertEquals(4, stats.misses());
+		Assertions.assertEquals(2, stats.evictions());
+		Assertions.assertEquals(2, stats.size());
+	}
+	
+	@Test
+	void invalidQueryIsNotCached() {
+		
+		Configuration configuration = new Configuration(null, null, null).withQueryCache(new QueryCache(10));
+		var options = Optional.of(configuration);
+		
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("limit=a", options));
+		Assertions.assertEquals(0, configuration.queryCache().size());
+	}
+	
+	@Test
+	void cacheSizeMustBePositive() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new QueryCache(0));
+	}
+	
+}
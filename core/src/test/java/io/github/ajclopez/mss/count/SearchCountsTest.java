@@ -0,0 +1,134 @@
+package io.github.ajclopez.mss.count;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.CountResult;
+import io.github.ajclopez.mss.model.CountStrategy;
+import io.github.ajclopez.mss.model.EmptyQueryCheck;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class SearchCountsTest {
+
+	private static final long MATCHES = 2500;
+	
+	private final List<String> calls = new ArrayList<>();
+	private final List<Query> queries = new ArrayList<>();
+	
+	@Test
+	void estimatesQueriesWithoutFilter() {
+		
+		CountResult result = MongoSpringSearch.count(operations(), "sort=-age&skip=20&limit=10&fields=name", Object.class, Optional.of(new Configuration(null, 10, 100)), 1000L);
+		
+		Assertions.assertEquals(new CountResult(100000, CountStrategy.ESTIMATED, false), result);
+		Assertions.assertEquals(List.of("estimatedCount users"), calls);
+	}
+	
+	@Test
+	void capsCount() {
+		
+		CountResult capped = SearchCounts.count(operations(), "status=active&limit=10", Object.class, Optional.empty(), 1000L);
+		
+		Assertions.assertEquals(new CountResult(1000, CountStrategy.CAPPED, true), capped);
+		Assertions.assertEquals("1000+", capped.label());
+		Assertions.assertEquals(1001, queries.get(0).getLimit());
+		
+		CountResult exact = SearchCounts.count(operations(), "status=active", Object.class, Optional.empty(), MATCHES);
+		
+		Assertions.assertEquals(new CountResult(MATCHES, CountStrategy.CAPPED, false), exact);
+		Assertions.assertEquals("2500", exact.label());
+		
+		CountResult under = SearchCounts.count(operations(), "status=active", Object.class, Optional.empty(), 5000L);
+		
+		Assertions.assertEquals(new CountResult(MATCHES, CountStrategy.CAPPED, false), under);
+		Assertions.assertEquals("2500", under.label());
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> SearchCounts.count(operations(), "status=active", Object.class, Optional.empty(), 0L));
+	}
+	
+	@Test
+	void capsCountOverIntegerLimit() {
+		
+		CountResult result = SearchCounts.count(operations(Integer.MAX_VALUE + 10L), "status=active", Object.class, Optional.empty(), Long.MAX_VALUE);
+		
+		Assertions.assertEquals(Integer.MAX_VALUE, queries.get(0).getLimit());
+		Assertions.assertEquals(new CountResult(Integer.MAX_VALUE, CountStrategy.CAPPED, true), result);
+	}
+	
+	@Test
+	void countsExactlyWithoutPaginationAndProjection() {
+		
+		CountResult result = SearchCounts.count(operations(), "status=active&sort=-age&skip=20&limit=10&fields=name", Object.class, Optional.empty(), null);
+		
+		Assertions.assertEquals(new CountResult(MATCHES, CountStrategy.EXACT, false), result);
+		Assertions.assertEquals(List.of("exactCount users"), calls);
+		
+		Query query = queries.get(0);
+		Assertions.assertEquals(MongoSpringSearch.mss("status=active").getQueryObject(), query.getQueryObject());
+		Assertions.assertEquals(0, query.getSkip());
+		Assertions.assertEquals(0, query.getLimit());
+		Assertions.assertEquals(new Document(), query.getSortObject());
+		Assertions.assertEquals(new Document(), query.getFieldsObject());
+	}
+	
+	@Test
+	void skipsQueriesThatMatchNothing() {
+		
+		Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withEmptyQueryCheck(EmptyQueryCheck.SAFE));
+		CountResult result = SearchCounts.count(operations(), "status=active&!status", Object.class, configuration, null);
+		
+		Assertions.assertEquals(new CountResult(0, CountStrategy.SKIPPED, false), result);
+		Assertions.assertTrue(calls.isEmpty());
+	}
+	
+	@Test
+	void keepsHintAndCollation() {
+		
+		Query query = MongoSpringSearch.mss("name=ann&skip=10").withHint("name_1").collation(Collation.of("en").strength(2));
+		Query countQuery = SearchCounts.countQuery(query);
+		
+		Assertions.assertEquals("name_1", countQuery.getHint());
+		Assertions.assertEquals(query.getCollation(), countQuery.getCollation());
+		Assertions.assertEquals(0, countQuery.getSkip());
+	}
+	
+	/**
+	 * 
+	 * Stand-in for a template of a collection with 100000 documents, 2500 of them match the filter unless told otherwise.
+	 * 
+	 */
+	private MongoOperations operations() {
+		return operations(MATCHES);
+	}
+	
+	private MongoOperations operations(long matches) {
+		
+		return (MongoOperations) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { MongoOperations.class }, (proxy, method, args) -> {
+			
+			switch (method.getName()) {
+			case "getCollectionName":
+				return "users";
+			case "estimatedCount":
+				calls.add("estimatedCount " + args[0]);
+				return 100000L;
+			case "exactCount":
+				Query query = (Query) args[0];
+				calls.add("exactCount " + args[1]);
+				queries.add(query);
+				return query.getLimit() > 0 ? Math.min(query.getLimit(), matches) : matches;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+	
+}
@@ -0,0 +1,138 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.BsonQuery;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.PaginationMode;
+import io.github.ajclopez.mss.model.RegexRewrite;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class BsonCriteriaTest {
+
+	private static final CodecRegistry REGISTRY = MongoClientSettings.getDefaultCodecRegistry();
+
+	private static final List<String> QUERIES = List.of(
+			"name=John",
+			"name=John&age>=30&age<60&!deleted&active",
+			"country=Mexico,Spain&status!=closed,archived&tags!=a",
+			"email=/gmail\\.com$/i&name!=/^jo/&code=/^AB-1/",
+			"date>2020-01-01T00:00:00.000Z&id=507f1f77bcf86cd799439011&score<=1.5&flag=true&empty=null",
+			"filter=(country=Mexico OR country=Spain) and gender=female and age>18",
+			"filter=a=1 and a=2 and (b=1 or c=2) and d=3&e=4",
+			"filter=(a=1 or b=2) and (c=3 or d=4)",
+			"filter=name=/^john/ and !deleted&sort=-age,+name,age&fields=name,age,email,address.city,name&skip=10&limit=5",
+			"sort=-date&fields=id,date,author,status,title,body,tags,comments,likes,views,createdAt,updatedAt,a,b,c,d,e,f");
+
+	@Test
+	void whenQueryIsWrittenAsBsonThenMatchCriteriaBytes() {
+
+		for ( Optional<Configuration> configuration : configurations() ) {
+			for ( String query : QUERIES ) {
+				assertEquivalent(query, configuration);
+			}
+		}
+	}
+
+	@Test
+	void whenKeysetQueryIsWrittenAsBsonThenMatchCriteriaBytes() {
+
+		Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withPaginationMode(PaginationMode.KEYSET));
+		Query first = MongoSpringSearch.mss("sort=-age,name&limit=10", configuration);
+		String token = MongoSpringSearch.nextToken(first, new Document("_id", new ObjectId("507f1f77bcf86cd799439011")).append("age", 30).append("name", "John"));
+
+		assertEquivalent("sort=-age,name&limit=10&after=" + token, configuration);
+		assertEquivalent("status=active&sort=-age,name&after=" + token, configuration);
+		assertEquivalent("", configuration);
+	}
+
+	@Test
+	void whenFilterIsWrittenToBinaryWriterThenMatchDocument() {
+
+		String query = "filter=(country=Mexico OR country=Spain) and age>18&status=active";
+		var parsed = MongoSpringSearch.parse(query, Optional.empty());
+
+		BasicOutputBuffer buffer = new BasicOutputBuffer();
+		BsonCriteria.writeFilter(new BsonBinaryWriter(buffer), parsed, null, REGISTRY);
+		RawBsonDocument raw = new RawBsonDocument(buffer.toByteArray());
+
+		Assertions.assertEquals(MongoSpringSearch.mssBson(query, Optional.empty()).filter().toJson(), raw.toJson());
+	}
+
+	@Test
+	void whenQueryIsEmptyThenReturnEmptyDocuments() {
+
+		BsonQuery result = MongoSpringSearch.mssBson("", Optional.empty());
+
+		Assertions.assertTrue(result.filter().isEmpty());
+		Assertions.assertTrue(result.sort().isEmpty());
+		Assertions.assertTrue(result.projection().isEmpty());
+		Assertions.assertNull(result.limit());
+	}
+
+	@Test
+	void whenStrictPerformanceThenRejectUnanchoredRegex() {
+
+		Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withStrictPerformance(true));
+
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mssBson("name=/john/", configuration));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mssBson("name!=/^john/", configuration));
+	}
+
+	private static List<Optional<Configuration>> configurations() {
+
+		Configuration casters = new Configuration(Map.of("code", CastType.STRING, "age", CastType.NUMBER), null, null);
+
+		return List.of(Optional.empty(), Optional.of(casters),
+				Optional.of(casters.withRegexRewrite(RegexRewrite.RANGE)),
+				Optional.of(casters.withRegexRewrite(RegexRewrite.BOUNDS)));
+	}
+
+	private static void assertEquivalent(String query, Optional<Configuration> configuration) {
+
+		Query expected = MongoSpringSearch.mss(query, configuration);
+		BsonQuery result = MongoSpringSearch.mssBson(query, configuration);
+
+		assertBytes(expected.getQueryObject(), result.filter(), query);
+		assertBytes(expected.getSortObject(), result.sort(), query);
+		assertBytes(expected.getFieldsObject(), result.projection(), query);
+		Assertions.assertEquals(expected.isLimited() ? expected.getLimit() : null, result.limit(), query);
+		Assertions.assertEquals(expected.getSkip(), result.skip() != null ? result.skip() : 0L, query);
+	}
+
+	private static void assertBytes(Document expected, BsonDocument actual, String query) {
+
+		RawBsonDocument expectedRaw = new RawBsonDocument(expected, REGISTRY.get(Document.class));
+		RawBsonDocument actualRaw = new RawBsonDocument(actual, new BsonDocumentCodec());
+
+		Assertions.assertEquals(expectedRaw.toJson(), actualRaw.toJson(), query);
+		Assertions.assertArrayEquals(bytes(expectedRaw), bytes(actualRaw), query);
+	}
+
+	private static byte[] bytes(RawBsonDocument document) {
+
+		ByteBuf buffer = document.getByteBuffer();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+
+		return bytes;
+	}
+
+}
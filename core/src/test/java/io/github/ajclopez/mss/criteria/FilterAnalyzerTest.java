@@ -0,0 +1,67 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.EmptyQueryCheck;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+class FilterAnalyzerTest {
+
+	@Test
+	void contradictoryBoundsAndValuesAreEmpty() {
+
+		for ( String query : List.of("age>50&age<10", "age>=10&age<10", "age>10&age<=10", "filter=age>50 and age<10",
+				"status=a&status=b", "status=a,b&status=c", "status=a&status!=a", "status=a,b&status!=a,b",
+				"age=5&age>10", "age=1&age=1.0&age!=1", "date>2021-01-01T00:00:00.000Z&date<2020-01-01T00:00:00.000Z",
+				"filter=(age>50 and age<10) or (status=a and status=b)") ) {
+			Assertions.assertTrue(isEmpty(query, EmptyQueryCheck.SCALAR), query);
+		}
+	}
+
+	@Test
+	void satisfiableFiltersAreNotEmpty() {
+
+		for ( String query : List.of("", "age>10&age<50", "age>=10&age<=10", "status=a&status=a,b", "status=a&status!=b",
+				"age>50&age<2020-01-01T00:00:00.000Z", "age>5&age=abc", "filter=(age>50 and age<10) or status=a",
+				"filter=age>50 or age<10", "name=/^jo/&name=/^ja/", "status=a&!other", "age<=null&!age", "name!=/^jo/&name=/^jo/") ) {
+			Assertions.assertFalse(isEmpty(query, EmptyQueryCheck.SCALAR), query);
+		}
+	}
+
+	@Test
+	void safeCheckOnlyReportsContradictionsThatHoldForArrays() {
+
+		// { age: [60, 5] } matches both bounds
+		Assertions.assertFalse(isEmpty("age>50&age<10", EmptyQueryCheck.SAFE));
+		Assertions.assertFalse(isEmpty("status=a&status=b", EmptyQueryCheck.SAFE));
+		Assertions.assertFalse(isEmpty("age>50&age<10", EmptyQueryCheck.NONE));
+
+		for ( String query : List.of("status&!status", "status=a&!status", "age>5&!age", "filter=name=/^jo/ and !name") ) {
+			Assertions.assertTrue(isEmpty(query, EmptyQueryCheck.SAFE), query);
+		}
+
+		Assertions.assertFalse(isEmpty("status=null&!status", EmptyQueryCheck.SAFE));
+		Assertions.assertFalse(isEmpty("status!=a&!status", EmptyQueryCheck.SAFE));
+	}
+
+	@Test
+	void equalityOverEmptyListIsEmpty() {
+
+		Configuration configuration = new Configuration(null, null, null)
+				.withCodec("tags", value -> value.isEmpty() ? List.of() : List.of(value.split(",")))
+				.withEmptyQueryCheck(EmptyQueryCheck.SAFE);
+
+		Assertions.assertTrue(MongoSpringSearch.compile("tags=", Optional.of(configuration)).alwaysEmpty());
+		Assertions.assertFalse(MongoSpringSearch.compile("tags!=", Optional.of(configuration)).alwaysEmpty());
+		Assertions.assertFalse(MongoSpringSearch.compile("filter=tags= or name=john", Optional.of(configuration)).alwaysEmpty());
+	}
+
+	private static boolean isEmpty(String query, EmptyQueryCheck check) {
+		return MongoSpringSearch.compile(query, Optional.of(new Configuration(null, null, null).withEmptyQueryCheck(check))).alwaysEmpty();
+	}
+
+}
@@ -0,0 +1,63 @@
+package io.github.ajclopez.mss.criteria;
+
+import com.mongodb.BasicDBList;
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import io.github.ajclopez.mss.parser.RecursiveDescentFilterParser;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FilterNormalizerTest {
+
+	@Test
+	void nestedOperationsOfSameTypeAreFlattened() {
+		
+		FilterNode node = FilterNormalizer.normalize(RecursiveDescentFilterParser.parse("a=1 OR (b=2 OR c=3) OR d=4", null));
+		
+		Assertions.assertInstanceOf(FilterNode.Logical.class, node);
+		Assertions.assertEquals(LogicalOperation.OR, ((FilterNode.Logical) node).operation());
+		Assertions.assertEquals(4, ((FilterNode.Logical) node).children().size());
+	}
+	
+	@Test
+	void operationsOfDifferentTypeAreNotFlattened() {
+		
+		FilterNode.Logical node = (FilterNode.Logical) FilterNormalizer.normalize(RecursiveDescentFilterParser.parse("(a=1 OR b=2) AND c=3", null));
+		
+		Assertions.assertEquals(LogicalOperation.AND, node.operation());
+		Assertions.assertEquals(2, node.children().size());
+		Assertions.assertEquals(LogicalOperation.OR, ((FilterNode.Logical) node.children().get(0)).operation());
+	}
+	
+	@Test
+	void orChainCreatesSingleOrList() {
+		
+		Document query = MongoSpringSearch.mss("filter=status=a OR status=b OR status=c OR status=d").getQueryObject();
+		
+		Assertions.assertEquals(4, query.get("$or", BasicDBList.class).size());
+	}
+	
+	@Test
+	void conditionsOnDifferentFieldsAreMergedIntoOneDocument() {
+		
+		Document query = MongoSpringSearch.mss("filter=status=active and type=public and age>18 and (a=1 or b=2)").getQueryObject();
+		BasicDBList list = query.get("$and", BasicDBList.class);
+		
+		Assertions.assertEquals(2, list.size());
+		Assertions.assertEquals(new Document("status", "active").append("type", "public").append("age", new Document("$gt", 18L)), list.get(0));
+	}
+	
+	@Test
+	void conditionsOnSameFieldAreNotMerged() {
+		
+		Document query = MongoSpringSearch.mss("filter=age>18 and age<30 and name=john").getQueryObject();
+		BasicDBList list = query.get("$and", BasicDBList.class);
+		
+		Assertions.assertEquals(2, list.size());
+		Assertions.assertEquals(new Document("age", new Document("$gt", 18L)).append("name", "john"), list.get(0));
+		Assertions.assertEquals(new Document("age", new Document("$lt", 30L)), list.get(1));
+	}
+	
+}
@@ -0,0 +1,89 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.OptimizerRule;
+import io.github.ajclopez.mss.parser.RecursiveDescentFilterParser;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class FilterOptimizerTest {
+
+	private static final Optional<Configuration> OPTIMIZED = Optional.of(new Configuration(null, null, null).withOptimizerRules(EnumSet.allOf(OptimizerRule.class)));
+
+	@Test
+	void equalitiesOnSameFieldJoinedByOrBecomeIn() {
+
+		Document query = MongoSpringSearch.mss("filter=country=Mexico OR country=Spain OR age>18 OR country=Peru,Chile", OPTIMIZED).getQueryObject();
+
+		Assertions.assertEquals(Document.parse("{ '$or': [ { 'country': { '$in': ['Mexico', 'Spain', 'Peru', 'Chile'] } }, { 'age': { '$gt': 18 } } ] }").toJson(), query.toJson());
+		Assertions.assertEquals(Document.parse("{ 'country': { '$in': ['Mexico', 'Spain'] } }").toJson(), MongoSpringSearch.mss("filter=country=Mexico OR country=Spain", OPTIMIZED).getQueryObject().toJson());
+	}
+
+	@Test
+	void inequalitiesOnSameFieldJoinedByAndBecomeNotIn() {
+
+		Document query = MongoSpringSearch.mss("status!=closed&status!=archived,deleted&name!=/^jo/&name!=john", OPTIMIZED).getQueryObject();
+		String json = query.toJson();
+
+		Assertions.assertTrue(json.contains("{\"status\": {\"$nin\": [\"closed\", \"archived\", \"deleted\"]}}"), json);
+		// regular expressions are compared literally by inequalities, they are not merged
+		Assertions.assertTrue(json.contains("{\"name\": {\"$ne\": \"john\"}}"), json);
+	}
+
+	@Test
+	void redundantBoundsAreRemoved() {
+
+		Document query = MongoSpringSearch.mss("filter=age>18 and age>=21 and age<65 and age<=65", OPTIMIZED).getQueryObject();
+		String json = query.toJson();
+
+		Assertions.assertTrue(json.contains("{\"age\": {\"$gte\": 21}}"), json);
+		Assertions.assertTrue(json.contains("{\"age\": {\"$lt\": 65}}"), json);
+		Assertions.assertFalse(json.contains("18") || json.contains("$lte"), json);
+
+		// dates and numbers are not compared with each other
+		List<FilterOptimizer.Rewrite> trace = new ArrayList<>();
+		FilterOptimizer.optimize(FilterNormalizer.normalize(RecursiveDescentFilterParser.parse("date>2020-01-01T00:00:00.000Z and date>=2021-01-01T00:00:00.000Z and date>5", null)),
+				Set.of(OptimizerRule.RANGE), trace);
+		Assertions.assertEquals("(date>=2021-01-01T00:00:00.000Z AND date>5)", trace.get(0).after());
+
+		String strict = MongoSpringSearch.mss("age>=21&age>21", OPTIMIZED).getQueryObject().toJson();
+		Assertions.assertEquals(Document.parse("{ '$and': [ { 'age': { '$gt': 21 } } ] }").toJson(), strict);
+	}
+
+	@Test
+	void duplicatesAndNegationsWithoutEffectAreRemoved() {
+
+		List<FilterOptimizer.Rewrite> trace = new ArrayList<>();
+		FilterNode node = FilterOptimizer.optimize(FilterNormalizer.normalize(RecursiveDescentFilterParser.parse("(a=1 AND a=1) OR !b=2 OR !c", null)),
+				EnumSet.of(OptimizerRule.DUPLICATE, OptimizerRule.NEGATION), trace);
+
+		FilterNode.Logical logical = (FilterNode.Logical) node;
+		Assertions.assertEquals(3, logical.children().size());
+		Assertions.assertEquals(Boolean.FALSE, ((FilterNode.Condition) logical.children().get(1)).criteria().getPrefix());
+		Assertions.assertEquals(Boolean.TRUE, ((FilterNode.Condition) logical.children().get(2)).criteria().getPrefix());
+
+		Assertions.assertEquals(List.of(new FilterOptimizer.Rewrite(OptimizerRule.DUPLICATE, "(a=1 AND a=1)", "a=1"),
+				new FilterOptimizer.Rewrite(OptimizerRule.NEGATION, "!b=2", "b=2")), trace);
+	}
+
+	@Test
+	void onlyEnabledRulesAreApplied() {
+
+		String query = "filter=country=Mexico OR country=Spain&age>18&age>21";
+		Optional<Configuration> duplicates = Optional.of(new Configuration(null, null, null).withOptimizerRules(Set.of(OptimizerRule.DUPLICATE)));
+
+		Assertions.assertEquals(MongoSpringSearch.mss(query), MongoSpringSearch.mss(query, duplicates));
+		Assertions.assertEquals(MongoSpringSearch.mss(query), MongoSpringSearch.mss(query, Optional.of(new Configuration(null, null, null).withOptimizerRules(null))));
+		Assertions.assertNotEquals(MongoSpringSearch.mss(query), MongoSpringSearch.mss(query, OPTIMIZED));
+	}
+
+}
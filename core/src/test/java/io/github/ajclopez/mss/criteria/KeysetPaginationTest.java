@@ -0,0 +1,118 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.PaginationMode;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+class KeysetPaginationTest {
+
+	private static final Optional<Configuration> KEYSET = Optional.of(new Configuration(null, null, null).withPaginationMode(PaginationMode.KEYSET));
+	
+	@Test
+	void appendsIdAsTieBreaker() {
+		
+		Assertions.assertEquals(Sort.by(Sort.Direction.ASC, "_id"), KeysetPagination.tieBreak(Sort.unsorted()));
+		Assertions.assertEquals(Sort.by(Sort.Direction.DESC, "age", "_id"), KeysetPagination.tieBreak(Sort.by(Sort.Direction.DESC, "age")));
+		Assertions.assertEquals(Sort.by("_id", "age"), KeysetPagination.tieBreak(Sort.by("_id", "age")));
+		
+		Query query = MongoSpringSearch.mss("status=active&sort=-age,name", KEYSET);
+		Assertions.assertEquals(new Document("age", -1).append("name", 1).append("_id", 1), query.getSortObject());
+		
+		Assertions.assertEquals(new Document("_id", 1), MongoSpringSearch.mss("", KEYSET).getSortObject());
+	}
+	
+	@Test
+	void roundTripsTokens() {
+		
+		Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("address.city"), Sort.Order.asc("code"), Sort.Order.asc("ref"), Sort.Order.asc("missing"), Sort.Order.asc("_id"));
+		ObjectId id = new ObjectId();
+		UUID ref = UUID.randomUUID();
+		Document last = new Document("_id", id)
+				.append("createdAt", new Date(1700000000000L))
+				.append("address", new Document("city", "Madrid"))
+				.append("code", 12345678901L)
+				.append("ref", ref);
+		
+		String token = KeysetPagination.nextToken(sort, last);
+		
+		Assertions.assertTrue(token.matches("[A-Za-z0-9_-]+"));
+		Assertions.assertEquals(Arrays.asList(new Date(1700000000000L), "Madrid", 12345678901L, ref, null, id), KeysetPagination.decode(token, sort));
+	}
+	
+	@Test
+	void rejectsInvalidTokens() {
+		
+		Sort sort = Sort.by("age", "_id");
+		String token = KeysetPagination.nextToken(sort, new Document("_id", 1).append("age", 30));
+		
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> KeysetPagination.decode(token, Sort.by("name", "_id")));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> KeysetPagination.decode(token, Sort.by(Sort.Direction.DESC, "age", "_id")));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> KeysetPagination.decode("not a token", sort));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> KeysetPagination.decode(encode("{\"k\": [\"age\", \"_id\"], \"v\": [{\"$gt\": 1}, 1]}"), sort));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> KeysetPagination.nextToken(sort, new Document("_id", 1).append("age", List.of(1, 2))));
+		
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("skip=10", KEYSET));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("sort=name&after=" + token, KEYSET));
+	}
+	
+	@Test
+	void buildsRangeConditionsOverSortKeys() {
+		
+		Sort sort = Sort.by(Sort.Order.asc("name"), Sort.Order.desc("age"), Sort.Order.asc("_id"));
+		
+		Document expected = Document.parse("{\"$or\": ["
+				+ "{\"name\": {\"$gt\": \"Ann\"}}, "
+				+ "{\"$and\": [{\"name\": \"Ann\"}, {\"$or\": [{\"age\": {\"$lt\": 30}}, {\"age\": null}]}]}, "
+				+ "{\"$and\": [{\"name\": \"Ann\"}, {\"age\": 30}, {\"_id\": {\"$gt\": 7}}]}]}");
+		
+		Assertions.assertEquals(expected, KeysetPagination.criteria(sort, Arrays.asList("Ann", 30, 7)).getCriteriaObject());
+		
+		Document nulls = Document.parse("{\"$or\": ["
+				+ "{\"name\": {\"$ne\": null}}, "
+				+ "{\"$and\": [{\"name\": null}, {\"age\": null}, {\"_id\": {\"$gt\": 7}}]}]}");
+		
+		Assertions.assertEquals(nulls, KeysetPagination.criteria(sort, Arrays.asList(null, null, 7)).getCriteriaObject());
+		Assertions.assertEquals(new Document("_id", new Document("$gt", 7)), KeysetPagination.criteria(Sort.by("_id"), List.of(7)).getCriteriaObject());
+	}
+	
+	@Test
+	void selectsNextPage() {
+		
+		Query first = MongoSpringSearch.mss("status=active&sort=-age&limit=2", KEYSET);
+		String token = MongoSpringSearch.nextToken(first, new Document("_id", 7).append("age", 30).append("status", "active"));
+		
+		Query next = MongoSpringSearch.mss("status=active&sort=-age&limit=2&after=" + token, KEYSET);
+		
+		Document expected = Document.parse("{\"$and\": [{\"$and\": [{\"status\": \"active\"}]}, {\"$or\": ["
+				+ "{\"$or\": [{\"age\": {\"$lt\": 30}}, {\"age\": null}]}, "
+				+ "{\"$and\": [{\"age\": 30}, {\"_id\": {\"$lt\": 7}}]}]}]}");
+		
+		Assertions.assertEquals(expected, next.getQueryObject());
+		Assertions.assertEquals(first.getSortObject(), next.getSortObject());
+		Assertions.assertEquals(2, next.getLimit());
+	}
+	
+	@Test
+	void keepsAfterAsFilterWithOffsetPagination() {
+		
+		Assertions.assertEquals(Document.parse("{\"$and\": [{\"after\": \"yesterday\"}]}"), MongoSpringSearch.mss("after=yesterday").getQueryObject());
+	}
+	
+	private static String encode(String json) {
+		return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes());
+	}
+	
+}
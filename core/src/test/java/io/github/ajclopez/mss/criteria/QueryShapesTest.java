@@ -0,0 +1,56 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.QueryShape;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+class QueryShapesTest {
+
+	@Test
+	void equivalentQueriesHaveSameCanonicalForm() {
+		
+		QueryShape first = MongoSpringSearch.shape("age>18&status=active,pending&fields=name,email&sort=-age&limit=10", Optional.empty());
+		QueryShape second = MongoSpringSearch.shape("fields=email,name&status=pending,active&limit=10&age>18&sort=-age", Optional.empty());
+		QueryShape third = MongoSpringSearch.shape("filter=status=active,pending AND age>18&sort=-age&fields=name,email&limit=10", Optional.empty());
+		
+		Assertions.assertEquals(first.canonical(), second.canonical());
+		Assertions.assertEquals(first.canonical(), third.canonical());
+		Assertions.assertEquals(first.fingerprint(), third.fingerprint());
+		Assertions.assertEquals("filter=$and(age $gt 18,status $in [\"active\",\"pending\"])&sort=age:-1&fields=email,name&skip=&limit=10", first.canonical());
+		Assertions.assertEquals("filter=$and(age $gt ?,status $in ?)&sort=age:-1&fields=email,name&skip=&limit=?", first.shape());
+	}
+	
+	@Test
+	void shapeIgnoresValues() {
+		
+		QueryShape first = MongoSpringSearch.shape("filter=(city=Madrid OR city=/^bar/i) AND age>=18&skip=0", Optional.empty());
+		QueryShape second = MongoSpringSearch.shape("filter=age>=65 AND (city=/^val/ OR city=Sevilla)&skip=20", Optional.empty());
+		
+		Assertions.assertNotEquals(first.canonical(), second.canonical());
+		Assertions.assertEquals(first.shape(), second.shape());
+		Assertions.assertEquals(first.fingerprint64(), second.fingerprint64());
+		Assertions.assertEquals(32, first.fingerprint().length());
+	}
+	
+	@Test
+	void shapeKeepsStructure() {
+		
+		Assertions.assertNotEquals(MongoSpringSearch.shape("sort=name,-age", Optional.empty()).fingerprint(), MongoSpringSearch.shape("sort=-age,name", Optional.empty()).fingerprint());
+		Assertions.assertNotEquals(MongoSpringSearch.shape("age>1", Optional.empty()).fingerprint(), MongoSpringSearch.shape("age<1", Optional.empty()).fingerprint());
+		Assertions.assertNotEquals(MongoSpringSearch.shape("city=Madrid", Optional.empty()).fingerprint(), MongoSpringSearch.shape("city=Madrid,Sevilla", Optional.empty()).fingerprint());
+		Assertions.assertNotEquals(MongoSpringSearch.shape("email", Optional.empty()).fingerprint(), MongoSpringSearch.shape("!email", Optional.empty()).fingerprint());
+	}
+	
+	@Test
+	void murmur3MatchesReferenceVectors() {
+		
+		Assertions.assertArrayEquals(new long[] { 0L, 0L }, QueryShapes.murmur3(new byte[0]));
+		Assertions.assertArrayEquals(new long[] { 0xcbd8a7b341bd9b02L, 0x5b1e906a48ae1d19L }, QueryShapes.murmur3("hello".getBytes(StandardCharsets.UTF_8)));
+		Assertions.assertArrayEquals(new long[] { 0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L }, QueryShapes.murmur3("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8)));
+	}
+	
+}
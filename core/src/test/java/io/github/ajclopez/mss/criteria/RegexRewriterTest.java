@@ -0,0 +1,95 @@
+package io.github.ajclopez.mss.criteria;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.RegexRewrite;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+class RegexRewriterTest {
+
+	@Test
+	void findsLiteralPrefix() {
+		
+		Assertions.assertEquals("abc", RegexRewriter.getLiteralPrefix(Pattern.compile("^abc")));
+		Assertions.assertEquals("abc", RegexRewriter.getLiteralPrefix(Pattern.compile("^abc.*z")));
+		Assertions.assertEquals("ab", RegexRewriter.getLiteralPrefix(Pattern.compile("^abc?")));
+		Assertions.assertEquals("abc", RegexRewriter.getLiteralPrefix(Pattern.compile("^abc+")));
+		Assertions.assertEquals("a.b", RegexRewriter.getLiteralPrefix(Pattern.compile("^a\\.b\\d")));
+		
+		Assertions.assertNull(RegexRewriter.getLiteralPrefix(Pattern.compile("abc")));
+		Assertions.assertNull(RegexRewriter.getLiteralPrefix(Pattern.compile("^abc", Pattern.CASE_INSENSITIVE)));
+		Assertions.assertNull(RegexRewriter.getLiteralPrefix(Pattern.compile("^abc", Pattern.MULTILINE)));
+		Assertions.assertNull(RegexRewriter.getLiteralPrefix(Pattern.compile("^abc|xyz")));
+		Assertions.assertNull(RegexRewriter.getLiteralPrefix(Pattern.compile("^.abc")));
+	}
+	
+	@Test
+	void computesSuccessor() {
+		
+		Assertions.assertEquals("abd", RegexRewriter.getSuccessor("abc"));
+		Assertions.assertEquals("a0", RegexRewriter.getSuccessor("a/"));
+		Assertions.assertNull(RegexRewriter.getSuccessor("a\uD83D\uDE00"));
+		Assertions.assertNull(RegexRewriter.getSuccessor("a\uD7FF"));
+		Assertions.assertEquals("\uD7FFb", RegexRewriter.getSuccessor("\uD7FFa"));
+	}
+	
+	@Test
+	void rewritesPrefixIntoRange() {
+		
+		Configuration options = new Configuration(null, null, null).withRegexRewrite(RegexRewrite.RANGE);
+		
+		Document document = MongoSpringSearch.mss("filter=name=/^abc/", Optional.of(options)).getQueryObject();
+		
+		Assertions.assertEquals(new Document("$gte", "abc").append("$lt", "abd"), document.get("name"));
+	}
+	
+	@Test
+	void keepsRegexNextToRange() {
+		
+		Configuration options = new Configuration(null, null, null).withRegexRewrite(RegexRewrite.RANGE);
+		
+		Document document = (Document) MongoSpringSearch.mss("filter=name=/^abc.*z/", Optional.of(options)).getQueryObject().get("name");
+		
+		Assertions.assertEquals("abc", document.get("$gte"));
+		Assertions.assertEquals("abd", document.get("$lt"));
+		Assertions.assertEquals("^abc.*z", ((Pattern) ((List<?>) document.get("$in")).get(0)).pattern());
+		
+		Document bounded = (Document) MongoSpringSearch.mss("filter=name=/^abc/", Optional.of(options.withRegexRewrite(RegexRewrite.BOUNDS))).getQueryObject().get("name");
+		
+		Assertions.assertEquals("^abc", ((Pattern) ((List<?>) bounded.get("$in")).get(0)).pattern());
+	}
+	
+	@Test
+	void keepsRegexWithoutPrefix() {
+		
+		Configuration options = new Configuration(null, null, null).withRegexRewrite(RegexRewrite.RANGE);
+		
+		Object value = MongoSpringSearch.mss("filter=name=/^abc/i", Optional.of(options)).getQueryObject().get("name");
+		
+		Assertions.assertEquals("^abc", ((Pattern) value).pattern());
+		
+		Object beforeSurrogates = MongoSpringSearch.mss("filter=name=/^a\uD7FF/", Optional.of(options)).getQueryObject().get("name");
+		
+		Assertions.assertEquals("^a\uD7FF", ((Pattern) beforeSurrogates).pattern());
+	}
+	
+	@Test
+	void strictPerformanceRejectsUnanchoredRegex() {
+		
+		Configuration options = new Configuration(null, null, null).withStrictPerformance(true);
+		
+		Assertions.assertNotNull(MongoSpringSearch.mss("name=/^abc/", Optional.of(options)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("name=/abc/", Optional.of(options)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("name=/^abc/i", Optional.of(options)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("name!=/^abc/", Optional.of(options)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("filter=name=/^abc/,/xyz/", Optional.of(options)));
+	}
+	
+}
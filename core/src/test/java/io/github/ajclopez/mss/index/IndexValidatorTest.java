@@ -0,0 +1,130 @@
+package io.github.ajclopez.mss.index;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.Configuration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexOptions;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class IndexValidatorTest {
+
+	private static final List<IndexDescriptor> INDEXES = List.of(
+			IndexDescriptor.of("_id_", Sort.by("_id")),
+			IndexDescriptor.of("status_createdAt_age", Sort.by("status").and(Sort.by(Sort.Direction.DESC, "createdAt")).and(Sort.by("age"))),
+			IndexDescriptor.of("email_id", Sort.by("email", "_id")));
+	
+	@Test
+	void appliesEqualitySortRangeRule() {
+		
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "status_createdAt_age", "status=active&sort=-createdAt");
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "status_createdAt_age", "status=active&age>18&sort=createdAt");
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "status_createdAt_age", "status=active&sort=-createdAt,age");
+		assertVerdict(IndexVerdict.IN_MEMORY_SORT, "status_createdAt_age", "status=active&sort=age");
+		assertVerdict(IndexVerdict.IN_MEMORY_SORT, "status_createdAt_age", "status=active&sort=-createdAt,-age");
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "status_createdAt_age", "status=/^act/");
+		assertVerdict(IndexVerdict.COLLECTION_SCAN, null, "age>18");
+		assertVerdict(IndexVerdict.COLLECTION_SCAN, null, "status=/act/");
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "_id_", "sort=-_id");
+		assertVerdict(IndexVerdict.COLLECTION_SCAN, null, "sort=name");
+	}
+	
+	@Test
+	void detectsCoveredQueries() {
+		
+		assertVerdict(IndexVerdict.COVERED, "email_id", "email=a@b.com&fields=email");
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "email_id", "email=a@b.com&fields=email,name");
+	}
+	
+	@Test
+	void checksEveryOrBranch() {
+		
+		assertVerdict(IndexVerdict.INDEX_PREFIX, null, "filter=status=active OR email=a@b.com");
+		assertVerdict(IndexVerdict.COLLECTION_SCAN, null, "filter=status=active OR name=Ann");
+		assertVerdict(IndexVerdict.INDEX_PREFIX, "status_createdAt_age", "filter=status=active OR status=new");
+	}
+	
+	@Test
+	void canHintRejectOrWarn() {
+		
+		Configuration hint = new Configuration(null, null, null).withIndexValidator(IndexValidator.of(INDEXES, IndexMode.HINT));
+		Query query = MongoSpringSearch.mss("status=active&age>=18", Optional.of(hint));
+		Assertions.assertEquals("status_createdAt_age", query.getHint());
+		Assertions.assertNull(MongoSpringSearch.mss("name=Ann", Optional.of(hint)).getHint());
+		
+		Configuration reject = new Configuration(null, null, null).withIndexValidator(IndexValidator.of(INDEXES, IndexMode.REJECT));
+		Assertions.assertNotNull(MongoSpringSearch.mss("status=active&sort=-createdAt&limit=10", Optional.of(reject)));
+		Assertions.assertNotNull(MongoSpringSearch.mss("limit=10", Optional.of(reject)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("sort=-unindexedField", Optional.of(reject)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("status=active&sort=name", Optional.of(reject)));
+		
+		Configuration warn = new Configuration(null, null, null).withIndexValidator(IndexValidator.of(INDEXES, IndexMode.WARN));
+		Query warned = MongoSpringSearch.mss("sort=-unindexedField", Optional.of(warn));
+		Assertions.assertNull(warned.getHint());
+	}
+	
+	@Test
+	void discoversIndexesOnce() {
+		
+		AtomicInteger reads = new AtomicInteger();
+		IndexOperations operations = new IndexOperations() {
+			
+			@Override
+			public List<IndexInfo> getIndexInfo() {
+				reads.incrementAndGet();
+				return List.of(
+						new IndexInfo(List.of(IndexField.create("_id", Sort.Direction.ASC)), "_id_", true, false, null),
+						new IndexInfo(List.of(IndexField.create("name", Sort.Direction.ASC)), "name_sparse", false, true, null),
+						new IndexInfo(List.of(IndexField.create("city", Sort.Direction.ASC), IndexField.geo("location")), "city_location", false, false, null));
+			}
+			
+			@Override
+			public String ensureIndex(IndexDefinition indexDefinition) {
+				throw new UnsupportedOperationException();
+			}
+			
+			@Override
+			public void alterIndex(String name, IndexOptions options) {
+				throw new UnsupportedOperationException();
+			}
+			
+			@Override
+			public void dropIndex(String name) {
+				throw new UnsupportedOperationException();
+			}
+			
+			@Override
+			public void dropAllIndexes() {
+				throw new UnsupportedOperationException();
+			}
+		};
+		
+		IndexValidator validator = IndexValidator.discover(operations, IndexMode.HINT);
+		
+		Assertions.assertEquals(List.of(IndexDescriptor.of("_id_", Sort.by("_id")), IndexDescriptor.of("city_location", Sort.by("city"))), validator.getIndexes());
+		Assertions.assertEquals(IndexVerdict.COLLECTION_SCAN, validator.check(MongoSpringSearch.parse("name=Ann", Optional.empty())).verdict());
+		Assertions.assertEquals(1, reads.get());
+		
+		validator.refresh();
+		validator.getIndexes();
+		Assertions.assertEquals(2, reads.get());
+	}
+	
+	private static void assertVerdict(IndexVerdict verdict, String index, String query) {
+		
+		IndexReport report = IndexValidator.of(INDEXES, IndexMode.WARN).check(MongoSpringSearch.parse(query, Optional.empty()));
+		
+		Assertions.assertEquals(new IndexReport(verdict, index), report, query);
+	}
+	
+}
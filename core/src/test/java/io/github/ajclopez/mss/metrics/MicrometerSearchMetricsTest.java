@@ -0,0 +1,92 @@
+package io.github.ajclopez.mss.metrics;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.cache.QueryCache;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.CostPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+class MicrometerSearchMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	
+	@Test
+	void timesEveryPhase() {
+		
+		Configuration configuration = configuration();
+		
+		MongoSpringSearch.mss("status=active&age>18&filter=(a=1 OR b=2) AND c=3&sort=-age", Optional.of(configuration));
+		
+		Assertions.assertEquals(1, registry.get("mss.phase").tag("phase", "tokenize").timer().count());
+		Assertions.assertEquals(1, registry.get("mss.phase").tag("phase", "filter_parse").timer().count());
+		Assertions.assertEquals(5, registry.get("mss.phase").tag("phase", "cast").timer().count());
+		Assertions.assertEquals(1, registry.get("mss.phase").tag("phase", "build").timer().count());
+		
+		MongoSpringSearch.mss("status=active", Optional.of(configuration));
+		
+		Assertions.assertEquals(2, registry.get("mss.phase").tag("phase", "tokenize").timer().count());
+		Assertions.assertEquals(1, registry.get("mss.phase").tag("phase", "filter_parse").timer().count());
+	}
+	
+	@Test
+	void countsOperatorsCastersAndLogicalOperations() {
+		
+		Configuration configuration = new Configuration(Map.of("age", CastType.NUMBER), null, null).withMetrics(new MicrometerSearchMetrics(registry));
+		
+		MongoSpringSearch.mss("status=active&age>18&filter=(a=1 OR b!=2) AND c<3", Optional.of(configuration));
+		
+		Assertions.assertEquals(2, registry.get("mss.conditions").tag("operation", "equal").counter().count());
+		Assertions.assertEquals(1, registry.get("mss.conditions").tag("operation", "greater_than").counter().count());
+		Assertions.assertEquals(1, registry.get("mss.conditions").tag("operation", "not_equal").counter().count());
+		Assertions.assertEquals(1, registry.get("mss.conditions").tag("operation", "less_than").counter().count());
+		Assertions.assertEquals(1, registry.get("mss.casts").tag("caster", "number").counter().count());
+		Assertions.assertEquals(4, registry.get("mss.casts").tag("caster", "auto").counter().count());
+		Assertions.assertEquals(1, registry.get("mss.logical").tag("operation", "or").counter().count());
+		Assertions.assertEquals(1, registry.get("mss.logical").tag("operation", "and").counter().count());
+	}
+	
+	@Test
+	void countsRejections() {
+		
+		Configuration configuration = configuration().withCostPolicy(new CostPolicy(1, null, null, null, null, null, null, false));
+		
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("a=1&b=2", Optional.of(configuration)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("limit=x", Optional.of(configuration)));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss("skip=abc", Optional.of(configuration)));
+		
+		Assertions.assertEquals(1, registry.get("mss.rejections").tag("exception", "QueryCostExceededException").counter().count());
+		Assertions.assertEquals(2, registry.get("mss.rejections").tag("exception", "ArgumentNotValidException").counter().count());
+		Assertions.assertEquals(3, registry.get("mss.rejections.size").summary().count());
+		Assertions.assertEquals(7 + 7 + 8, registry.get("mss.rejections.size").summary().totalAmount());
+	}
+	
+	@Test
+	void publishesCacheHitRate() {
+		
+		QueryCache cache = new QueryCache(10);
+		MicrometerSearchMetrics metrics = new MicrometerSearchMetrics(registry).bindCache("query", cache);
+		Configuration configuration = new Configuration(null, null, null).withQueryCache(cache).withMetrics(metrics);
+		
+		MongoSpringSearch.mss("status=active", Optional.of(configuration));
+		MongoSpringSearch.mss("status=active", Optional.of(configuration));
+		MongoSpringSearch.mss("status=active", Optional.of(configuration));
+		
+		Assertions.assertEquals(2, registry.get("mss.cache.requests").tags("cache", "query", "result", "hit").functionCounter().count());
+		Assertions.assertEquals(1, registry.get("mss.cache.requests").tags("cache", "query", "result", "miss").functionCounter().count());
+		Assertions.assertEquals(1, registry.get("mss.cache.size").tag("cache", "query").gauge().value());
+		Assertions.assertEquals(2.0 / 3, registry.get("mss.cache.hit.rate").tag("cache", "query").gauge().value(), 1e-9);
+		Assertions.assertEquals(1, registry.get("mss.phase").tag("phase", "tokenize").timer().count());
+	}
+	
+	private Configuration configuration() {
+		return new Configuration(null, null, null).withMetrics(new MicrometerSearchMetrics(registry));
+	}
+	
+}
@@ -0,0 +1,121 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.FilterLimits;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+class AdvancedFilterParserTest {
+
+    private static final List<String> FILTERS = List.of(
+            "country=Mexico",
+            "(country=Mexico OR country=Spain) and gender=female",
+            "(core:city=Madrid and core:city=Barcelona)",
+            "age>=18 AND age<=21 OR (name=/^an/i AND status!=DELETED,ARCHIVED)",
+            "((a=1 or b=2) and (c>3 or d<4)) or e=2021-01-08T00:00:00.000Z"
+    );
+
+    @Test
+    void sllModeReturnsSameCriteriaAsLlMode() {
+
+        for ( String filter : FILTERS ) {
+            FilterNode expected = AdvancedFilterParser.parse(filter, null, FilterParserMode.LL);
+            FilterNode result = AdvancedFilterParser.parse(filter, null, FilterParserMode.SLL);
+
+            Assertions.assertEquals(expected, result, filter);
+        }
+    }
+
+    @Test
+    void sllModeRecoversLikeLlModeAndCanReuseParser() {
+
+        FilterNode expected = AdvancedFilterParser.parse("(country=Mexico", null, FilterParserMode.LL);
+        FilterNode recovered = AdvancedFilterParser.parse("(country=Mexico", null, FilterParserMode.SLL);
+        Assertions.assertEquals(expected, recovered);
+
+        FilterNode result = AdvancedFilterParser.parse("country=Spain", null, FilterParserMode.SLL);
+        Assertions.assertEquals(condition("country", "Spain"), result);
+    }
+
+    @Test
+    void nullModeUsesLlMode() {
+
+        FilterNode result = AdvancedFilterParser.parse("country=Spain", null, null);
+        Assertions.assertEquals(condition("country", "Spain"), result);
+    }
+
+    @Test
+    void strictModeReturnsSameCriteriaAsLenientMode() {
+
+        for ( FilterParserMode mode : FilterParserMode.values() ) {
+            for ( String filter : FILTERS ) {
+                Assertions.assertEquals(AdvancedFilterParser.parse(filter, null, FilterParserMode.LL), parse(filter, mode, FilterLimits.defaults()), filter);
+            }
+        }
+    }
+
+    @Test
+    void strictModeRejectsMalformedFiltersAtTheirPositionWithoutPrinting() {
+
+        List<String> filters = List.of("(a=1", "a=1 and", "a= or b", ")))", "a=1 b=2", "and", "a=1 and (b=2", "a=[1]", "a=1 or or b=2");
+        PrintStream err = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try {
+            System.setErr(new PrintStream(output));
+
+            for ( String filter : filters ) {
+
+                String expected = Assertions.assertThrows(ArgumentNotValidException.class, () -> parse(filter, FilterParserMode.RECURSIVE_DESCENT, FilterLimits.none())).getMessage();
+                Assertions.assertTrue(expected.contains("at position"), expected);
+
+                for ( FilterParserMode mode : List.of(FilterParserMode.LL, FilterParserMode.SLL) ) {
+                    ArgumentNotValidException exception = Assertions.assertThrows(ArgumentNotValidException.class, () -> parse(filter, mode, FilterLimits.none()), filter);
+                    Assertions.assertEquals(expected, exception.getMessage());
+                }
+            }
+        } finally {
+            System.setErr(err);
+        }
+
+        Assertions.assertEquals("", output.toString());
+        Assertions.assertEquals(condition("country", "Spain"), parse("country=Spain", FilterParserMode.SLL, FilterLimits.none()));
+    }
+
+    @Test
+    void strictModeEnforcesLimitsBeforeParsing() {
+
+        FilterLimits limits = new FilterLimits(64, 12, 3);
+        String deep = "(".repeat(10_000) + "a=1" + ")".repeat(10_000);
+
+        for ( FilterParserMode mode : FilterParserMode.values() ) {
+            assertMessage("filter is not valid: 65 characters exceed the limit of 64.", "a=".repeat(32) + "1", mode, limits);
+            assertMessage("filter is not valid: more than 12 tokens at position 21.", "a=1 or b=2 or c=3 or d=4", mode, limits);
+            assertMessage("filter is not valid: nesting deeper than 3 at position 3.", "((((a=1))))", mode, limits);
+            assertMessage("filter is not valid: nesting deeper than 32 at position 32.", deep, mode, new FilterLimits(null, 1024, 32));
+            Assertions.assertNotNull(parse("(((a=1)))", mode, limits));
+        }
+    }
+
+    private static void assertMessage(String expected, String filter, FilterParserMode mode, FilterLimits limits) {
+        Assertions.assertEquals(expected, Assertions.assertThrows(ArgumentNotValidException.class, () -> parse(filter, mode, limits)).getMessage(), mode.name());
+    }
+
+    private static FilterNode parse(String filter, FilterParserMode mode, FilterLimits limits) {
+        return mode == FilterParserMode.RECURSIVE_DESCENT
+                ? RecursiveDescentFilterParser.parse(filter, null, null, limits)
+                : AdvancedFilterParser.parse(filter, null, mode, null, limits);
+    }
+
+    private static FilterNode condition(String key, String value) {
+        return new FilterNode.Condition(new SearchCriteria(false, key, SearchOperation.EQUAL, value, null));
+    }
+}
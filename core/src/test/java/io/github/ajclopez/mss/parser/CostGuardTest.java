@@ -0,0 +1,126 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.exception.QueryCostExceededException;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.CostMetric;
+import io.github.ajclopez.mss.model.CostPolicy;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import io.github.ajclopez.mss.model.QueryCost;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Optional;
+
+class CostGuardTest {
+
+	private static final FilterParserMode[] MODES = { FilterParserMode.LL, FilterParserMode.SLL, FilterParserMode.RECURSIVE_DESCENT };
+	
+	@Test
+	void measuresQueryWhileParsing() {
+		
+		for ( FilterParserMode mode : MODES ) {
+			
+			Configuration options = new Configuration(null, null, null).withFilterParserMode(mode);
+			
+			QueryCost cost = MongoSpringSearch.parse("filter=(a=1 OR (b=/^x/ OR c='1,2,3')) AND !d&e=/y/i,z&skip=40&sort=a,-b", Optional.of(options)).cost();
+			
+			Assertions.assertEquals(new QueryCost(5, 3, 2, 3, 2, 40, 2), cost, mode.name());
+		}
+	}
+	
+	@Test
+	void rejectsQueriesOverBudget() {
+		
+		CostPolicy policy = new CostPolicy(3, 2, 1, 3, 1, 100L, 1, false);
+		
+		assertRejected(policy, "filter=((a=1))", CostMetric.DEPTH);
+		assertRejected(policy, "filter=a=1 OR b=2 OR c=3", CostMetric.OR_BRANCHES);
+		assertRejected(policy, "filter=a=1 AND b=2 AND c=3 AND d", CostMetric.CLAUSES);
+		assertRejected(policy, "a=1&b=2&c=3&d=4", CostMetric.CLAUSES);
+		assertRejected(policy, "a=1,2,3,4", CostMetric.IN_VALUES);
+		assertRejected(policy, "filter=a=/x/ AND b=/y/", CostMetric.REGEXES);
+		assertRejected(policy, "skip=101", CostMetric.SKIP);
+		assertRejected(policy, "sort=a,b", CostMetric.SORT_FIELDS);
+	}
+	
+	@Test
+	void countsBranchesPerOr() {
+		
+		CostPolicy policy = new CostPolicy(null, 2, null, null, null, null, null, false);
+		
+		for ( FilterParserMode mode : MODES ) {
+			
+			Configuration options = new Configuration(null, null, null).withFilterParserMode(mode).withCostPolicy(policy);
+			
+			Assertions.assertEquals(2, MongoSpringSearch.parse("filter=(a=1 OR b=1) AND (c=1 OR d=1)", Optional.of(options)).cost().orBranches(), mode.name());
+			Assertions.assertEquals(2, MongoSpringSearch.parse("filter=a=1 OR b=1 AND c=1 OR d=1", Optional.of(options)).cost().orBranches(), mode.name());
+			Assertions.assertEquals(0, MongoSpringSearch.parse("filter=a=1 AND b=1", Optional.of(options)).cost().orBranches(), mode.name());
+		}
+		
+		// nested OR operations are merged into one $or
+		assertRejected(policy, "filter=a=1 OR (b=1 OR c=1)", CostMetric.OR_BRANCHES);
+		assertRejected(policy, "filter=(a=1 OR b=1) OR c=1", CostMetric.OR_BRANCHES);
+	}
+	
+	@Test
+	void rejectsQueriesOverBudgetBeforeReadingTheRest() {
+		
+		CostPolicy policy = new CostPolicy(null, 2, null, null, null, null, null, false);
+		PrintStream err = System.err;
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		try {
+			System.setErr(new PrintStream(output));
+			
+			for ( FilterParserMode mode : MODES ) {
+				// the invalid characters at the end would be reported by the lexer if it was read
+				Assertions.assertThrows(QueryCostExceededException.class, () -> AdvancedFilterParser.parse("a=1 OR b=2 OR c=3 OR d=[1]", null, mode, new CostGuard(policy)), mode.name());
+			}
+		} finally {
+			System.setErr(err);
+		}
+		
+		Assertions.assertEquals("", output.toString());
+	}
+	
+	@Test
+	void clampsSkipAndSort() {
+		
+		Configuration options = new Configuration(null, null, null).withCostPolicy(new CostPolicy(null, null, null, null, null, 100L, 1, true));
+		
+		Query query = MongoSpringSearch.mss("skip=5000&sort=-a,b", Optional.of(options));
+		
+		Assertions.assertEquals(100, query.getSkip());
+		Assertions.assertEquals(1, query.getSortObject().size());
+		Assertions.assertEquals(-1, query.getSortObject().getInteger("a"));
+	}
+	
+	@Test
+	void rejectsDeepNestingBeforeBuildingTree() {
+		
+		Configuration options = new Configuration(null, null, null).withCostPolicy(CostPolicy.defaults());
+		String filter = "filter=" + "(".repeat(100000) + "a=1" + ")".repeat(100000);
+		
+		for ( FilterParserMode mode : MODES ) {
+			Assertions.assertThrows(QueryCostExceededException.class, () -> MongoSpringSearch.mss(filter, Optional.of(options.withFilterParserMode(mode))), mode.name());
+		}
+	}
+	
+	private static void assertRejected(CostPolicy policy, String query, CostMetric metric) {
+		
+		for ( FilterParserMode mode : MODES ) {
+			
+			Configuration options = new Configuration(null, null, null).withFilterParserMode(mode).withCostPolicy(policy);
+			
+			ArgumentNotValidException exception = Assertions.assertThrows(ArgumentNotValidException.class, () -> MongoSpringSearch.mss(query, Optional.of(options)), query);
+			
+			Assertions.assertEquals(metric, ((QueryCostExceededException) exception).getMetric(), query);
+		}
+	}
+	
+}
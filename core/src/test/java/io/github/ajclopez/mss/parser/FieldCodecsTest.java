@@ -0,0 +1,76 @@
+package io.github.ajclopez.mss.parser;
+
+import com.mongodb.BasicDBList;
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.Configuration;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+class FieldCodecsTest {
+
+	@Test
+	void compilesCastersOnce() {
+		
+		FieldCodecs codecs = FieldCodecs.of(Map.of("age", CastType.NUMBER, "code", CastType.STRING));
+		
+		Assertions.assertSame(ValueCodecs.NUMBER, codecs.get("age"));
+		Assertions.assertSame(ValueCodecs.STRING, codecs.get("code"));
+		Assertions.assertEquals(CastType.NUMBER, codecs.caster("age"));
+		Assertions.assertNull(codecs.get("name"));
+		Assertions.assertEquals(FieldCodecs.of(Map.of("age", CastType.NUMBER, "code", CastType.STRING)), codecs);
+	}
+	
+	@Test
+	void customCodecTakesPrecedenceOverCaster() {
+		
+		FieldCodecs codecs = FieldCodecs.of(Map.of("id", CastType.STRING)).with("id", ValueCodecs.UUID);
+		
+		Assertions.assertSame(ValueCodecs.UUID, codecs.get("id"));
+		Assertions.assertEquals(CastType.STRING, codecs.caster("id"));
+	}
+	
+	@Test
+	void canDecodeTypesWithoutCaster() {
+		
+		Assertions.assertEquals(new Decimal128(new BigDecimal("0.10")), ValueCodecs.DECIMAL128.decode("0.10"));
+		Assertions.assertEquals(Long.valueOf(10), ValueCodecs.LONG.decode("10"));
+		Assertions.assertEquals(Double.valueOf(10), ValueCodecs.DOUBLE.decode("10"));
+		Assertions.assertEquals(UUID.fromString("5f2b6a0e-3c9d-4a5e-8f1b-2d7c9e0a4b61"), ValueCodecs.UUID.decode("5f2b6a0e-3c9d-4a5e-8f1b-2d7c9e0a4b61"));
+		Assertions.assertEquals(Instant.parse("2024-01-31T00:00:00Z"), ValueCodecs.date(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")).decode("31/01/2024 00:00"));
+		
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> ValueCodecs.DECIMAL128.decode("ten"));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> ValueCodecs.LONG.decode("1.5"));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> ValueCodecs.DOUBLE.decode("1,5"));
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> ValueCodecs.UUID.decode("not-a-uuid"));
+	}
+	
+	@Test
+	void canUseCustomCodecInQueries() {
+		
+		Configuration options = new Configuration(null, null, null)
+				.withCodec("price", ValueCodecs.DECIMAL128)
+				.withCodec("ref", ValueCodecs.UUID);
+		
+		Query mongoQuery = MongoSpringSearch.mss("price>=19.90&filter=ref=5f2b6a0e-3c9d-4a5e-8f1b-2d7c9e0a4b61", Optional.of(options));
+		
+		BasicDBList and = mongoQuery.getQueryObject().get("$and", BasicDBList.class);
+		Document filter = (Document) and.get(0);
+		Document price = (Document) ((Document) and.get(1)).get("price");
+		
+		Assertions.assertEquals(UUID.fromString("5f2b6a0e-3c9d-4a5e-8f1b-2d7c9e0a4b61"), filter.get("ref"));
+		Assertions.assertEquals(new Decimal128(new BigDecimal("19.90")), price.get("$gte"));
+	}
+	
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 class QueryParserTest {
@@ -149,4 +150,62 @@ class QueryParserTest {
         Assertions.assertInstanceOf(String.class, result);
         Assertions.assertEquals("firstname", result);
     }
+
+    @Test
+    void whenValueIsQuotedThenUnquoteReturnsContentWithEscapesResolved() {
+
+        Assertions.assertEquals("John Smith", QueryParser.unquote("'John Smith'"));
+        Assertions.assertEquals("O'Neil\tJr A", QueryParser.unquote("'O\\'Neil\\tJr \\x41'"));
+        Assertions.assertEquals("value", QueryParser.unquote("value"));
+    }
+
+    @Test
+    void whenValueIsEncodedThenDecodeKeepsPlusSign() {
+
+        Assertions.assertEquals("+34 600", QueryParser.decode("+34%20600"));
+        Assertions.assertEquals("a+b", QueryParser.decode("a+b"));
+    }
+
+    @Test
+    void whenDecimalValueThenReturnDoubleWhenCasterIsNull() {
+
+        Assertions.assertEquals(1.5d, QueryParser.parseValue("1.5", null));
+        Assertions.assertEquals(-1.25d, QueryParser.parseValue("-1.25", null));
+        Assertions.assertEquals(1L, QueryParser.parseValue("1.0", null));
+    }
+
+    @Test
+    void whenIntegerDoesNotFitInLongThenReturnDoubleWhenCasterIsNull() {
+
+        Assertions.assertEquals(Long.MAX_VALUE, QueryParser.parseValue("9223372036854775807", null));
+        Assertions.assertEquals(Long.MIN_VALUE, QueryParser.parseValue("-9223372036854775808", null));
+        Assertions.assertEquals(9.223372036854775808E18, QueryParser.parseValue("9223372036854775808", null));
+    }
+
+    @Test
+    void whenDefaultLocaleUsesDecimalCommaThenNumberIsParsedWithDecimalPoint() {
+
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            Assertions.assertEquals(1.5d, QueryParser.parseValue("1.5", null));
+            Assertions.assertEquals(1.5d, QueryParser.parseValue("1.5", CastType.NUMBER));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    void whenDateTimeFieldsAreOutOfRangeThenReturnStringWhenCasterIsNull() {
+
+        Object result = QueryParser.parseValue("2024-13-01T12:00:00.000Z", null);
+        Assertions.assertEquals("2024-13-01T12:00:00.000Z", result);
+    }
+
+    @Test
+    void whenRegexHasUnknownFlagThenReturnStringWhenCasterIsNull() {
+
+        Object result = QueryParser.parseValue("/abc/q", null);
+        Assertions.assertEquals("/abc/q", result);
+    }
 }
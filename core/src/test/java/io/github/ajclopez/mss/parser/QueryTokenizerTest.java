@@ -0,0 +1,105 @@
+package io.github.ajclopez.mss.parser;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.SearchCriteria;
+import io.github.ajclopez.mss.model.SearchOperation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+class QueryTokenizerTest {
+
+	private static final List<String> CONDITIONS = List.of("name=John", "!active", "age>=30", "age<30", "age>30", "age<=30",
+			"country!=Mexico", "a!b", "a<>5", "a==5", "email=%2Fgmail%5C.com%24%2Fi", "name=Jos%C3%A9", "city=São Paulo",
+			"date>2020-01-01T00:00:00.000Z", "phone=+52", "key%3Dvalue", "tags=a,b,c");
+
+	@Test
+	void whenConditionIsTokenizedThenMatchOperatorPattern() {
+
+		for ( String condition : CONDITIONS ) {
+
+			SearchCriteria expected = QueryParser.criteriaParser(condition.replace("+", "%2B"), null);
+			List<SearchCriteria> result = QueryTokenizer.tokenize(condition, null);
+
+			Assertions.assertEquals(1, result.size(), condition);
+			assertCriteria(expected, result.get(0));
+		}
+	}
+
+	@Test
+	void whenQueryIsBytesThenTokenizeAsUtf8() {
+
+		String query = String.join("&", CONDITIONS);
+		List<SearchCriteria> expected = QueryTokenizer.tokenize(query, null);
+		List<SearchCriteria> result = QueryTokenizer.tokenize(query.getBytes(StandardCharsets.UTF_8), null);
+
+		Assertions.assertEquals(expected.size(), result.size());
+		for ( int i = 0; i < expected.size(); i++ ) {
+			assertCriteria(expected.get(i), result.get(i));
+		}
+	}
+
+	@Test
+	void whenBufferIsTokenizedThenPositionIsNotChanged() {
+
+		ByteBuffer buffer = ByteBuffer.wrap("/users?age>30&sort=-age".getBytes(StandardCharsets.US_ASCII));
+		buffer.position(7);
+
+		List<SearchCriteria> result = QueryTokenizer.tokenize(buffer, null);
+
+		Assertions.assertEquals(7, buffer.position());
+		Assertions.assertEquals(2, result.size());
+		Assertions.assertEquals("age", result.get(0).getKey());
+		Assertions.assertEquals(SearchOperation.GREATER_THAN, result.get(0).getOperation());
+		Assertions.assertEquals("-age", result.get(1).getValue());
+	}
+
+	@Test
+	void whenConditionIsEmptyThenIgnoreIt() {
+
+		List<SearchCriteria> result = QueryTokenizer.tokenize("&name=John&&age>30&", null);
+
+		Assertions.assertEquals(2, result.size());
+		Assertions.assertEquals("name", result.get(0).getKey());
+		Assertions.assertEquals("age", result.get(1).getKey());
+	}
+
+	@Test
+	void whenConditionHasNoKeyThenThrowException() {
+
+		for ( String query : List.of("=5", "!", "!=5", "!!a", "name=John&>3", "name=a%0Ab") ) {
+			Assertions.assertThrows(ArgumentNotValidException.class, () -> QueryTokenizer.tokenize(query, null), query);
+		}
+	}
+
+	@Test
+	void whenEscapeIsMalformedThenThrowExceptionWithPosition() {
+
+		ArgumentNotValidException exception = Assertions.assertThrows(ArgumentNotValidException.class, () -> QueryTokenizer.tokenize("name=John&city=%ZZ", null));
+		Assertions.assertTrue(exception.getMessage().contains("position 15"), exception.getMessage());
+
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> QueryTokenizer.tokenize("city=Mexico%2".getBytes(StandardCharsets.US_ASCII), null));
+	}
+
+	@Test
+	void whenMssReceivesBytesThenReturnSameQuery() {
+
+		String query = "name=Jos%C3%A9&age>=30&!deleted&sort=-age,+name&fields=name,age&skip=10&limit=5";
+
+		Assertions.assertEquals(MongoSpringSearch.mss(query, Optional.empty()), MongoSpringSearch.mss(query.getBytes(StandardCharsets.UTF_8), Optional.empty()));
+		Assertions.assertTrue(MongoSpringSearch.mss(ByteBuffer.allocate(2).put((byte) ' '), Optional.empty()).getQueryObject().isEmpty());
+	}
+
+	private static void assertCriteria(SearchCriteria expected, SearchCriteria actual) {
+		Assertions.assertEquals(expected.getPrefix(), actual.getPrefix());
+		Assertions.assertEquals(expected.getKey(), actual.getKey());
+		Assertions.assertEquals(expected.getOperation(), actual.getOperation());
+		Assertions.assertEquals(expected.getValue(), actual.getValue());
+	}
+
+}
@@ -0,0 +1,116 @@
+package io.github.ajclopez.mss.parser;
+
+import com.mongodb.MongoClientSettings;
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.criteria.CriteriaImpl;
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.CastType;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.FilterNode;
+import io.github.ajclopez.mss.model.FilterParserMode;
+import io.github.ajclopez.mss.model.LogicalOperation;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class RecursiveDescentFilterParserTest {
+
+    private static final List<String> FILTERS = List.of(
+            "(country=Mexico OR country=Spain) and gender=female",
+            "(city=Madrid or city=Barcelona) and gender=female",
+            "(core:city=Madrid and core:city=Barcelona)",
+            "age>=10 AND mobile=/^+34.*/ AND firstname=john AND date>2021-01-08T00:00:00.000Z",
+            "age>=18 and age<=21 and date<2021-01-08T23:59:59.999Z and city!=USA",
+            "code=123456,98765 or zone!=zone1,zone2 or email!=/.*@example.com/",
+            "name=Elisa AND female=true AND flag=null AND mobile=/^58/",
+            "firstname=/JOHN/i OR firstname=/JOHN/gmixs",
+            "list=value1,value2,value3 and a=true and b=false and c=null",
+            "date=2024-07-21T12:00:00.000Z and id=6674249e4d854906d60314ce and regex=^58 and name=firstname",
+            "a=1 or b=2 and c=3 or d=4",
+            "((a=1 or b=2) and (c>3 or d<4)) or e=2021-01-08T00:00:00.000Z",
+            "ANDROID=1 and ORDER=2",
+            "name='John Smith' and city='New York'",
+            "encoded=%41%2B and plus=+34",
+            "  spaced   =  value  AND  other != x  ",
+            "email and !phone and name='O\\'Neil\\tJr' and code=%25"
+    );
+
+    @Test
+    void recursiveDescentParserReturnsSameCriteriaAsAntlrParser() {
+
+        for ( String filter : FILTERS ) {
+            FilterNode expected = AdvancedFilterParser.parse(filter, null, FilterParserMode.LL);
+            FilterNode result = RecursiveDescentFilterParser.parse(filter, null);
+
+            Assertions.assertEquals(expected, result, filter);
+        }
+    }
+
+    @Test
+    void recursiveDescentParserReturnsSameCriteriaAsAntlrParserWithCasters() {
+
+        Map<String, CastType> casters = Map.of("mobile", CastType.STRING, "age", CastType.NUMBER, "flag", CastType.BOOLEAN);
+        String filter = "mobile=134000000000 and (age>18 or flag=false)";
+
+        FilterNode expected = AdvancedFilterParser.parse(filter, FieldCodecs.of(casters), FilterParserMode.LL);
+        FilterNode result = RecursiveDescentFilterParser.parse(filter, FieldCodecs.of(casters));
+
+        Assertions.assertEquals(expected, result);
+    }
+
+    @Test
+    void mssReturnsSameQueryWithRecursiveDescentParser() {
+
+        Configuration options = new Configuration(null, null, null).withFilterParserMode(FilterParserMode.RECURSIVE_DESCENT);
+        String query = "filter=(city=Madrid or city=Barcelona) and gender=female&skip=50&limit=10&sort=-birthday&name=/^an/&age>=18";
+
+        Query expected = MongoSpringSearch.mss(query);
+        Query result = MongoSpringSearch.mss(query, Optional.of(options));
+
+        Assertions.assertEquals(json(expected.getQueryObject()), json(result.getQueryObject()));
+    }
+
+    @Test
+    void operatorsHaveSamePrecedenceAndAreLeftAssociative() {
+
+        FilterNode.Logical node = (FilterNode.Logical) RecursiveDescentFilterParser.parse("a=1 or b=2 and c=3", null);
+
+        Assertions.assertEquals(LogicalOperation.AND, node.operation());
+        Assertions.assertEquals(LogicalOperation.OR, ((FilterNode.Logical) node.children().get(0)).operation());
+    }
+
+    @Test
+    void quotedStringsUseLongestMatch() {
+
+        FilterNode.Condition node = (FilterNode.Condition) RecursiveDescentFilterParser.parse("name='a' and b='c'", null);
+
+        Assertions.assertEquals("a' and b='c", node.criteria().getValue());
+    }
+
+    @Test
+    void keyWithoutOperatorChecksExistence() {
+
+        Document document = CriteriaImpl.buildCriteria(RecursiveDescentFilterParser.parse("email and !phone", null)).getCriteriaObject();
+
+        Assertions.assertEquals(new Document("$exists", true), document.get("email"));
+        Assertions.assertEquals(new Document("$exists", false), document.get("phone"));
+    }
+
+    @Test
+    void invalidFilterThrowsArgumentNotValidException() {
+
+        for ( String filter : List.of("", "(country=Mexico", "country=", "country=Mexico)", "a=1 b=2", "[a]=1", "a=1 AND", "a=\\1", "a=1\r\nAND b=2") ) {
+            Assertions.assertThrows(ArgumentNotValidException.class, () -> RecursiveDescentFilterParser.parse(filter, null), filter);
+        }
+    }
+
+    private static String json(Document document) {
+        return document.toJson(new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry()));
+    }
+}
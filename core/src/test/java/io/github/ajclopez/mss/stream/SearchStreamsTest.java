@@ -0,0 +1,105 @@
+package io.github.ajclopez.mss.stream;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.StreamOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class SearchStreamsTest {
+
+	private static final Optional<Configuration> CAPPED = Optional.of(new Configuration(null, 10, 100));
+	
+	private final List<Query> queries = new ArrayList<>();
+	private final List<String> collections = new ArrayList<>();
+	private final AtomicInteger fetched = new AtomicInteger();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	
+	@Test
+	void setsCursorBatchSize() {
+		
+		SearchStreams.stream(operations(), "status=active", Document.class, Optional.empty(), StreamOptions.defaults().withBatchSize(500)).close();
+		
+		Assertions.assertEquals(500, queries.get(0).getMeta().getCursorBatchSize());
+		Assertions.assertEquals(new Document("status", "active"), queries.get(0).getQueryObject().get("$and", List.class).get(0));
+		
+		Assertions.assertNull(SearchStreams.toQuery("status=active", Optional.empty(), null).getMeta().getCursorBatchSize());
+	}
+	
+	@Test
+	void ignoresLimitCapsForExports() {
+		
+		Assertions.assertEquals(100, SearchStreams.toQuery("limit=5000", CAPPED, StreamOptions.defaults()).getLimit());
+		Assertions.assertEquals(10, SearchStreams.toQuery("limit=all", CAPPED, StreamOptions.defaults()).getLimit());
+		
+		Assertions.assertEquals(5000, SearchStreams.toQuery("limit=5000", CAPPED, StreamOptions.forExport(1000)).getLimit());
+		Assertions.assertEquals(0, SearchStreams.toQuery("status=active", CAPPED, StreamOptions.forExport(1000)).getLimit());
+		Assertions.assertThrows(ArgumentNotValidException.class, () -> SearchStreams.toQuery("limit=all", CAPPED, StreamOptions.forExport(1000)));
+	}
+	
+	@Test
+	void readsLazilyAndClosesCursorOnEarlyTermination() {
+		
+		try ( Stream<Document> stream = SearchStreams.stream(operations(), "sort=age", Document.class, "users", Optional.empty(), StreamOptions.forExport(2)) ) {
+			
+			Assertions.assertEquals(0, fetched.get());
+			Assertions.assertEquals(List.of(0, 1), stream.limit(2).map(document -> document.getInteger("n")).collect(Collectors.toList()));
+			Assertions.assertFalse(closed.get());
+		}
+		
+		Assertions.assertTrue(closed.get());
+		Assertions.assertEquals(2, fetched.get());
+		Assertions.assertEquals(List.of("users"), collections);
+	}
+	
+	@Test
+	void closesCursorWithIterator() {
+		
+		try ( CloseableIterator<Document> iterator = SearchStreams.iterator(operations(), "", Document.class, Optional.empty(), StreamOptions.defaults()) ) {
+			Assertions.assertTrue(iterator.hasNext());
+			Assertions.assertEquals(0, iterator.next().getInteger("n"));
+		}
+		
+		Assertions.assertTrue(closed.get());
+		Assertions.assertEquals(1, fetched.get());
+	}
+	
+	/**
+	 * 
+	 * Stand-in for a template whose cursor returns an unbounded sequence of documents.
+	 * 
+	 */
+	private MongoOperations operations() {
+		
+		return (MongoOperations) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { MongoOperations.class }, (proxy, method, args) -> {
+			
+			if ( !method.getName().equals("stream") ) {
+				throw new UnsupportedOperationException(method.getName());
+			}
+			
+			queries.add((Query) args[0]);
+			if ( args.length == 3 ) {
+				collections.add((String) args[2]);
+			}
+			
+			return Stream.iterate(0, n -> n + 1)
+					.map(n -> new Document("n", n))
+					.peek(document -> fetched.incrementAndGet())
+					.onClose(() -> closed.set(true));
+		});
+	}
+	
+}
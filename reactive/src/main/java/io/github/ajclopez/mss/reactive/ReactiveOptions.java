@@ -0,0 +1,68 @@
+package io.github.ajclopez.mss.reactive;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * <p>Options of queries executed with {@link ReactiveSearch}.</p>
+ *
+ * <ul>
+ * <li><b>batchSize:</b> number of documents requested from the cursor at a time, {@code null} to follow the demand of the subscriber.
+ * <li><b>offloadThreshold:</b> length of the query string from which it is parsed on {@code parseScheduler} instead of the subscribing thread.
+ * <li><b>parseScheduler:</b> scheduler used to parse long queries.
+ * </ul>
+ */
+public record ReactiveOptions(Integer batchSize, int offloadThreshold, Scheduler parseScheduler) {
+
+	public ReactiveOptions {
+		if ( batchSize != null && batchSize <= 0 ) {
+			throw new IllegalArgumentException("batchSize must be positive.");
+		}
+		parseScheduler = parseScheduler != null ? parseScheduler : Schedulers.boundedElastic();
+	}
+	
+	/**
+	 * 
+	 * Returns options that follow the demand of the subscriber and parse queries of 1024 characters or more on
+	 * {@link Schedulers#boundedElastic()}.
+	 * 
+	 * @return a new {@link ReactiveOptions} instance.
+	 */
+	public static ReactiveOptions defaults() {
+		return new ReactiveOptions(null, 1024, null);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of these options with the given batch size.
+	 * 
+	 * @param batchSize number of documents requested from the cursor at a time, {@code null} to follow the demand of the subscriber.
+	 * @return a new {@link ReactiveOptions} instance.
+	 */
+	public ReactiveOptions withBatchSize(Integer batchSize) {
+		return new ReactiveOptions(batchSize, offloadThreshold, parseScheduler);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of these options that parses queries from the given length on {@code parseScheduler}.
+	 * 
+	 * @param offloadThreshold length of the query string, {@code 0} to always offload and {@link Integer#MAX_VALUE} to never.
+	 * @return a new {@link ReactiveOptions} instance.
+	 */
+	public ReactiveOptions withOffloadThreshold(int offloadThreshold) {
+		return new ReactiveOptions(batchSize, offloadThreshold, parseScheduler);
+	}
+	
+	/**
+	 * 
+	 * Returns a copy of these options that parses long queries on the given scheduler.
+	 * 
+	 * @param parseScheduler scheduler used to parse long queries.
+	 * @return a new {@link ReactiveOptions} instance.
+	 */
+	public ReactiveOptions withParseScheduler(Scheduler parseScheduler) {
+		return new ReactiveOptions(batchSize, offloadThreshold, parseScheduler);
+	}
+	
+}
@@ -0,0 +1,136 @@
+package io.github.ajclopez.mss.reactive;
+
+import io.github.ajclopez.mss.MongoSpringSearch;
+import io.github.ajclopez.mss.model.CompiledQuery;
+import io.github.ajclopez.mss.model.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * 
+ * Executes search queries with {@link ReactiveMongoOperations} without blocking the subscribing thread.
+ * 
+ * <p>Queries are parsed when the result is subscribed, long queries on the parse scheduler of the options. Errors of
+ * the query string, such as {@code ArgumentNotValidException}, are signaled as {@code onError}. Cancelling the
+ * subscription closes the server cursor. Queries marked as always empty by the {@code emptyQueryCheck} of the
+ * configuration complete without reaching the server.</p>
+ *
+ */
+public class ReactiveSearch {
+
+	private ReactiveSearch() {
+		
+	}
+	
+	/**
+	 * 
+	 * Finds the documents of the collection of entityClass that match query.
+	 * 
+	 * @param <T> the type of the documents returned.
+	 * @param operations the template used to execute the query.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents returned.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and parse scheduler.
+	 * @return the matching documents.
+	 */
+	public static <T> Flux<T> find(ReactiveMongoOperations operations, String query, Class<T> entityClass, Optional<Configuration> configuration, ReactiveOptions options) {
+		
+		ReactiveOptions reactiveOptions = options != null ? options : ReactiveOptions.defaults();
+		
+		return limitRate(compile(query, configuration, reactiveOptions).flatMapMany(compiled -> compiled.alwaysEmpty()
+				? Flux.<T>empty() : operations.find(toQuery(compiled, reactiveOptions), entityClass)), reactiveOptions);
+	}
+	
+	/**
+	 * 
+	 * Finds the documents of the given collection that match query.
+	 * 
+	 * @param <T> the type of the documents returned.
+	 * @param operations the template used to execute the query.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents returned.
+	 * @param collectionName the name of the collection.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and parse scheduler.
+	 * @return the matching documents.
+	 */
+	public static <T> Flux<T> find(ReactiveMongoOperations operations, String query, Class<T> entityClass, String collectionName, Optional<Configuration> configuration, ReactiveOptions options) {
+		
+		ReactiveOptions reactiveOptions = options != null ? options : ReactiveOptions.defaults();
+		
+		return limitRate(compile(query, configuration, reactiveOptions).flatMapMany(compiled -> compiled.alwaysEmpty()
+				? Flux.<T>empty() : operations.find(toQuery(compiled, reactiveOptions), entityClass, collectionName)), reactiveOptions);
+	}
+	
+	/**
+	 * 
+	 * Counts the documents of the collection of entityClass that match query, ignoring its {@code skip} and {@code limit}.
+	 * 
+	 * @param operations the template used to execute the query.
+	 * @param query string part of the requested API URL.
+	 * @param entityClass the type of the documents counted.
+	 * @param configuration object for advanced options.
+	 * @param options parse scheduler.
+	 * @return the number of matching documents.
+	 */
+	public static Mono<Long> count(ReactiveMongoOperations operations, String query, Class<?> entityClass, Optional<Configuration> configuration, ReactiveOptions options) {
+		
+		ReactiveOptions reactiveOptions = options != null ? options : ReactiveOptions.defaults();
+		
+		return compile(query, configuration, reactiveOptions).flatMap(compiled -> compiled.alwaysEmpty()
+				? Mono.just(0L) : operations.count(Query.of(compiled.toQuery()).skip(0).limit(0), entityClass));
+	}
+	
+	/**
+	 * 
+	 * Converts query into a MongoDB query object when subscribed, on the parse scheduler for long queries.
+	 * 
+	 * @param query string part of the requested API URL.
+	 * @param configuration object for advanced options.
+	 * @param options batch size and parse scheduler.
+	 * @return MongoDB Query
+	 */
+	public static Mono<Query> toQuery(String query, Optional<Configuration> configuration, ReactiveOptions options) {
+		
+		ReactiveOptions reactiveOptions = options != null ? options : ReactiveOptions.defaults();
+		
+		return compile(query, configuration, reactiveOptions).map(compiled -> toQuery(compiled, reactiveOptions));
+	}
+	
+	private static Mono<CompiledQuery> compile(String query, Optional<Configuration> configuration, ReactiveOptions options) {
+		
+		Mono<CompiledQuery> mono = Mono.fromCallable(() -> MongoSpringSearch.compile(query, configuration));
+		
+		if ( query != null && query.length() >= options.offloadThreshold() ) {
+			return mono.subscribeOn(options.parseScheduler());
+		}
+		
+		return mono;
+	}
+	
+	private static Query toQuery(CompiledQuery compiled, ReactiveOptions options) {
+		
+		Query mongoQuery = compiled.toQuery();
+		
+		if ( options.batchSize() != null ) {
+			mongoQuery.cursorBatchSize(options.batchSize());
+		}
+		
+		return mongoQuery;
+	}
+	
+	/**
+	 * 
+	 * Requests documents in batches, so a slow subscriber never has more than one batch buffered.
+	 * 
+	 */
+	private static <T> Flux<T> limitRate(Flux<T> flux, ReactiveOptions options) {
+		return options.batchSize() != null ? flux.limitRate(options.batchSize()) : flux;
+	}
+	
+}
@@ -0,0 +1,125 @@
+package io.github.ajclopez.mss.reactive;
+
+import io.github.ajclopez.mss.exception.ArgumentNotValidException;
+import io.github.ajclopez.mss.model.Configuration;
+import io.github.ajclopez.mss.model.EmptyQueryCheck;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ReactiveSearchTest {
+
+	private final Scheduler parser = Schedulers.newSingle("mss-parse");
+	
+	private final List<Query> queries = new CopyOnWriteArrayList<>();
+	private final List<Long> requests = new CopyOnWriteArrayList<>();
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+	
+	@AfterEach
+	void dispose() {
+		parser.dispose();
+	}
+	
+	@Test
+	void parsesLongQueriesOnParseScheduler() {
+		
+		ReactiveOptions options = ReactiveOptions.defaults().withParseScheduler(parser).withOffloadThreshold(20);
+		
+		String shortQuery = ReactiveSearch.toQuery("age>18", Optional.empty(), options).map(query -> Thread.currentThread().getName()).block();
+		String longQuery = ReactiveSearch.toQuery("age>18&status=active&sort=-age", Optional.empty(), options).map(query -> Thread.currentThread().getName()).block();
+		
+		Assertions.assertEquals(Thread.currentThread().getName(), shortQuery);
+		Assertions.assertTrue(longQuery.startsWith("mss-parse"), longQuery);
+	}
+	
+	@Test
+	void parsesWhenSubscribed() {
+		
+		Flux<Document> documents = ReactiveSearch.find(operations(), "limit=x", Document.class, Optional.empty(), null);
+		
+		Assertions.assertTrue(queries.isEmpty());
+		Assertions.assertThrows(ArgumentNotValidException.class, documents::blockLast);
+	}
+	
+	@Test
+	void requestsDocumentsInBatches() {
+		
+		List<Document> documents = ReactiveSearch.find(operations(), "status=active", Document.class, "users", Optional.empty(), ReactiveOptions.defaults().withBatchSize(10))
+				.collectList()
+				.block();
+		
+		Assertions.assertEquals(25, documents.size());
+		Assertions.assertEquals(10, queries.get(0).getMeta().getCursorBatchSize());
+		Assertions.assertEquals(10L, requests.get(0));
+		Assertions.assertTrue(requests.stream().allMatch(n -> n <= 10), requests::toString);
+	}
+	
+	@Test
+	void cancelsCursor() {
+		
+		List<Document> documents = ReactiveSearch.find(operations(), "", Document.class, Optional.empty(), ReactiveOptions.defaults())
+				.take(3)
+				.collectList()
+				.block();
+		
+		Assertions.assertEquals(3, documents.size());
+		Assertions.assertTrue(cancelled.get());
+	}
+	
+	@Test
+	void countsWithoutSkipAndLimit() {
+		
+		Long count = ReactiveSearch.count(operations(), "status=active&skip=20&limit=10", Document.class, Optional.of(new Configuration(null, 10, 100)), null).block();
+		
+		Assertions.assertEquals(25L, count);
+		Assertions.assertEquals(0, queries.get(0).getSkip());
+		Assertions.assertEquals(0, queries.get(0).getLimit());
+		Assertions.assertEquals(new Document("status", "active"), queries.get(0).getQueryObject().get("$and", List.class).get(0));
+	}
+	
+	@Test
+	void completesEmptyQueriesWithoutServer() {
+		
+		Optional<Configuration> configuration = Optional.of(new Configuration(null, null, null).withEmptyQueryCheck(EmptyQueryCheck.SCALAR));
+		
+		Assertions.assertEquals(0, ReactiveSearch.find(operations(), "age>50&age<10", Document.class, configuration, null).count().block());
+		Assertions.assertEquals(0L, ReactiveSearch.count(operations(), "status=a&status=b", Document.class, configuration, null).block());
+		Assertions.assertTrue(queries.isEmpty());
+	}
+	
+	/**
+	 * 
+	 * Stand-in for a template whose cursor holds 25 documents.
+	 * 
+	 */
+	private ReactiveMongoOperations operations() {
+		
+		return (ReactiveMongoOperations) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ReactiveMongoOperations.class }, (proxy, method, args) -> {
+			
+			queries.add((Query) args[0]);
+			
+			return switch (method.getName()) {
+				case "find" -> Flux.range(0, 25)
+						.map(n -> new Document("n", n))
+						.doOnRequest(requests::add)
+						.doOnCancel(() -> cancelled.set(true));
+				case "count" -> Mono.just(25L);
+				default -> throw new UnsupportedOperationException(method.getName());
+			};
+		});
+	}
+	
+}